@@ -0,0 +1,102 @@
+package org.checkerframework.benchmarks;
+
+import com.sun.source.tree.AnnotationTree;
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.ExpressionTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreeScanner;
+import java.util.ArrayList;
+import java.util.List;
+import org.checkerframework.framework.type.GenericAnnotatedTypeFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks {@link GenericAnnotatedTypeFactory#getAnnotatedType(Tree)} on every declaration and
+ * expression of a corpus file.
+ *
+ * <p>Each invocation resets the factory to the start of the compilation unit, so the measured time
+ * includes the dataflow analysis that {@code getAnnotatedType} triggers, as it does when the
+ * visitor first reaches a class.
+ */
+public class AnnotatedTypeFactoryBenchmark extends NullnessCorpusBenchmark {
+
+    /** Whether the type factory caches its results; false passes {@code -AatfDoNotCache}. */
+    @Param({"true", "false"})
+    public boolean cache;
+
+    /** The type-checked corpus file. */
+    private CorpusCompilation compilation;
+
+    /** The trees whose type is computed by each invocation of the benchmark. */
+    private List<Tree> trees;
+
+    /** Type-checks the corpus file and collects the trees to compute the types of. */
+    @Setup
+    public void setup() {
+        compilation = cache ? checkCorpusFile() : checkCorpusFile("-AatfDoNotCache");
+        trees = collectTypedTrees(compilation);
+    }
+
+    /**
+     * Computes the type of every collected tree of the corpus file.
+     *
+     * @param blackhole consumes the computed types
+     */
+    @Benchmark
+    public void getAnnotatedType(Blackhole blackhole) {
+        GenericAnnotatedTypeFactory<?, ?, ?, ?> factory = compilation.factory;
+        factory.setRoot(compilation.root);
+        for (Tree tree : trees) {
+            blackhole.consume(factory.getAnnotatedType(tree));
+        }
+    }
+
+    /**
+     * Returns the class, method, and variable declarations and the expressions of the corpus file,
+     * in source order. The package declaration, the imports, and trees within annotations are
+     * skipped, because they do not have a type. The type of each collected tree is computed once,
+     * so that a tree whose type cannot be computed makes the setup fail rather than go unmeasured.
+     *
+     * @param compilation a type-checked corpus file
+     * @return the trees of the corpus file that have a type
+     */
+    static List<Tree> collectTypedTrees(CorpusCompilation compilation) {
+        List<Tree> candidates = new ArrayList<>();
+        new TreeScanner<Void, Void>() {
+            @Override
+            public Void visitCompilationUnit(CompilationUnitTree node, Void p) {
+                return scan(node.getTypeDecls(), p);
+            }
+
+            @Override
+            public Void scan(Tree tree, Void p) {
+                if (tree instanceof ExpressionTree
+                        || tree instanceof ClassTree
+                        || tree instanceof MethodTree
+                        || tree instanceof VariableTree) {
+                    candidates.add(tree);
+                }
+                return super.scan(tree, p);
+            }
+
+            @Override
+            public Void visitAnnotation(AnnotationTree node, Void p) {
+                return null;
+            }
+        }.scan(compilation.root, null);
+
+        GenericAnnotatedTypeFactory<?, ?, ?, ?> factory = compilation.factory;
+        CompilationUnitTree root = compilation.root;
+        factory.setRoot(root);
+        for (Tree tree : candidates) {
+            factory.getAnnotatedType(tree);
+        }
+        return candidates;
+    }
+}
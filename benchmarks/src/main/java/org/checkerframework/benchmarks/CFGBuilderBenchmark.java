@@ -0,0 +1,37 @@
+package org.checkerframework.benchmarks;
+
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.MethodTree;
+import javax.annotation.processing.ProcessingEnvironment;
+import org.checkerframework.dataflow.cfg.CFGBuilder;
+import org.checkerframework.javacutil.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Benchmarks {@link CFGBuilder#build} on every method of a corpus file. */
+public class CFGBuilderBenchmark extends NullnessCorpusBenchmark {
+
+    /** The type-checked corpus file. */
+    private CorpusCompilation compilation;
+
+    /** Type-checks the corpus file. */
+    @Setup
+    public void setup() {
+        compilation = checkCorpusFile();
+    }
+
+    /**
+     * Builds the control flow graph of every method of the corpus file.
+     *
+     * @param blackhole consumes the control flow graphs
+     */
+    @Benchmark
+    public void build(Blackhole blackhole) {
+        ProcessingEnvironment env = compilation.getProcessingEnvironment();
+        for (Pair<MethodTree, ClassTree> method : compilation.methods) {
+            blackhole.consume(
+                    CFGBuilder.build(compilation.root, method.first, method.second, env));
+        }
+    }
+}
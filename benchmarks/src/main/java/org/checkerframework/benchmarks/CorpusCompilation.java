@@ -0,0 +1,191 @@
+package org.checkerframework.benchmarks;
+
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.util.JavacTask;
+import com.sun.source.util.TreeScanner;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.tools.DiagnosticListener;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import org.checkerframework.common.basetype.BaseTypeChecker;
+import org.checkerframework.framework.type.GenericAnnotatedTypeFactory;
+import org.checkerframework.javacutil.BugInCF;
+import org.checkerframework.javacutil.Pair;
+
+/**
+ * A single corpus file that has been parsed, attributed, and type-checked by a checker, with the
+ * compiler still open so that the benchmarks can call back into the checker's type factory.
+ *
+ * <p>The corpus files are fixed copies of test cases from {@code checker/tests}; they live in the
+ * {@code corpus} resource directory of this project so that the numbers stay comparable across
+ * commits even when the original test cases are edited.
+ */
+public class CorpusCompilation {
+
+    /** The javac task. It is never closed, so its {@code Context} stays usable. */
+    private final JavacTask task;
+
+    /** The compilation unit of the corpus file. */
+    public final CompilationUnitTree root;
+
+    /** The checker that type-checked the corpus file. */
+    public final BaseTypeChecker checker;
+
+    /** The type factory of {@link #checker}; its root is {@link #root}. */
+    public final GenericAnnotatedTypeFactory<?, ?, ?, ?> factory;
+
+    /** The methods with a body in the corpus file, paired with their enclosing class. */
+    public final List<Pair<MethodTree, ClassTree>> methods;
+
+    /**
+     * Parses, attributes, and type-checks a corpus file.
+     *
+     * @param corpusFile the name of a file in the {@code corpus} resource directory, such as {@code
+     *     "nullness/FlowNullness.java"}
+     * @param checker a fresh instance of the checker to run
+     * @param checkerOptions additional options such as {@code "-AatfDoNotCache"}
+     */
+    public CorpusCompilation(String corpusFile, BaseTypeChecker checker, String... checkerOptions) {
+        this.checker = checker;
+
+        List<String> options = new ArrayList<>();
+        options.add("-classpath");
+        options.add(System.getProperty("java.class.path"));
+        options.addAll(Arrays.asList(checkerOptions));
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        // The corpus files contain expected type-checking errors, so ignore all diagnostics.
+        DiagnosticListener<JavaFileObject> ignore = diagnostic -> {};
+        this.task =
+                (JavacTask)
+                        compiler.getTask(
+                                null,
+                                null,
+                                ignore,
+                                options,
+                                null,
+                                Collections.singletonList(new CorpusFileObject(corpusFile)));
+        task.setProcessors(Collections.singletonList(checker));
+
+        try {
+            Iterator<? extends CompilationUnitTree> roots = task.parse().iterator();
+            this.root = roots.next();
+            // Attributes the corpus file and runs the checker on each of its classes.
+            task.analyze();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        this.factory = checker.getTypeFactory();
+        if (factory == null) {
+            throw new BugInCF("Checker was not initialized while compiling " + corpusFile);
+        }
+
+        this.methods = collectMethods(root);
+    }
+
+    /**
+     * Returns the processing environment of the compilation.
+     *
+     * @return the processing environment of the compilation
+     */
+    public ProcessingEnvironment getProcessingEnvironment() {
+        return checker.getProcessingEnvironment();
+    }
+
+    /**
+     * Returns every method with a body in {@code root}, including methods of nested and anonymous
+     * classes, paired with its enclosing class.
+     *
+     * @param root a compilation unit
+     * @return the methods with a body in {@code root}
+     */
+    private static List<Pair<MethodTree, ClassTree>> collectMethods(CompilationUnitTree root) {
+        List<Pair<MethodTree, ClassTree>> result = new ArrayList<>();
+        new TreeScanner<Void, ClassTree>() {
+            @Override
+            public Void visitClass(ClassTree node, ClassTree enclosing) {
+                return super.visitClass(node, node);
+            }
+
+            @Override
+            public Void visitMethod(MethodTree node, ClassTree enclosing) {
+                if (node.getBody() != null) {
+                    result.add(Pair.of(node, enclosing));
+                }
+                return super.visitMethod(node, enclosing);
+            }
+        }.scan(root, null);
+        return result;
+    }
+
+    /**
+     * Reads a file from the {@code corpus} resource directory.
+     *
+     * @param corpusFile the name of a file in the {@code corpus} resource directory
+     * @return the contents of the file
+     */
+    public static String readCorpusFile(String corpusFile) {
+        try (InputStream in = openCorpusFile(corpusFile)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+            return new String(out.toByteArray(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Opens a file from the {@code corpus} resource directory.
+     *
+     * @param corpusFile the name of a file in the {@code corpus} resource directory
+     * @return a stream with the contents of the file
+     */
+    public static InputStream openCorpusFile(String corpusFile) {
+        InputStream in = CorpusCompilation.class.getResourceAsStream("/corpus/" + corpusFile);
+        if (in == null) {
+            throw new BugInCF("Corpus file not found: " + corpusFile);
+        }
+        return in;
+    }
+
+    /** A source file whose contents are read from the {@code corpus} resource directory. */
+    private static class CorpusFileObject extends SimpleJavaFileObject {
+
+        /** The contents of the corpus file. */
+        private final String contents;
+
+        /**
+         * Creates a file object for a corpus file.
+         *
+         * @param corpusFile the name of a file in the {@code corpus} resource directory
+         */
+        CorpusFileObject(String corpusFile) {
+            super(URI.create("string:///" + corpusFile), Kind.SOURCE);
+            this.contents = readCorpusFile(corpusFile);
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return contents;
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.checkerframework.benchmarks;
+
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.MethodTree;
+import java.util.ArrayList;
+import java.util.List;
+import org.checkerframework.checker.nullness.NullnessAnalysis;
+import org.checkerframework.checker.nullness.NullnessAnnotatedTypeFactory;
+import org.checkerframework.dataflow.analysis.ForwardAnalysisImpl;
+import org.checkerframework.dataflow.cfg.ControlFlowGraph;
+import org.checkerframework.dataflow.cfg.UnderlyingAST.CFGMethod;
+import org.checkerframework.framework.flow.CFCFGBuilder;
+import org.checkerframework.javacutil.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks {@link ForwardAnalysisImpl#performAnalysis(ControlFlowGraph)} with the Nullness
+ * Checker's transfer function on every method of a corpus file.
+ */
+public class ForwardAnalysisBenchmark extends NullnessCorpusBenchmark {
+
+    /** The analysis to run. */
+    private NullnessAnalysis analysis;
+
+    /** The control flow graphs of the methods of the corpus file. */
+    private List<ControlFlowGraph> cfgs;
+
+    /** Type-checks the corpus file and builds the control flow graphs of its methods. */
+    @Setup
+    public void setup() {
+        CorpusCompilation compilation = checkCorpusFile();
+        analysis = createAnalysis(compilation);
+        cfgs = buildCFGs(compilation);
+    }
+
+    /**
+     * Analyzes the control flow graph of every method of the corpus file.
+     *
+     * @param blackhole consumes the analysis results
+     */
+    @Benchmark
+    public void performAnalysis(Blackhole blackhole) {
+        for (ControlFlowGraph cfg : cfgs) {
+            analysis.performAnalysis(cfg);
+            blackhole.consume(analysis.getRegularExitStore());
+        }
+    }
+
+    /**
+     * Creates a Nullness Checker analysis that uses the type factory of a type-checked corpus file.
+     * The factory still holds the dataflow results of type-checking, which the transfer function
+     * reads for the effectively final local variables of enclosing methods.
+     *
+     * @param compilation a corpus file type-checked by the Nullness Checker
+     * @return a new analysis
+     */
+    static NullnessAnalysis createAnalysis(CorpusCompilation compilation) {
+        return new NullnessAnalysis(
+                compilation.checker,
+                (NullnessAnnotatedTypeFactory) compilation.factory,
+                new ArrayList<>());
+    }
+
+    /**
+     * Builds the control flow graphs, as the checker sees them, of the methods of a corpus file.
+     *
+     * @param compilation a type-checked corpus file
+     * @return the control flow graph of each method of the corpus file
+     */
+    static List<ControlFlowGraph> buildCFGs(CorpusCompilation compilation) {
+        List<ControlFlowGraph> result = new ArrayList<>();
+        for (Pair<MethodTree, ClassTree> method : compilation.methods) {
+            result.add(
+                    CFCFGBuilder.build(
+                            compilation.root,
+                            new CFGMethod(method.first, method.second),
+                            compilation.checker,
+                            compilation.factory,
+                            compilation.getProcessingEnvironment()));
+        }
+        return result;
+    }
+}
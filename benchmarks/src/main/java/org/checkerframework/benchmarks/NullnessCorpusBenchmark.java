@@ -0,0 +1,48 @@
+package org.checkerframework.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.nullness.NullnessChecker;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Superclass of the benchmarks that type-check one of the Nullness Checker corpus files and then
+ * repeatedly exercise a part of the framework on the result.
+ *
+ * <p>Every benchmark is run once per corpus file, so a regression can be attributed to the kind of
+ * code that triggers it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class NullnessCorpusBenchmark {
+
+    /** The corpus file to type-check; a file in the {@code corpus} resource directory. */
+    @Param({
+        "nullness/ArrayCreationNullable.java",
+        "nullness/FlowNullness.java",
+        "nullness/JavaCopFlow.java",
+        "nullness/KeyForFlow.java"
+    })
+    public String corpusFile;
+
+    /**
+     * Type-checks {@link #corpusFile} with a new instance of the Nullness Checker.
+     *
+     * @param checkerOptions additional options to pass to the checker
+     * @return the type-checked corpus file
+     */
+    protected CorpusCompilation checkCorpusFile(String... checkerOptions) {
+        return new CorpusCompilation(corpusFile, new NullnessChecker(), checkerOptions);
+    }
+}
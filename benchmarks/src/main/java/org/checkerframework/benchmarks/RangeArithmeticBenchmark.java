@@ -0,0 +1,130 @@
+package org.checkerframework.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.common.value.util.Range;
+import org.checkerframework.javacutil.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks the {@link Range} arithmetic that the Constant Value Checker performs for every
+ * arithmetic expression on integral values. {@link ValueCheckerBenchmark} measures its effect on
+ * type-checking.
+ *
+ * <p>Every benchmark is run once with operands within Integer's range and once with operands whose
+ * bounds are near Long's limits, because {@link Range} handles overflow of the latter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RangeArithmeticBenchmark {
+
+    /** The bounds of the operands: {@code "int"} or {@code "long"}. */
+    @Param({"int", "long"})
+    public String operands;
+
+    /** Every pair of operand ranges. */
+    private List<Pair<Range, Range>> operandPairs;
+
+    /** Every pair of an operand range and a range of shift distances. */
+    private List<Pair<Range, Range>> shiftPairs;
+
+    /** Creates the operand ranges. */
+    @Setup
+    public void setup() {
+        long[] bounds;
+        switch (operands) {
+            case "int":
+                bounds = new long[] {Integer.MIN_VALUE, -1000, -1, 0, 1, 1000, Integer.MAX_VALUE};
+                break;
+            case "long":
+                bounds =
+                        new long[] {
+                            Long.MIN_VALUE,
+                            Long.MIN_VALUE / 3,
+                            Integer.MIN_VALUE - 1L,
+                            0,
+                            Integer.MAX_VALUE + 1L,
+                            Long.MAX_VALUE / 3,
+                            Long.MAX_VALUE
+                        };
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown operands: " + operands);
+        }
+        List<Range> ranges = new ArrayList<>();
+        for (long from : bounds) {
+            for (long to : bounds) {
+                if (from <= to) {
+                    ranges.add(Range.create(from, to));
+                }
+            }
+        }
+        operandPairs = new ArrayList<>();
+        shiftPairs = new ArrayList<>();
+        List<Range> shifts = new ArrayList<>();
+        shifts.add(Range.create(0, 1));
+        shifts.add(Range.create(3, 8));
+        shifts.add(Range.create(0, 31));
+        for (Range left : ranges) {
+            for (Range right : ranges) {
+                operandPairs.add(Pair.of(left, right));
+            }
+            for (Range shift : shifts) {
+                shiftPairs.add(Pair.of(left, shift));
+            }
+        }
+    }
+
+    /**
+     * Adds and subtracts every pair of operands.
+     *
+     * @param blackhole consumes the results
+     */
+    @Benchmark
+    public void plusMinus(Blackhole blackhole) {
+        for (Pair<Range, Range> pair : operandPairs) {
+            blackhole.consume(pair.first.plus(pair.second));
+            blackhole.consume(pair.first.minus(pair.second));
+        }
+    }
+
+    /**
+     * Multiplies every pair of operands.
+     *
+     * @param blackhole consumes the results
+     */
+    @Benchmark
+    public void times(Blackhole blackhole) {
+        for (Pair<Range, Range> pair : operandPairs) {
+            blackhole.consume(pair.first.times(pair.second));
+        }
+    }
+
+    /**
+     * Shifts every operand left by every range of shift distances.
+     *
+     * @param blackhole consumes the results
+     */
+    @Benchmark
+    public void shiftLeft(Blackhole blackhole) {
+        for (Pair<Range, Range> pair : shiftPairs) {
+            blackhole.consume(pair.first.shiftLeft(pair.second));
+        }
+    }
+}
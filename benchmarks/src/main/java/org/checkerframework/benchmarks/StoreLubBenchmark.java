@@ -0,0 +1,60 @@
+package org.checkerframework.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.checkerframework.checker.nullness.NullnessAnalysis;
+import org.checkerframework.checker.nullness.NullnessStore;
+import org.checkerframework.checker.nullness.NullnessValue;
+import org.checkerframework.dataflow.analysis.TransferInput;
+import org.checkerframework.dataflow.cfg.ControlFlowGraph;
+import org.checkerframework.dataflow.cfg.block.Block;
+import org.checkerframework.framework.flow.CFAbstractStore;
+import org.checkerframework.javacutil.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks {@link CFAbstractStore#leastUpperBound} on the stores that the Nullness Checker
+ * computes for consecutive basic blocks of the methods of a corpus file.
+ */
+public class StoreLubBenchmark extends NullnessCorpusBenchmark {
+
+    /** Pairs of stores before consecutive blocks, in depth-first order, of the same method. */
+    private List<Pair<NullnessStore, NullnessStore>> storePairs;
+
+    /** Type-checks the corpus file and collects the stores of its methods. */
+    @Setup
+    public void setup() {
+        CorpusCompilation compilation = checkCorpusFile();
+        NullnessAnalysis analysis = ForwardAnalysisBenchmark.createAnalysis(compilation);
+        storePairs = new ArrayList<>();
+        for (ControlFlowGraph cfg : ForwardAnalysisBenchmark.buildCFGs(compilation)) {
+            analysis.performAnalysis(cfg);
+            NullnessStore previous = null;
+            for (Block block : cfg.getDepthFirstOrderedBlocks()) {
+                TransferInput<NullnessValue, NullnessStore> input = analysis.getInput(block);
+                if (input == null) {
+                    continue;
+                }
+                NullnessStore store = input.getRegularStore();
+                if (previous != null) {
+                    storePairs.add(Pair.of(previous, store));
+                }
+                previous = store;
+            }
+        }
+    }
+
+    /**
+     * Computes the least upper bound of every pair of stores.
+     *
+     * @param blackhole consumes the least upper bounds
+     */
+    @Benchmark
+    public void leastUpperBound(Blackhole blackhole) {
+        for (Pair<NullnessStore, NullnessStore> pair : storePairs) {
+            blackhole.consume(pair.first.leastUpperBound(pair.second));
+        }
+    }
+}
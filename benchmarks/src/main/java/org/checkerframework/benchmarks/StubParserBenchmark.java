@@ -0,0 +1,72 @@
+package org.checkerframework.benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import org.checkerframework.checker.nullness.NullnessChecker;
+import org.checkerframework.framework.stub.StubParser;
+import org.checkerframework.framework.type.AnnotatedTypeMirror;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks {@link StubParser#parse} on a fixed copy of a stub file that the Nullness Checker
+ * reads on every run.
+ *
+ * <p>The stub file is parsed for the type factory of a type-checked corpus file, since the parser
+ * resolves the stub file's declarations against the compiler's elements.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StubParserBenchmark {
+
+    /** The stub file to parse; a file in the {@code corpus} resource directory. */
+    @Param({"nullness/collection-object-parameters-may-be-null.astub"})
+    public String stubFile;
+
+    /** The type-checked corpus file, whose type factory the stub file is parsed for. */
+    private CorpusCompilation compilation;
+
+    /** Type-checks a corpus file to obtain a type factory. */
+    @Setup
+    public void setup() {
+        compilation = new CorpusCompilation("nullness/FlowNullness.java", new NullnessChecker());
+    }
+
+    /**
+     * Parses the stub file into fresh maps.
+     *
+     * @param blackhole consumes the types and declaration annotations read from the stub file
+     */
+    @Benchmark
+    public void parse(Blackhole blackhole) {
+        Map<Element, AnnotatedTypeMirror> typesFromStubFile = new HashMap<>();
+        Map<String, Set<AnnotationMirror>> declAnnosFromStubFile = new HashMap<>();
+        StubParser.parse(
+                stubFile,
+                CorpusCompilation.openCorpusFile(stubFile),
+                compilation.factory,
+                compilation.getProcessingEnvironment(),
+                typesFromStubFile,
+                declAnnosFromStubFile);
+        blackhole.consume(typesFromStubFile);
+        blackhole.consume(declAnnosFromStubFile);
+    }
+}
@@ -0,0 +1,72 @@
+package org.checkerframework.benchmarks;
+
+import com.sun.source.tree.AssignmentTree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.TreeScanner;
+import java.util.ArrayList;
+import java.util.List;
+import org.checkerframework.framework.type.AnnotatedTypeMirror;
+import org.checkerframework.framework.type.DefaultTypeHierarchy;
+import org.checkerframework.framework.type.GenericAnnotatedTypeFactory;
+import org.checkerframework.framework.type.TypeHierarchy;
+import org.checkerframework.javacutil.Pair;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks {@link DefaultTypeHierarchy#isSubtype(AnnotatedTypeMirror, AnnotatedTypeMirror)} on
+ * the pairs of types that the visitor compares for the assignments and variable initializers of a
+ * corpus file.
+ */
+public class TypeHierarchyBenchmark extends NullnessCorpusBenchmark {
+
+    /** The type hierarchy of the checker. */
+    private TypeHierarchy typeHierarchy;
+
+    /** Pairs of the type of an assigned expression and the type of the variable it is assigned to. */
+    private List<Pair<AnnotatedTypeMirror, AnnotatedTypeMirror>> assignments;
+
+    /** Type-checks the corpus file and computes the types of its assignments. */
+    @Setup
+    public void setup() {
+        CorpusCompilation compilation = checkCorpusFile();
+        GenericAnnotatedTypeFactory<?, ?, ?, ?> factory = compilation.factory;
+        factory.setRoot(compilation.root);
+        typeHierarchy = factory.getTypeHierarchy();
+        assignments = new ArrayList<>();
+        new TreeScanner<Void, Void>() {
+            @Override
+            public Void visitVariable(VariableTree node, Void p) {
+                if (node.getInitializer() != null) {
+                    assignments.add(
+                            Pair.of(
+                                    factory.getAnnotatedType(node.getInitializer()),
+                                    factory.getAnnotatedTypeLhs(node)));
+                }
+                return super.visitVariable(node, p);
+            }
+
+            @Override
+            public Void visitAssignment(AssignmentTree node, Void p) {
+                assignments.add(
+                        Pair.of(
+                                factory.getAnnotatedType(node.getExpression()),
+                                factory.getAnnotatedTypeLhs(node.getVariable())));
+                return super.visitAssignment(node, p);
+            }
+        }.scan(compilation.root, null);
+    }
+
+    /**
+     * Checks whether the type of each assigned expression is a subtype of the variable's type.
+     *
+     * @param blackhole consumes the results
+     */
+    @Benchmark
+    public void isSubtype(Blackhole blackhole) {
+        for (Pair<AnnotatedTypeMirror, AnnotatedTypeMirror> assignment : assignments) {
+            blackhole.consume(typeHierarchy.isSubtype(assignment.first, assignment.second));
+        }
+    }
+}
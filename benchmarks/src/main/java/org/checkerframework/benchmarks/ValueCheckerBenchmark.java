@@ -0,0 +1,41 @@
+package org.checkerframework.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.common.value.ValueChecker;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks type-checking an arithmetic-dense corpus file with the Constant Value Checker, from
+ * parsing to the end of the checker's visitor.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ValueCheckerBenchmark {
+
+    /** The corpus file to type-check; a file in the {@code corpus} resource directory. */
+    @Param({"value/Binaries.java", "value/Overflows.java"})
+    public String corpusFile;
+
+    /**
+     * Type-checks {@link #corpusFile} with a new instance of the Constant Value Checker.
+     *
+     * @return the type-checked corpus file
+     */
+    @Benchmark
+    public CorpusCompilation typeCheck() {
+        return new CorpusCompilation(corpusFile, new ValueChecker());
+    }
+}
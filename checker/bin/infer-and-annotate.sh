@@ -4,6 +4,8 @@
 # iteratively on a program, adding type annotations to the program, until the
 # .jaif files from one iteration are the same as the .jaif files from the
 # previous iteration (which means there is nothing new to infer anymore).
+# To infer stub files instead, running every iteration within one JVM, use
+# org.checkerframework.common.wholeprograminference.WholeProgramInferenceDriver.
 
 # To use this script, the $CHECKERFRAMEWORK variable must be set to the
 # Checker Framework's directory. Also, the AFU's insert-annotations-to-source
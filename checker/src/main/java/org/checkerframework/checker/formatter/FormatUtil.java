@@ -6,6 +6,7 @@ import java.util.IllegalFormatConversionException;
 import java.util.IllegalFormatException;
 import java.util.Map;
 import java.util.MissingFormatArgumentException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.checkerframework.checker.formatter.qual.ConversionCategory;
@@ -40,7 +41,7 @@ public class FormatUtil {
     @ReturnsFormat
     public static String asFormat(String format, ConversionCategory... cc)
             throws IllegalFormatException {
-        ConversionCategory[] fcc = formatParameterCategories(format);
+        ConversionCategory[] fcc = cachedParameterCategories(format);
         if (fcc.length != cc.length) {
             throw new ExcessiveOrMissingFormatArgumentException(cc.length, fcc.length);
         }
@@ -67,6 +68,19 @@ public class FormatUtil {
      */
     public static ConversionCategory[] formatParameterCategories(String format)
             throws IllegalFormatException {
+        return cachedParameterCategories(format).clone();
+    }
+
+    /**
+     * Returns a {@link ConversionCategory} for every conversion found in the format string, without
+     * consulting the cache.
+     *
+     * @param format a format string
+     * @return the category of each format parameter
+     * @throws IllegalFormatException if the format is not syntactically valid
+     */
+    private static ConversionCategory[] computeParameterCategories(String format)
+            throws IllegalFormatException {
         tryFormatSatisfiability(format);
 
         int last = -1; // index of last argument referenced
@@ -104,6 +118,39 @@ public class FormatUtil {
         return res;
     }
 
+    /** The maximum number of entries in {@link #parameterCategoriesCache}. */
+    private static final int PARAMETER_CATEGORIES_CACHE_SIZE = 256;
+
+    /**
+     * Maps a syntactically valid format string to the categories of its parameters, for the most
+     * recently parsed format strings. The arrays are never exposed, so they are never modified.
+     * When the cache is full, it is cleared before a new entry is added.
+     */
+    private static final ConcurrentHashMap<String, ConversionCategory[]> parameterCategoriesCache =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Returns the categories of the parameters of a format string, parsing it only if it is not in
+     * {@link #parameterCategoriesCache}. The result must not be modified.
+     *
+     * @param format a format string
+     * @return the category of each format parameter
+     * @throws IllegalFormatException if the format is not syntactically valid
+     */
+    private static ConversionCategory[] cachedParameterCategories(String format)
+            throws IllegalFormatException {
+        ConversionCategory[] categories = parameterCategoriesCache.get(format);
+        if (categories == null) {
+            categories = computeParameterCategories(format);
+            if (parameterCategoriesCache.size() >= PARAMETER_CATEGORIES_CACHE_SIZE) {
+                parameterCategoriesCache.clear();
+            }
+            // A concurrent computation for the same string is harmless.
+            parameterCategoriesCache.put(format, categories);
+        }
+        return categories;
+    }
+
     // %[argument_index$][flags][width][.precision][t]conversion
     private static final String formatSpecifier =
             "%(\\d+\\$)?([-#+ 0,(\\<]*)?(\\d+)?(\\.\\d+)?([tT])?([a-zA-Z%])";
@@ -11,6 +11,7 @@ import java.util.IllegalFormatException;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.checkerframework.checker.i18nformatter.qual.I18nChecksFormat;
 import org.checkerframework.checker.i18nformatter.qual.I18nConversionCategory;
 import org.checkerframework.checker.i18nformatter.qual.I18nValidFormat;
@@ -39,6 +40,19 @@ public class I18nFormatUtil {
      */
     public static I18nConversionCategory[] formatParameterCategories(String format)
             throws IllegalFormatException {
+        return cachedParameterCategories(format).clone();
+    }
+
+    /**
+     * Returns a {@link I18nConversionCategory} for every conversion found in the format string,
+     * without consulting the cache.
+     *
+     * @param format the format string to parse
+     * @return the category of each format parameter
+     * @throws IllegalFormatException if the format is not syntactically valid
+     */
+    private static I18nConversionCategory[] computeParameterCategories(String format)
+            throws IllegalFormatException {
         tryFormatSatisfiability(format);
         I18nConversion[] cs = MessageFormatParser.parse(format);
 
@@ -64,6 +78,39 @@ public class I18nFormatUtil {
         return res;
     }
 
+    /** The maximum number of entries in {@link #parameterCategoriesCache}. */
+    private static final int PARAMETER_CATEGORIES_CACHE_SIZE = 256;
+
+    /**
+     * Maps a syntactically valid i18n format string to the categories of its parameters, for the
+     * most recently parsed format strings. The arrays are never exposed, so they are never
+     * modified. When the cache is full, it is cleared before a new entry is added.
+     */
+    private static final ConcurrentHashMap<String, I18nConversionCategory[]>
+            parameterCategoriesCache = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the categories of the parameters of an i18n format string, parsing it only if it is
+     * not in {@link #parameterCategoriesCache}. The result must not be modified.
+     *
+     * @param format the format string to parse
+     * @return the category of each format parameter
+     * @throws IllegalFormatException if the format is not syntactically valid
+     */
+    private static I18nConversionCategory[] cachedParameterCategories(String format)
+            throws IllegalFormatException {
+        I18nConversionCategory[] categories = parameterCategoriesCache.get(format);
+        if (categories == null) {
+            categories = computeParameterCategories(format);
+            if (parameterCategoriesCache.size() >= PARAMETER_CATEGORIES_CACHE_SIZE) {
+                parameterCategoriesCache.clear();
+            }
+            // A concurrent computation for the same string is harmless.
+            parameterCategoriesCache.put(format, categories);
+        }
+        return categories;
+    }
+
     /**
      * Returns true if the format string is satisfiable, and if the format's parameters match the
      * passed {@link I18nConversionCategory}s. Otherwise an error is thrown.
@@ -75,7 +122,7 @@ public class I18nFormatUtil {
     // TODO introduce more such functions, see RegexUtil for examples
     @I18nChecksFormat
     public static boolean hasFormat(String format, I18nConversionCategory... cc) {
-        I18nConversionCategory[] fcc = formatParameterCategories(format);
+        I18nConversionCategory[] fcc = cachedParameterCategories(format);
         if (fcc.length != cc.length) {
             return false;
         }
@@ -91,7 +138,7 @@ public class I18nFormatUtil {
     @I18nValidFormat
     public static boolean isFormat(String format) {
         try {
-            formatParameterCategories(format);
+            cachedParameterCategories(format);
         } catch (Exception e) {
             return false;
         }
@@ -115,22 +162,22 @@ public class I18nFormatUtil {
 
     private static class MessageFormatParser {
 
-        public static int maxOffset;
+        public int maxOffset;
 
         /** The locale to use for formatting numbers and dates. */
-        private static Locale locale;
+        private final Locale locale = Locale.getDefault(Locale.Category.FORMAT);
 
         /** An array of formatters, which are used to format the arguments. */
-        private static List<I18nConversionCategory> categories;
+        private final List<I18nConversionCategory> categories = new ArrayList<>();
 
         /**
          * The argument numbers corresponding to each formatter. (The formatters are stored in the
          * order they occur in the pattern, not in the order in which the arguments are specified.)
          */
-        private static List<Integer> argumentIndices;
+        private final List<Integer> argumentIndices = new ArrayList<>();
 
         /** The number of subformats. */
-        private static int numFormat;
+        private int numFormat;
 
         // Indices for segments
         private static final int SEG_RAW = 0;
@@ -161,27 +208,32 @@ public class I18nFormatUtil {
             "", "short", "medium", "long", "full"
         };
 
+        /**
+         * Parses an i18n format string. Each call uses a new parser, so this method may be called
+         * concurrently.
+         *
+         * @param pattern an i18n format string
+         * @return the conversions in {@code pattern}
+         */
         public static I18nConversion[] parse(String pattern) {
-            MessageFormatParser.categories = new ArrayList<>();
-            MessageFormatParser.argumentIndices = new ArrayList<>();
-            MessageFormatParser.locale = Locale.getDefault(Locale.Category.FORMAT);
-            applyPattern(pattern);
-
-            I18nConversion[] ret = new I18nConversion[MessageFormatParser.numFormat];
-            for (int i = 0; i < MessageFormatParser.numFormat; i++) {
-                ret[i] = new I18nConversion(argumentIndices.get(i), categories.get(i));
+            MessageFormatParser parser = new MessageFormatParser();
+            parser.applyPattern(pattern);
+
+            I18nConversion[] ret = new I18nConversion[parser.numFormat];
+            for (int i = 0; i < parser.numFormat; i++) {
+                ret[i] = new I18nConversion(parser.argumentIndices.get(i), parser.categories.get(i));
             }
             return ret;
         }
 
-        private static void applyPattern(String pattern) {
+        private void applyPattern(String pattern) {
             StringBuilder[] segments = new StringBuilder[4];
             // Allocate only segments[SEG_RAW] here. The rest are
             // allocated on demand.
             segments[SEG_RAW] = new StringBuilder();
 
             int part = SEG_RAW;
-            MessageFormatParser.numFormat = 0;
+            numFormat = 0;
             boolean inQuote = false;
             int braceStack = 0;
             maxOffset = -1;
@@ -262,7 +314,7 @@ public class I18nFormatUtil {
         }
 
         /** Side-effects {@code categories} field, adding to it an I18nConversionCategory. */
-        private static void makeFormat(int offsetNumber, StringBuilder[] textSegments) {
+        private void makeFormat(int offsetNumber, StringBuilder[] textSegments) {
             String[] segments = new String[textSegments.length];
             for (int i = 0; i < textSegments.length; i++) {
                 StringBuilder oneseg = textSegments[i];
@@ -35,6 +35,7 @@ public class RegexTransfer extends CFTransfer {
     // and org.plumelib.util might not be on the classpath.
     private static final String IS_REGEX_METHOD_NAME = "isRegex";
     private static final String AS_REGEX_METHOD_NAME = "asRegex";
+    private static final String AS_PATTERN_METHOD_NAME = "asPattern";
 
     /** The MatchResult.groupCount() method. */
     private final ExecutableElement matchResultgroupCount;
@@ -104,10 +105,12 @@ public class RegexTransfer extends CFTransfer {
             thenStore.insertValue(firstParam, regexAnnotation);
             return newResult;
         } else if (ElementUtils.matchesElement(
-                method, AS_REGEX_METHOD_NAME, String.class, int.class)) {
-            // RegexUtil.asRegex(s, groups) method
-            // (No special case is needed for asRegex(String) because of
-            // the annotation on that method's definition.)
+                        method, AS_REGEX_METHOD_NAME, String.class, int.class)
+                || ElementUtils.matchesElement(
+                        method, AS_PATTERN_METHOD_NAME, String.class, int.class)) {
+            // RegexUtil.asRegex(s, groups) and RegexUtil.asPattern(s, groups) methods
+            // (No special case is needed for asRegex(String) and asPattern(String) because of
+            // the annotations on those methods' definitions.)
 
             // add annotation with correct group count (if possible,
             // regex annotation without count otherwise)
@@ -2,6 +2,7 @@
 
 package org.checkerframework.checker.regex;
 
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 import org.checkerframework.checker.index.qual.GTENegativeOne;
@@ -34,6 +35,36 @@ public final class RegexUtil {
         throw new Error("do not instantiate");
     }
 
+    /** The maximum number of entries in {@link #compiledRegexCache}. */
+    private static final int COMPILED_REGEX_CACHE_SIZE = 256;
+
+    /**
+     * Maps a syntactically valid regular expression to its compiled form, for the regular
+     * expressions most recently passed to {@link #asPattern}. Invalid regular expressions are not
+     * cached. When the cache is full, it is cleared before a new entry is added.
+     */
+    private static final ConcurrentHashMap<String, CompiledRegex> compiledRegexCache =
+            new ConcurrentHashMap<>();
+
+    /** A compiled regular expression and its number of capturing groups. */
+    private static final class CompiledRegex {
+        /** The compiled regular expression. */
+        final Pattern pattern;
+
+        /** The number of capturing groups in {@link #pattern}. */
+        final int groupCount;
+
+        /**
+         * Creates a CompiledRegex.
+         *
+         * @param pattern the compiled regular expression
+         */
+        CompiledRegex(Pattern pattern) {
+            this.pattern = pattern;
+            this.groupCount = getGroupCount(pattern);
+        }
+    }
+
     /**
      * A checked version of {@link PatternSyntaxException}.
      *
@@ -302,6 +333,55 @@ public final class RegexUtil {
         }
     }
 
+    /**
+     * Returns the compiled form of the argument if it is a regex, otherwise throws an error.
+     *
+     * <p>Compiled patterns are kept in a bounded cache, so calling this method repeatedly with the
+     * same string compiles it only once. The returned {@link Pattern} is immutable and may be
+     * shared between threads.
+     *
+     * @param s string to compile as a regular expression
+     * @return the compiled regular expression
+     * @throws Error if argument is not a regex
+     */
+    // The return type annotation is a conservative bound.
+    public static @Regex Pattern asPattern(String s) {
+        return asPattern(s, 0);
+    }
+
+    /**
+     * Returns the compiled form of the argument if it is a regex with at least the given number of
+     * groups, otherwise throws an error. Like {@link #asPattern(String)}, this uses a bounded cache
+     * of compiled patterns.
+     *
+     * @param s string to compile as a regular expression
+     * @param groups number of groups expected
+     * @return the compiled regular expression
+     * @throws Error if argument is not a regex
+     */
+    @SuppressWarnings("regex") // RegexUtil
+    // The return type annotation is irrelevant; it is special-cased by
+    // RegexTransfer.
+    public static @Regex Pattern asPattern(String s, int groups) {
+        CompiledRegex compiled = compiledRegexCache.get(s);
+        if (compiled == null) {
+            try {
+                compiled = new CompiledRegex(Pattern.compile(s));
+            } catch (PatternSyntaxException e) {
+                throw new Error(e);
+            }
+            if (compiledRegexCache.size() >= COMPILED_REGEX_CACHE_SIZE) {
+                compiledRegexCache.clear();
+            }
+            // A concurrent compilation of the same string is harmless.
+            compiledRegexCache.put(s, compiled);
+        }
+        if (compiled.groupCount < groups) {
+            throw new Error(regexErrorMessage(s, groups, compiled.groupCount));
+        }
+        return compiled.pattern;
+    }
+
     /**
      * Generates an error message for s when expectedGroups are needed, but s only has actualGroups.
      *
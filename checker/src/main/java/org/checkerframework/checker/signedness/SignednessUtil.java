@@ -1,10 +1,14 @@
 package org.checkerframework.checker.signedness;
 
+import java.io.EOFException;
 import java.io.IOException;
 import java.io.RandomAccessFile;
 import java.math.BigInteger;
+import java.nio.Buffer;
 import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
 import org.checkerframework.checker.signedness.qual.Unsigned;
 
 /**
@@ -335,6 +339,517 @@ public final class SignednessUtil {
         b.get(bs);
     }
 
+    /**
+     * Gets unsigned shorts from the ByteBuffer b, in its byte order, and stores them in the array
+     * ss. This is a bulk version of {@link #getUnsignedShort(ByteBuffer)} that does not allocate
+     * per element; it also works for a {@link java.nio.MappedByteBuffer}.
+     *
+     * @param b the buffer to read from; its position is advanced past the shorts read
+     * @param ss the array to fill
+     * @return the buffer b
+     * @throws java.nio.BufferUnderflowException if b has fewer than {@code 2 * ss.length} bytes
+     *     remaining
+     */
+    @SuppressWarnings("signedness")
+    public static ByteBuffer getUnsigned(ByteBuffer b, @Unsigned short[] ss) {
+        b.asShortBuffer().get(ss);
+        advance(b, Short.BYTES * ss.length);
+        return b;
+    }
+
+    /**
+     * Gets unsigned ints from the ByteBuffer b, in its byte order, and stores them in the array
+     * is. This is a bulk version of {@link #getUnsignedInt(ByteBuffer)} that does not allocate per
+     * element; it also works for a {@link java.nio.MappedByteBuffer}.
+     *
+     * @param b the buffer to read from; its position is advanced past the ints read
+     * @param is the array to fill
+     * @return the buffer b
+     * @throws java.nio.BufferUnderflowException if b has fewer than {@code 4 * is.length} bytes
+     *     remaining
+     */
+    @SuppressWarnings("signedness")
+    public static ByteBuffer getUnsigned(ByteBuffer b, @Unsigned int[] is) {
+        b.asIntBuffer().get(is);
+        advance(b, Integer.BYTES * is.length);
+        return b;
+    }
+
+    /**
+     * Gets unsigned longs from the ByteBuffer b, in its byte order, and stores them in the array
+     * ls. This bulk method does not allocate per element; it also works for a {@link
+     * java.nio.MappedByteBuffer}.
+     *
+     * @param b the buffer to read from; its position is advanced past the longs read
+     * @param ls the array to fill
+     * @return the buffer b
+     * @throws java.nio.BufferUnderflowException if b has fewer than {@code 8 * ls.length} bytes
+     *     remaining
+     */
+    @SuppressWarnings("signedness")
+    public static ByteBuffer getUnsigned(ByteBuffer b, @Unsigned long[] ls) {
+        b.asLongBuffer().get(ls);
+        advance(b, Long.BYTES * ls.length);
+        return b;
+    }
+
+    /**
+     * Advances the position of the buffer b by n bytes.
+     *
+     * @param b a buffer
+     * @param n the number of bytes to skip
+     */
+    private static void advance(ByteBuffer b, int n) {
+        // Call Buffer.position(int), which exists in JDK 8, rather than the covariant override
+        // ByteBuffer.position(int), which was added in JDK 9.
+        ((Buffer) b).position(b.position() + n);
+    }
+
+    /**
+     * Reads up to {@code len} bytes from the channel into an unsigned array of bytes. This method
+     * is a wrapper around {@link java.nio.channels.FileChannel#read(ByteBuffer) read(ByteBuffer)},
+     * but assumes the output should be interpreted as unsigned.
+     *
+     * @param ch the channel to read from, at its current position
+     * @param b the array to read into
+     * @param off the index in b of the first byte read
+     * @param len the maximum number of bytes to read
+     * @return the number of bytes read, or -1 if the channel has reached end-of-stream
+     * @throws IOException if an I/O error occurs
+     */
+    @SuppressWarnings("signedness")
+    public static int readUnsigned(FileChannel ch, @Unsigned byte[] b, int off, int len)
+            throws IOException {
+        return ch.read(ByteBuffer.wrap(b, off, len));
+    }
+
+    /**
+     * Reads bytes from the channel until the unsigned byte array is full. This is the {@link
+     * FileChannel} analogue of {@link #readFullyUnsigned(RandomAccessFile, byte[])}.
+     *
+     * @param ch the channel to read from, at its current position
+     * @param b the array to fill
+     * @throws EOFException if the channel reaches end-of-stream before b is full
+     * @throws IOException if an I/O error occurs
+     */
+    @SuppressWarnings("signedness")
+    public static void readFullyUnsigned(FileChannel ch, @Unsigned byte[] b) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(b);
+        while (buffer.hasRemaining()) {
+            if (ch.read(buffer) < 0) {
+                throw new EOFException();
+            }
+        }
+    }
+
+    /**
+     * Widens unsigned bytes to unsigned ints, like applying {@link Byte#toUnsignedInt(byte)} to
+     * each element.
+     *
+     * @param src the unsigned bytes
+     * @param dest the array to store the widened values in; its length must be at least {@code
+     *     src.length}
+     */
+    public static void toUnsignedInts(@Unsigned byte[] src, @Unsigned int[] dest) {
+        toUnsignedInts(src, 0, dest, 0, src.length);
+    }
+
+    /**
+     * Widens {@code length} unsigned bytes of src, starting at srcPos, to unsigned ints in dest,
+     * starting at destPos.
+     *
+     * @param src the unsigned bytes
+     * @param srcPos the index of the first byte to widen
+     * @param dest the array to store the widened values in
+     * @param destPos the index in dest of the first widened value
+     * @param length the number of values to widen
+     */
+    @SuppressWarnings("signedness")
+    public static void toUnsignedInts(
+            @Unsigned byte[] src, int srcPos, @Unsigned int[] dest, int destPos, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = src[srcPos + i] & 0xff;
+        }
+    }
+
+    /**
+     * Widens unsigned shorts to unsigned ints, like applying {@link Short#toUnsignedInt(short)} to
+     * each element.
+     *
+     * @param src the unsigned shorts
+     * @param dest the array to store the widened values in; its length must be at least {@code
+     *     src.length}
+     */
+    public static void toUnsignedInts(@Unsigned short[] src, @Unsigned int[] dest) {
+        toUnsignedInts(src, 0, dest, 0, src.length);
+    }
+
+    /**
+     * Widens {@code length} unsigned shorts of src, starting at srcPos, to unsigned ints in dest,
+     * starting at destPos.
+     *
+     * @param src the unsigned shorts
+     * @param srcPos the index of the first short to widen
+     * @param dest the array to store the widened values in
+     * @param destPos the index in dest of the first widened value
+     * @param length the number of values to widen
+     */
+    @SuppressWarnings("signedness")
+    public static void toUnsignedInts(
+            @Unsigned short[] src, int srcPos, @Unsigned int[] dest, int destPos, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = src[srcPos + i] & 0xffff;
+        }
+    }
+
+    /**
+     * Widens unsigned ints to unsigned longs, like applying {@link Integer#toUnsignedLong(int)} to
+     * each element.
+     *
+     * @param src the unsigned ints
+     * @param dest the array to store the widened values in; its length must be at least {@code
+     *     src.length}
+     */
+    public static void toUnsignedLongs(@Unsigned int[] src, @Unsigned long[] dest) {
+        toUnsignedLongs(src, 0, dest, 0, src.length);
+    }
+
+    /**
+     * Widens {@code length} unsigned ints of src, starting at srcPos, to unsigned longs in dest,
+     * starting at destPos.
+     *
+     * @param src the unsigned ints
+     * @param srcPos the index of the first int to widen
+     * @param dest the array to store the widened values in
+     * @param destPos the index in dest of the first widened value
+     * @param length the number of values to widen
+     */
+    @SuppressWarnings("signedness")
+    public static void toUnsignedLongs(
+            @Unsigned int[] src, int srcPos, @Unsigned long[] dest, int destPos, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = src[srcPos + i] & 0xffffffffL;
+        }
+    }
+
+    /**
+     * Widens unsigned bytes to unsigned longs, like applying {@link Byte#toUnsignedLong(byte)} to
+     * each element.
+     *
+     * @param src the unsigned bytes
+     * @param dest the array to store the widened values in; its length must be at least {@code
+     *     src.length}
+     */
+    public static void toUnsignedLongs(@Unsigned byte[] src, @Unsigned long[] dest) {
+        toUnsignedLongs(src, 0, dest, 0, src.length);
+    }
+
+    /**
+     * Widens {@code length} unsigned bytes of src, starting at srcPos, to unsigned longs in dest,
+     * starting at destPos.
+     *
+     * @param src the unsigned bytes
+     * @param srcPos the index of the first byte to widen
+     * @param dest the array to store the widened values in
+     * @param destPos the index in dest of the first widened value
+     * @param length the number of values to widen
+     */
+    @SuppressWarnings("signedness")
+    public static void toUnsignedLongs(
+            @Unsigned byte[] src, int srcPos, @Unsigned long[] dest, int destPos, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = src[srcPos + i] & 0xffL;
+        }
+    }
+
+    /**
+     * Widens unsigned shorts to unsigned longs, like applying {@link Short#toUnsignedLong(short)}
+     * to each element.
+     *
+     * @param src the unsigned shorts
+     * @param dest the array to store the widened values in; its length must be at least {@code
+     *     src.length}
+     */
+    public static void toUnsignedLongs(@Unsigned short[] src, @Unsigned long[] dest) {
+        toUnsignedLongs(src, 0, dest, 0, src.length);
+    }
+
+    /**
+     * Widens {@code length} unsigned shorts of src, starting at srcPos, to unsigned longs in dest,
+     * starting at destPos.
+     *
+     * @param src the unsigned shorts
+     * @param srcPos the index of the first short to widen
+     * @param dest the array to store the widened values in
+     * @param destPos the index in dest of the first widened value
+     * @param length the number of values to widen
+     */
+    @SuppressWarnings("signedness")
+    public static void toUnsignedLongs(
+            @Unsigned short[] src, int srcPos, @Unsigned long[] dest, int destPos, int length) {
+        for (int i = 0; i < length; i++) {
+            dest[destPos + i] = src[srcPos + i] & 0xffffL;
+        }
+    }
+
+    /**
+     * Lexicographically compares two arrays of unsigned bytes. Elements are compared as by {@link
+     * #compareUnsigned(byte, byte)}; if one array is a prefix of the other, the shorter one is
+     * smaller.
+     *
+     * @param a the first array
+     * @param b the second array
+     * @return a negative number, zero, or a positive number as a is less than, equal to, or greater
+     *     than b
+     */
+    @SuppressWarnings("signedness")
+    public static int compareUnsigned(@Unsigned byte[] a, @Unsigned byte[] b) {
+        int length = Math.min(a.length, b.length);
+        for (int i = 0; i < length; i++) {
+            if (a[i] != b[i]) {
+                return Integer.compare(a[i] & 0xff, b[i] & 0xff);
+            }
+        }
+        return a.length - b.length;
+    }
+
+    /**
+     * Lexicographically compares two arrays of unsigned shorts. Elements are compared as by {@link
+     * #compareUnsigned(short, short)}; if one array is a prefix of the other, the shorter one is
+     * smaller.
+     *
+     * @param a the first array
+     * @param b the second array
+     * @return a negative number, zero, or a positive number as a is less than, equal to, or greater
+     *     than b
+     */
+    @SuppressWarnings("signedness")
+    public static int compareUnsigned(@Unsigned short[] a, @Unsigned short[] b) {
+        int length = Math.min(a.length, b.length);
+        for (int i = 0; i < length; i++) {
+            if (a[i] != b[i]) {
+                return Integer.compare(a[i] & 0xffff, b[i] & 0xffff);
+            }
+        }
+        return a.length - b.length;
+    }
+
+    /**
+     * Lexicographically compares two arrays of unsigned ints. Elements are compared as by {@link
+     * Integer#compareUnsigned(int, int)}; if one array is a prefix of the other, the shorter one is
+     * smaller.
+     *
+     * @param a the first array
+     * @param b the second array
+     * @return a negative number, zero, or a positive number as a is less than, equal to, or greater
+     *     than b
+     */
+    @SuppressWarnings("signedness")
+    public static int compareUnsigned(@Unsigned int[] a, @Unsigned int[] b) {
+        int length = Math.min(a.length, b.length);
+        for (int i = 0; i < length; i++) {
+            if (a[i] != b[i]) {
+                return Integer.compareUnsigned(a[i], b[i]);
+            }
+        }
+        return a.length - b.length;
+    }
+
+    /**
+     * Lexicographically compares two arrays of unsigned longs. Elements are compared as by {@link
+     * Long#compareUnsigned(long, long)}; if one array is a prefix of the other, the shorter one is
+     * smaller.
+     *
+     * @param a the first array
+     * @param b the second array
+     * @return a negative number, zero, or a positive number as a is less than, equal to, or greater
+     *     than b
+     */
+    @SuppressWarnings("signedness")
+    public static int compareUnsigned(@Unsigned long[] a, @Unsigned long[] b) {
+        int length = Math.min(a.length, b.length);
+        for (int i = 0; i < length; i++) {
+            if (a[i] != b[i]) {
+                return Long.compareUnsigned(a[i], b[i]);
+            }
+        }
+        return a.length - b.length;
+    }
+
+    // The sorting methods flip the sign bit of every element, which maps the unsigned order onto
+    // the signed order, sort with Arrays.sort, and then flip the sign bit back.
+
+    /**
+     * Sorts an array of unsigned bytes into ascending unsigned order.
+     *
+     * @param a the array to sort
+     */
+    @SuppressWarnings("signedness")
+    public static void sortUnsigned(@Unsigned byte[] a) {
+        for (int i = 0; i < a.length; i++) {
+            a[i] ^= Byte.MIN_VALUE;
+        }
+        Arrays.sort(a);
+        for (int i = 0; i < a.length; i++) {
+            a[i] ^= Byte.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Sorts an array of unsigned shorts into ascending unsigned order.
+     *
+     * @param a the array to sort
+     */
+    @SuppressWarnings("signedness")
+    public static void sortUnsigned(@Unsigned short[] a) {
+        for (int i = 0; i < a.length; i++) {
+            a[i] ^= Short.MIN_VALUE;
+        }
+        Arrays.sort(a);
+        for (int i = 0; i < a.length; i++) {
+            a[i] ^= Short.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Sorts an array of unsigned ints into ascending unsigned order.
+     *
+     * @param a the array to sort
+     */
+    @SuppressWarnings("signedness")
+    public static void sortUnsigned(@Unsigned int[] a) {
+        for (int i = 0; i < a.length; i++) {
+            a[i] ^= Integer.MIN_VALUE;
+        }
+        Arrays.sort(a);
+        for (int i = 0; i < a.length; i++) {
+            a[i] ^= Integer.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Sorts an array of unsigned longs into ascending unsigned order.
+     *
+     * @param a the array to sort
+     */
+    @SuppressWarnings("signedness")
+    public static void sortUnsigned(@Unsigned long[] a) {
+        for (int i = 0; i < a.length; i++) {
+            a[i] ^= Long.MIN_VALUE;
+        }
+        Arrays.sort(a);
+        for (int i = 0; i < a.length; i++) {
+            a[i] ^= Long.MIN_VALUE;
+        }
+    }
+
+    /**
+     * Searches an array of unsigned bytes, sorted as by {@link #sortUnsigned(byte[])}, for a key.
+     *
+     * @param a the sorted array to search
+     * @param key the value to search for
+     * @return the index of key, if it is in a; otherwise {@code (-(insertion point) - 1)}, as for
+     *     {@link Arrays#binarySearch(byte[], byte)}
+     */
+    @SuppressWarnings("signedness")
+    public static int binarySearchUnsigned(@Unsigned byte[] a, @Unsigned byte key) {
+        int unsignedKey = key & 0xff;
+        int low = 0;
+        int high = a.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midVal = a[mid] & 0xff;
+            if (midVal < unsignedKey) {
+                low = mid + 1;
+            } else if (midVal > unsignedKey) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Searches an array of unsigned shorts, sorted as by {@link #sortUnsigned(short[])}, for a
+     * key.
+     *
+     * @param a the sorted array to search
+     * @param key the value to search for
+     * @return the index of key, if it is in a; otherwise {@code (-(insertion point) - 1)}, as for
+     *     {@link Arrays#binarySearch(short[], short)}
+     */
+    @SuppressWarnings("signedness")
+    public static int binarySearchUnsigned(@Unsigned short[] a, @Unsigned short key) {
+        int unsignedKey = key & 0xffff;
+        int low = 0;
+        int high = a.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midVal = a[mid] & 0xffff;
+            if (midVal < unsignedKey) {
+                low = mid + 1;
+            } else if (midVal > unsignedKey) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Searches an array of unsigned ints, sorted as by {@link #sortUnsigned(int[])}, for a key.
+     *
+     * @param a the sorted array to search
+     * @param key the value to search for
+     * @return the index of key, if it is in a; otherwise {@code (-(insertion point) - 1)}, as for
+     *     {@link Arrays#binarySearch(int[], int)}
+     */
+    @SuppressWarnings("signedness")
+    public static int binarySearchUnsigned(@Unsigned int[] a, @Unsigned int key) {
+        int low = 0;
+        int high = a.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = Integer.compareUnsigned(a[mid], key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /**
+     * Searches an array of unsigned longs, sorted as by {@link #sortUnsigned(long[])}, for a key.
+     *
+     * @param a the sorted array to search
+     * @param key the value to search for
+     * @return the index of key, if it is in a; otherwise {@code (-(insertion point) - 1)}, as for
+     *     {@link Arrays#binarySearch(long[], long)}
+     */
+    @SuppressWarnings("signedness")
+    public static int binarySearchUnsigned(@Unsigned long[] a, @Unsigned long key) {
+        int low = 0;
+        int high = a.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = Long.compareUnsigned(a[mid], key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
     /**
      * Compares two unsigned shorts x and y.
      *
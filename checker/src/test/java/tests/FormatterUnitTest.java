@@ -0,0 +1,39 @@
+package tests;
+
+import java.util.IllegalFormatException;
+import org.checkerframework.checker.formatter.FormatUtil;
+import org.checkerframework.checker.formatter.qual.ConversionCategory;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FormatterUnitTest {
+
+    @Test
+    public void formatParameterCategoriesTest() {
+        ConversionCategory[] expected =
+                new ConversionCategory[] {ConversionCategory.GENERAL, ConversionCategory.INT};
+        ConversionCategory[] categories = FormatUtil.formatParameterCategories("%2$d %1$s");
+        Assert.assertArrayEquals(expected, categories);
+
+        // The second call is answered from the cache, which the first result must not alias.
+        categories[0] = ConversionCategory.UNUSED;
+        Assert.assertArrayEquals(expected, FormatUtil.formatParameterCategories("%2$d %1$s"));
+        Assert.assertEquals(
+                "%2$d %1$s",
+                FormatUtil.asFormat(
+                        "%2$d %1$s", ConversionCategory.GENERAL, ConversionCategory.INT));
+    }
+
+    @Test
+    public void invalidFormatTest() {
+        // An invalid format string is not cached, so every call throws.
+        for (int i = 0; i < 2; i++) {
+            try {
+                FormatUtil.formatParameterCategories("%y");
+                Assert.fail("expected IllegalFormatException");
+            } catch (IllegalFormatException e) {
+                // expected
+            }
+        }
+    }
+}
@@ -149,4 +149,27 @@ public class I18nFormatterUnitTest {
         Assert.assertFalse(
                 I18nFormatUtil.hasFormat("{0, date} {1, date}", I18nConversionCategory.DATE));
     }
+
+    @Test
+    public void formatParameterCategoriesCacheTest() {
+        I18nConversionCategory[] expected =
+                new I18nConversionCategory[] {
+                    I18nConversionCategory.GENERAL, I18nConversionCategory.NUMBER
+                };
+        I18nConversionCategory[] categories =
+                I18nFormatUtil.formatParameterCategories("{1, number} and {0}");
+        Assert.assertArrayEquals(expected, categories);
+
+        // The second call is answered from the cache, which the first result must not alias.
+        categories[1] = I18nConversionCategory.UNUSED;
+        Assert.assertArrayEquals(
+                expected, I18nFormatUtil.formatParameterCategories("{1, number} and {0}"));
+        Assert.assertTrue(
+                I18nFormatUtil.hasFormat(
+                        "{1, number} and {0}",
+                        I18nConversionCategory.GENERAL,
+                        I18nConversionCategory.NUMBER));
+        Assert.assertFalse(I18nFormatUtil.isFormat("{0"));
+        Assert.assertFalse(I18nFormatUtil.isFormat("{0"));
+    }
 }
@@ -0,0 +1,85 @@
+package tests;
+
+import java.nio.ByteBuffer;
+import org.checkerframework.checker.signedness.SignednessUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+/** Tests the array methods of {@link SignednessUtil}. */
+public class SignednessUtilTest {
+
+    @Test
+    public void wideningTest() {
+        byte[] bytes = {0, 1, 127, (byte) 128, (byte) 255};
+        int[] ints = new int[bytes.length];
+        SignednessUtil.toUnsignedInts(bytes, ints);
+        Assert.assertArrayEquals(new int[] {0, 1, 127, 128, 255}, ints);
+
+        short[] shorts = {(short) 0xffff, 1};
+        int[] ints2 = new int[3];
+        SignednessUtil.toUnsignedInts(shorts, 0, ints2, 1, 2);
+        Assert.assertArrayEquals(new int[] {0, 0xffff, 1}, ints2);
+
+        int[] uints = {-1, 7};
+        long[] longs = new long[2];
+        SignednessUtil.toUnsignedLongs(uints, longs);
+        Assert.assertArrayEquals(new long[] {0xffffffffL, 7L}, longs);
+
+        long[] byteLongs = new long[bytes.length];
+        SignednessUtil.toUnsignedLongs(bytes, byteLongs);
+        Assert.assertArrayEquals(new long[] {0, 1, 127, 128, 255}, byteLongs);
+
+        long[] shortLongs = new long[3];
+        SignednessUtil.toUnsignedLongs(shorts, 0, shortLongs, 1, 2);
+        Assert.assertArrayEquals(new long[] {0, 0xffffL, 1}, shortLongs);
+    }
+
+    @Test
+    public void compareTest() {
+        Assert.assertTrue(
+                SignednessUtil.compareUnsigned(new byte[] {1, (byte) 200}, new byte[] {1, 2}) > 0);
+        Assert.assertTrue(SignednessUtil.compareUnsigned(new int[] {-1}, new int[] {1}) > 0);
+        Assert.assertTrue(SignednessUtil.compareUnsigned(new long[] {1}, new long[] {1, 0}) < 0);
+        Assert.assertEquals(
+                0, SignednessUtil.compareUnsigned(new short[] {-1, 2}, new short[] {-1, 2}));
+    }
+
+    @Test
+    public void sortAndSearchTest() {
+        int[] ints = {-1, 5, Integer.MIN_VALUE, 0, 3};
+        SignednessUtil.sortUnsigned(ints);
+        Assert.assertArrayEquals(new int[] {0, 3, 5, Integer.MIN_VALUE, -1}, ints);
+        Assert.assertEquals(3, SignednessUtil.binarySearchUnsigned(ints, Integer.MIN_VALUE));
+        Assert.assertEquals(-3, SignednessUtil.binarySearchUnsigned(ints, 4));
+
+        byte[] bytes = {(byte) 200, 1, (byte) 128};
+        SignednessUtil.sortUnsigned(bytes);
+        Assert.assertArrayEquals(new byte[] {1, (byte) 128, (byte) 200}, bytes);
+        Assert.assertEquals(2, SignednessUtil.binarySearchUnsigned(bytes, (byte) 200));
+
+        long[] longs = {-1L, 0L, Long.MIN_VALUE};
+        SignednessUtil.sortUnsigned(longs);
+        Assert.assertArrayEquals(new long[] {0L, Long.MIN_VALUE, -1L}, longs);
+        Assert.assertEquals(-2, SignednessUtil.binarySearchUnsigned(longs, 1L));
+
+        short[] shorts = {-1, 2};
+        SignednessUtil.sortUnsigned(shorts);
+        Assert.assertEquals(1, SignednessUtil.binarySearchUnsigned(shorts, (short) -1));
+    }
+
+    @Test
+    public void byteBufferTest() {
+        ByteBuffer b = ByteBuffer.allocate(14);
+        b.putShort((short) -1).putInt(-2).putLong(3L).flip();
+        short[] shorts = new short[1];
+        int[] ints = new int[1];
+        long[] longs = new long[1];
+        SignednessUtil.getUnsigned(b, shorts);
+        SignednessUtil.getUnsigned(b, ints);
+        SignednessUtil.getUnsigned(b, longs);
+        Assert.assertEquals(0xffff, Short.toUnsignedInt(shorts[0]));
+        Assert.assertEquals(-2, ints[0]);
+        Assert.assertEquals(3L, longs[0]);
+        Assert.assertFalse(b.hasRemaining());
+    }
+}
@@ -128,4 +128,23 @@ class TestIsRegex {
     @Regex(2) String test12(String s, boolean b) throws Exception {
         return b ? null : RegexUtil.asRegex(s, 2);
     }
+
+    void test13(String s) throws Exception {
+        @Regex(2) Pattern p1 = RegexUtil.asPattern(s, 2);
+        @Regex(1) Pattern p2 = RegexUtil.asPattern(s, 2);
+        @Regex Pattern p3 = RegexUtil.asPattern(s);
+        // :: error: (assignment.type.incompatible)
+        @Regex(3) Pattern p4 = RegexUtil.asPattern(s, 2);
+        // :: error: (assignment.type.incompatible)
+        @Regex(1) Pattern p5 = RegexUtil.asPattern(s);
+    }
+
+    void test14(String s) throws Exception {
+        if (RegexUtil.isRegex(s, 1)) {
+            Matcher m = RegexUtil.asPattern(s, 1).matcher("");
+            if (m.matches()) {
+                m.group(1);
+            }
+        }
+    }
 }
@@ -166,4 +166,53 @@ public class Utils {
         resDouble = SignednessUtil.toDouble(uint);
         resDouble = SignednessUtil.toDouble(ulong);
     }
+
+    public void bulkTests(
+            @Unsigned byte[] ubyteArr,
+            @Signed byte[] sbyteArr,
+            @Unsigned short[] ushortArr,
+            @Unsigned int[] uintArr,
+            @Signed int[] sintArr,
+            @Unsigned long[] ulongArr,
+            @Unsigned int uint,
+            @Signed int sint,
+            ByteBuffer b) {
+
+        SignednessUtil.toUnsignedInts(ubyteArr, uintArr);
+        SignednessUtil.toUnsignedInts(ushortArr, 0, uintArr, 0, ushortArr.length);
+        SignednessUtil.toUnsignedLongs(uintArr, ulongArr);
+        SignednessUtil.toUnsignedLongs(ubyteArr, ulongArr);
+        SignednessUtil.toUnsignedLongs(ushortArr, 0, ulongArr, 0, ushortArr.length);
+
+        // :: error: (argument.type.incompatible)
+        SignednessUtil.toUnsignedInts(sbyteArr, uintArr);
+
+        // :: error: (argument.type.incompatible)
+        SignednessUtil.toUnsignedInts(ubyteArr, sintArr);
+
+        // :: error: (argument.type.incompatible)
+        SignednessUtil.toUnsignedLongs(sbyteArr, ulongArr);
+
+        int res;
+
+        res = SignednessUtil.compareUnsigned(ubyteArr, ubyteArr);
+
+        // :: error: (argument.type.incompatible)
+        res = SignednessUtil.compareUnsigned(sintArr, uintArr);
+
+        SignednessUtil.sortUnsigned(uintArr);
+
+        // :: error: (argument.type.incompatible)
+        SignednessUtil.sortUnsigned(sintArr);
+
+        res = SignednessUtil.binarySearchUnsigned(uintArr, uint);
+
+        // :: error: (argument.type.incompatible)
+        res = SignednessUtil.binarySearchUnsigned(uintArr, sint);
+
+        SignednessUtil.getUnsigned(b, uintArr);
+
+        // :: error: (argument.type.incompatible)
+        SignednessUtil.getUnsigned(b, sintArr);
+    }
 }
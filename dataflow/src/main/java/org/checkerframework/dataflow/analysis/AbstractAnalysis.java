@@ -3,12 +3,14 @@ package org.checkerframework.dataflow.analysis;
 import com.sun.source.tree.ClassTree;
 import com.sun.source.tree.MethodTree;
 import com.sun.source.tree.Tree;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.PriorityQueue;
 import java.util.Set;
 import javax.lang.model.element.Element;
 import org.checkerframework.checker.nullness.qual.EnsuresNonNull;
@@ -412,25 +414,30 @@ public abstract class AbstractAnalysis<
      * @param b the block to add to {@link #worklist}
      */
     protected void addToWorklist(Block b) {
-        // TODO: use a more efficient way to check if b is already present
-        if (!worklist.contains(b)) {
-            worklist.add(b);
-        }
+        worklist.add(b);
     }
 
     /**
      * A worklist is a priority queue of blocks in which the order is given by depth-first ordering
      * to place non-loop predecessors ahead of successors.
+     *
+     * <p>The blocks of the control flow graph are numbered densely, in depth-first order, once per
+     * graph by {@link #process}. The queue itself is a bit set indexed by that number, so {@link
+     * #add}, {@link #contains}, and {@link #poll} neither compare nor box the numbers and allocate
+     * nothing.
      */
     protected static class Worklist {
 
-        /** Map all blocks in the CFG to their depth-first order. */
+        /** Map all blocks in the CFG to their index in depth-first order, starting at 0. */
         protected final IdentityHashMap<Block, Integer> depthFirstOrder;
 
         /**
          * Comparators to allow priority queue to order blocks by their depth-first order, using by
          * forward analysis.
+         *
+         * @deprecated The worklist no longer uses a priority queue.
          */
+        @Deprecated
         public class ForwardDFOComparator implements Comparator<Block> {
             @SuppressWarnings("unboxing.of.nullable")
             @Override
@@ -442,7 +449,10 @@ public abstract class AbstractAnalysis<
         /**
          * Comparators to allow priority queue to order blocks by their depth-first order, using by
          * backward analysis.
+         *
+         * @deprecated The worklist no longer uses a priority queue.
          */
+        @Deprecated
         public class BackwardDFOComparator implements Comparator<Block> {
             @SuppressWarnings("unboxing.of.nullable")
             @Override
@@ -451,8 +461,14 @@ public abstract class AbstractAnalysis<
             }
         }
 
-        /** The backing priority queue. */
-        protected final PriorityQueue<Block> queue;
+        /** The direction of the analysis; forward analyses poll the lowest index first. */
+        protected final Direction direction;
+
+        /** The blocks of the CFG, indexed by their depth-first order. */
+        protected Block[] blocks;
+
+        /** The set of indices (in depth-first order) of the blocks in the worklist. */
+        protected final BitSet queue;
 
         /**
          * Create a Worklist.
@@ -460,15 +476,13 @@ public abstract class AbstractAnalysis<
          * @param direction the direction (forward or backward)
          */
         public Worklist(Direction direction) {
-            depthFirstOrder = new IdentityHashMap<>();
-
-            if (direction == Direction.FORWARD) {
-                queue = new PriorityQueue<>(11, new ForwardDFOComparator());
-            } else if (direction == Direction.BACKWARD) {
-                queue = new PriorityQueue<>(11, new BackwardDFOComparator());
-            } else {
+            if (direction != Direction.FORWARD && direction != Direction.BACKWARD) {
                 throw new BugInCF("Unexpected Direction meet: " + direction.name());
             }
+            this.direction = direction;
+            this.depthFirstOrder = new IdentityHashMap<>();
+            this.blocks = new Block[0];
+            this.queue = new BitSet();
         }
 
         /**
@@ -478,18 +492,46 @@ public abstract class AbstractAnalysis<
          */
         public void process(ControlFlowGraph cfg) {
             depthFirstOrder.clear();
-            int count = 1;
-            for (Block b : cfg.getDepthFirstOrderedBlocks()) {
-                depthFirstOrder.put(b, count++);
+            List<Block> ordered = cfg.getDepthFirstOrderedBlocks();
+            blocks = new Block[ordered.size()];
+            int index = 0;
+            for (Block b : ordered) {
+                depthFirstOrder.put(b, index);
+                blocks[index] = b;
+                index++;
             }
 
             queue.clear();
         }
 
         /**
-         * See {@link PriorityQueue#isEmpty}.
+         * Returns true if {@code block} is reachable in the control flow graph that was last
+         * passed to {@link #process}, and thus may be added to this worklist.
+         *
+         * @param block a block
+         * @return true if {@code block} is reachable in the current control flow graph
+         */
+        public boolean isReachable(Block block) {
+            return depthFirstOrder.containsKey(block);
+        }
+
+        /**
+         * Returns the index of {@code block} in depth-first order.
+         *
+         * @param block a block of the current control flow graph
+         * @return the index of {@code block} in depth-first order
+         */
+        private int indexOf(Block block) {
+            Integer index = depthFirstOrder.get(block);
+            if (index == null) {
+                throw new BugInCF("Block is not reachable in the control flow graph: " + block);
+            }
+            return index;
+        }
+
+        /**
+         * Returns true if the worklist contains no blocks.
          *
-         * @see PriorityQueue#isEmpty
          * @return true if {@link #queue} is empty else false
          */
         @EnsuresNonNullIf(result = false, expression = "poll()")
@@ -505,31 +547,45 @@ public abstract class AbstractAnalysis<
          * @return true if {@link #queue} contains the given block
          */
         public boolean contains(Block block) {
-            return queue.contains(block);
+            Integer index = depthFirstOrder.get(block);
+            return index != null && queue.get(index);
         }
 
         /**
-         * Add the given block to {@link #queue}.
+         * Add the given block to {@link #queue}. If {@code block} is already present, the method
+         * does nothing.
          *
          * @param block the block to add to {@link #queue}
          */
         public void add(Block block) {
-            queue.add(block);
+            queue.set(indexOf(block));
         }
 
         /**
-         * See {@link PriorityQueue#poll}.
+         * Removes and returns the block that comes first in depth-first order (last, for a
+         * backward analysis), or returns null if the worklist is empty.
          *
-         * @see PriorityQueue#poll
          * @return the head of {@link #queue}
          */
         public @Nullable Block poll() {
-            return queue.poll();
+            int index =
+                    direction == Direction.FORWARD
+                            ? queue.nextSetBit(0)
+                            : queue.previousSetBit(queue.length() - 1);
+            if (index < 0) {
+                return null;
+            }
+            queue.clear(index);
+            return blocks[index];
         }
 
         @Override
         public String toString() {
-            return "Worklist(" + queue + ")";
+            List<Block> queued = new ArrayList<>();
+            for (int i = queue.nextSetBit(0); i >= 0; i = queue.nextSetBit(i + 1)) {
+                queued.add(blocks[i]);
+            }
+            return "Worklist(" + queued + ")";
         }
     }
 }
@@ -14,6 +14,7 @@ import org.checkerframework.dataflow.cfg.block.ExceptionBlock;
 import org.checkerframework.dataflow.cfg.block.RegularBlock;
 import org.checkerframework.dataflow.cfg.node.AssignmentNode;
 import org.checkerframework.dataflow.cfg.node.Node;
+import org.checkerframework.dataflow.util.IdentityMostlySingleton;
 import org.checkerframework.javacutil.BugInCF;
 
 /**
@@ -131,6 +132,9 @@ public class AnalysisResult<V extends AbstractValue<V>, S extends Store<S>> {
     /**
      * Merge all entries from otherTreeLookup into treeLookup. Merge sets if already present.
      *
+     * <p>The sets are not modified: they may belong to a control flow graph, which can be shared
+     * by several analyses.
+     *
      * @param treeLookup a map from abstract syntax trees to sets of nodes
      * @param otherTreeLookup another treeLookup that will be merged into {@code treeLookup}
      */
@@ -142,7 +146,10 @@ public class AnalysisResult<V extends AbstractValue<V>, S extends Store<S>> {
             if (hit == null) {
                 treeLookup.put(entry.getKey(), entry.getValue());
             } else {
-                hit.addAll(entry.getValue());
+                Set<Node> merged = new IdentityMostlySingleton<>();
+                merged.addAll(hit);
+                merged.addAll(entry.getValue());
+                treeLookup.put(entry.getKey(), merged);
             }
         }
     }
@@ -209,8 +209,7 @@ public class BackwardAnalysisImpl<
         worklist.process(cfg);
         SpecialBlock regularExitBlock = cfg.getRegularExitBlock();
         SpecialBlock exceptionExitBlock = cfg.getExceptionalExitBlock();
-        if (worklist.depthFirstOrder.get(regularExitBlock) == null
-                && worklist.depthFirstOrder.get(exceptionExitBlock) == null) {
+        if (!worklist.isReachable(regularExitBlock) && !worklist.isReachable(exceptionExitBlock)) {
             throw new BugInCF(
                     "regularExitBlock and exceptionExitBlock should never both be null at the same time.");
         }
@@ -221,12 +220,12 @@ public class BackwardAnalysisImpl<
         S exceptionalInitialStore = transferFunction.initialExceptionalExitStore(underlyingAST);
         // If regularExitBlock or exceptionExitBlock is reachable in the control flow graph, then
         // initialize it as a start point of the analysis.
-        if (worklist.depthFirstOrder.get(regularExitBlock) != null) {
+        if (worklist.isReachable(regularExitBlock)) {
             worklist.add(regularExitBlock);
             inputs.put(regularExitBlock, new TransferInput<>(null, this, normalInitialStore));
             outStores.put(regularExitBlock, normalInitialStore);
         }
-        if (worklist.depthFirstOrder.get(exceptionExitBlock) != null) {
+        if (worklist.isReachable(exceptionExitBlock)) {
             worklist.add(exceptionExitBlock);
             inputs.put(
                     exceptionExitBlock, new TransferInput<>(null, this, exceptionalInitialStore));
@@ -30,12 +30,15 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.checker.signature.qual.ClassGetName;
 import org.checkerframework.common.reflection.MethodValChecker;
 import org.checkerframework.dataflow.cfg.CFGVisualizer;
+import org.checkerframework.framework.flow.CFCFGBuilder;
+import org.checkerframework.framework.flow.CFCFGBuilder.SharedCFG;
 import org.checkerframework.framework.qual.SubtypeOf;
 import org.checkerframework.framework.source.SourceChecker;
 import org.checkerframework.framework.type.AnnotatedTypeFactory;
 import org.checkerframework.framework.type.GenericAnnotatedTypeFactory;
 import org.checkerframework.framework.type.QualifierHierarchy;
 import org.checkerframework.framework.type.TypeHierarchy;
+import org.checkerframework.framework.util.PerfStats;
 import org.checkerframework.framework.util.TreePathCacher;
 import org.checkerframework.javacutil.AbstractTypeProcessor;
 import org.checkerframework.javacutil.AnnotationProvider;
@@ -105,6 +108,12 @@ public abstract class BaseTypeChecker extends SourceChecker implements BaseTypeC
             messageStore = new TreeSet<>(this::compareCheckerMessages);
         }
 
+        PerfStats perfStats = getPerfStats();
+        if (perfStats != null) {
+            typeProcessTimer =
+                    perfStats.timer(this.getClass().getSimpleName(), PerfStats.TYPE_PROCESS);
+        }
+
         super.initChecker();
     }
 
@@ -141,6 +150,16 @@ public abstract class BaseTypeChecker extends SourceChecker implements BaseTypeC
      */
     private TreePathCacher treePathCacher = null;
 
+    /** Measures the time this checker spends checking classes, or null without -AperfStats. */
+    private PerfStats.@Nullable Timer typeProcessTimer = null;
+
+    /**
+     * The control flow graphs built for the class being checked, shared between this checker and
+     * its subcheckers; see {@link CFCFGBuilder#build}. Only used if this checker has subcheckers
+     * and is not itself a subchecker. Initialized in getSharedCFGs.
+     */
+    private @Nullable Map<Tree, SharedCFG> sharedCFGs = null;
+
     @Override
     protected void setRoot(CompilationUnitTree newRoot) {
         super.setRoot(newRoot);
@@ -463,6 +482,28 @@ public abstract class BaseTypeChecker extends SourceChecker implements BaseTypeC
         return subcheckers;
     }
 
+    /**
+     * Returns the control flow graphs that the checkers of the compound checker that this checker
+     * belongs to have built for the class being checked. The map is cleared after each class.
+     *
+     * @return the control flow graphs shared with the other checkers of the compound checker, or
+     *     null if this checker neither has nor is a subchecker
+     */
+    public @Nullable Map<Tree, SharedCFG> getSharedCFGs() {
+        if (parentChecker instanceof BaseTypeChecker) {
+            return ((BaseTypeChecker) parentChecker).getSharedCFGs();
+        }
+        if (sharedCFGs == null && !getSubcheckers().isEmpty()) {
+            Map<Tree, SharedCFG> cfgs = new HashMap<>();
+            PerfStats perfStats = getPerfStats();
+            if (perfStats != null) {
+                cfgs = perfStats.countingCache(this.getClass().getSimpleName(), "sharedCFGs", cfgs);
+            }
+            sharedCFGs = cfgs;
+        }
+        return sharedCFGs;
+    }
+
     /** Get the shared TreePathCacher instance. */
     public TreePathCacher getTreePathCacher() {
         if (treePathCacher == null) {
@@ -475,6 +516,15 @@ public abstract class BaseTypeChecker extends SourceChecker implements BaseTypeC
     // AbstractTypeProcessor delegation
     @Override
     public void typeProcess(TypeElement element, TreePath tree) {
+        PerfStats perfStats = getPerfStats();
+        if (perfStats != null && parentChecker == null) {
+            perfStats.setCompilationUnit(tree.getCompilationUnit().getSourceFile().getName());
+        }
+
+        if (replayCachedDiagnostics(element, tree)) {
+            return;
+        }
+
         if (!getSubcheckers().isEmpty()) {
             // TODO: I expected this to only be necessary if (parentChecker == null).
             // However, the NestedAggregateChecker fails otherwise.
@@ -507,13 +557,28 @@ public abstract class BaseTypeChecker extends SourceChecker implements BaseTypeC
         }
 
         this.errsOnLastExit = nerrorsOfAllPreviousCheckers;
-        super.typeProcess(element, tree);
+        if (typeProcessTimer == null) {
+            super.typeProcess(element, tree);
+        } else {
+            long start = typeProcessTimer.start();
+            try {
+                super.typeProcess(element, tree);
+            } finally {
+                typeProcessTimer.stop(start);
+            }
+        }
 
         if (!getSubcheckers().isEmpty()) {
             printStoredMessages(tree.getCompilationUnit());
             // Update errsOnLastExit to reflect the errors issued.
             this.errsOnLastExit = log.nerrors;
         }
+        cacheDiagnostics();
+
+        if (parentChecker == null && sharedCFGs != null) {
+            // Every checker has checked the class, so its control flow graphs are not needed.
+            sharedCFGs.clear();
+        }
     }
 
     /**
@@ -699,6 +764,11 @@ public abstract class BaseTypeChecker extends SourceChecker implements BaseTypeC
             checker.typeProcessingOver();
         }
 
+        GenericAnnotatedTypeFactory<?, ?, ?, ?> atypeFactory = getTypeFactory();
+        if (atypeFactory != null && atypeFactory.getWholeProgramInference() != null) {
+            atypeFactory.getWholeProgramInference().finishWritingResults();
+        }
+
         super.typeProcessingOver();
     }
 
@@ -179,6 +179,87 @@ public class Range {
         return createOrElse(longFrom, longTo, EVERYTHING);
     }
 
+    /**
+     * Returns true if adding or subtracting two ranges yields a range with more values than Long
+     * has. The result has {@code leftSpan + rightSpan + 1} values, where the span of a range is
+     * {@code to - from}.
+     *
+     * @param leftSpan the span of one operand, as an unsigned long
+     * @param rightSpan the span of the other operand, as an unsigned long
+     * @return true if the result of adding or subtracting the operands is wider than Long's range
+     */
+    private static boolean isSumWiderThanLong(long leftSpan, long rightSpan) {
+        // The result is wider than 2^64 exactly when the unsigned sum of the spans overflows.
+        return Long.compareUnsigned(leftSpan + rightSpan, leftSpan) < 0;
+    }
+
+    /**
+     * Returns true if the exact value of {@code x + y} is less than {@code Long.MIN_VALUE}.
+     *
+     * @param x a value
+     * @param y a value
+     * @param sum {@code x + y}, computed with wrap-around arithmetic
+     * @return true if {@code x + y} overflows below Long's range
+     */
+    private static boolean isSumBelowLong(long x, long y, long sum) {
+        return (x & y & ~sum) < 0;
+    }
+
+    /**
+     * Returns true if the exact value of {@code x + y} is greater than {@code Long.MAX_VALUE}.
+     *
+     * @param x a value
+     * @param y a value
+     * @param sum {@code x + y}, computed with wrap-around arithmetic
+     * @return true if {@code x + y} overflows above Long's range
+     */
+    private static boolean isSumAboveLong(long x, long y, long sum) {
+        return (~x & ~y & sum) < 0;
+    }
+
+    /**
+     * Returns true if the exact value of {@code x - y} is less than {@code Long.MIN_VALUE}.
+     *
+     * @param x a value
+     * @param y a value
+     * @param difference {@code x - y}, computed with wrap-around arithmetic
+     * @return true if {@code x - y} overflows below Long's range
+     */
+    private static boolean isDifferenceBelowLong(long x, long y, long difference) {
+        return (x & ~y & ~difference) < 0;
+    }
+
+    /**
+     * Returns true if the exact value of {@code x - y} is greater than {@code Long.MAX_VALUE}.
+     *
+     * @param x a value
+     * @param y a value
+     * @param difference {@code x - y}, computed with wrap-around arithmetic
+     * @return true if {@code x - y} overflows above Long's range
+     */
+    private static boolean isDifferenceAboveLong(long x, long y, long difference) {
+        return (~x & y & difference) < 0;
+    }
+
+    /**
+     * Returns true if {@code x * y} overflows, like {@link Math#multiplyExact(long, long)} checks,
+     * but without throwing an exception.
+     *
+     * @param x a value
+     * @param y a value
+     * @param product {@code x * y}, computed with wrap-around arithmetic
+     * @return true if {@code product} is not the exact product of {@code x} and {@code y}
+     */
+    private static boolean multiplyOverflows(long x, long y, long product) {
+        long absX = Math.abs(x);
+        long absY = Math.abs(y);
+        if ((absX | absY) >>> 31 == 0) {
+            // Both operands fit in 31 bits, so the product fits in 62 bits.
+            return false;
+        }
+        return (y != 0 && product / y != x) || (x == Long.MIN_VALUE && y == -1);
+    }
+
     /**
      * Creates a Range if {@code from<=to}; otherwise returns the given Range value.
      *
@@ -521,20 +602,22 @@ public class Range {
             return NOTHING;
         }
 
-        if (this.isWithinHalfLong() && right.isWithinHalfLong()) {
-            // This bound is adequate to guarantee no overflow when using long to evaluate
-            long resultFrom = from + right.from;
-            long resultTo = to + right.to;
-            if (from > to) {
-                return Range.EVERYTHING;
-            } else {
-                return create(resultFrom, resultTo);
+        // The bounds computed with wrap-around arithmetic are the exact bounds modulo 2^64. The
+        // rest is equivalent to create(BigInteger, BigInteger) on the exact bounds, without
+        // allocating BigIntegers.
+        long resultFrom = from + right.from;
+        long resultTo = to + right.to;
+        if (ignoreOverflow) {
+            if (isSumBelowLong(from, right.from, resultFrom)) {
+                resultFrom = Long.MIN_VALUE;
             }
-        } else {
-            BigInteger bigFrom = BigInteger.valueOf(from).add(BigInteger.valueOf(right.from));
-            BigInteger bigTo = BigInteger.valueOf(to).add(BigInteger.valueOf(right.to));
-            return create(bigFrom, bigTo);
+            if (isSumAboveLong(to, right.to, resultTo)) {
+                resultTo = Long.MAX_VALUE;
+            }
+        } else if (isSumWiderThanLong(to - from, right.to - right.from)) {
+            return EVERYTHING;
         }
+        return createOrElse(resultFrom, resultTo, EVERYTHING);
     }
 
     /**
@@ -550,16 +633,22 @@ public class Range {
             return NOTHING;
         }
 
-        if (this.isWithinHalfLong() && right.isWithinHalfLong()) {
-            // This bound is adequate to guarantee no overflow when using long to evaluate
-            long resultFrom = from - right.to;
-            long resultTo = to - right.from;
-            return create(resultFrom, resultTo);
-        } else {
-            BigInteger bigFrom = BigInteger.valueOf(from).subtract(BigInteger.valueOf(right.to));
-            BigInteger bigTo = BigInteger.valueOf(to).subtract(BigInteger.valueOf(right.from));
-            return create(bigFrom, bigTo);
+        // The bounds computed with wrap-around arithmetic are the exact bounds modulo 2^64. The
+        // rest is equivalent to create(BigInteger, BigInteger) on the exact bounds, without
+        // allocating BigIntegers.
+        long resultFrom = from - right.to;
+        long resultTo = to - right.from;
+        if (ignoreOverflow) {
+            if (isDifferenceBelowLong(from, right.to, resultFrom)) {
+                resultFrom = Long.MIN_VALUE;
+            }
+            if (isDifferenceAboveLong(to, right.from, resultTo)) {
+                resultTo = Long.MAX_VALUE;
+            }
+        } else if (isSumWiderThanLong(to - from, right.to - right.from)) {
+            return EVERYTHING;
         }
+        return createOrElse(resultFrom, resultTo, EVERYTHING);
     }
 
     /**
@@ -575,13 +664,19 @@ public class Range {
             return NOTHING;
         }
 
-        // These bounds are adequate:  Integer.MAX_VALUE^2 is still a bit less than Long.MAX_VALUE.
-        if (this.isWithinInteger() && right.isWithinInteger()) {
-            List<Long> possibleValues =
-                    Arrays.asList(
-                            from * right.from, from * right.to, to * right.from, to * right.to);
-            return create(possibleValues);
+        long fromFrom = from * right.from;
+        long fromTo = from * right.to;
+        long toFrom = to * right.from;
+        long toTo = to * right.to;
+        if (!multiplyOverflows(from, right.from, fromFrom)
+                && !multiplyOverflows(from, right.to, fromTo)
+                && !multiplyOverflows(to, right.from, toFrom)
+                && !multiplyOverflows(to, right.to, toTo)) {
+            return create(
+                    Math.min(Math.min(fromFrom, fromTo), Math.min(toFrom, toTo)),
+                    Math.max(Math.max(fromFrom, fromTo), Math.max(toFrom, toTo)));
         } else {
+            // Only BigInteger represents the exact products.
             final BigInteger bigLeftFrom = BigInteger.valueOf(from);
             final BigInteger bigRightFrom = BigInteger.valueOf(right.from);
             final BigInteger bigRightTo = BigInteger.valueOf(right.to);
@@ -778,18 +873,17 @@ public class Range {
         // see https://docs.oracle.com/javase/specs/jls/se11/html/jls-15.html#jls-15.19 for more
         // detail.
         if (right.isWithin(0, 31)) {
-            if (this.isWithinInteger()) {
-                // This bound is adequate to guarantee no overflow when using long to evaluate
-                long resultFrom = from << (from >= 0 ? right.from : right.to);
-                long resultTo = to << (to >= 0 ? right.to : right.from);
+            int fromShift = (int) (from >= 0 ? right.from : right.to);
+            int toShift = (int) (to >= 0 ? right.to : right.from);
+            long resultFrom = from << fromShift;
+            long resultTo = to << toShift;
+            // A shift is exact iff shifting back restores the value.  This always holds if this
+            // range is within Integer's range.
+            if ((resultFrom >> fromShift) == from && (resultTo >> toShift) == to) {
                 return create(resultFrom, resultTo);
             } else {
-                BigInteger bigFrom =
-                        BigInteger.valueOf(from)
-                                .shiftLeft(from >= 0 ? (int) right.from : (int) right.to);
-                BigInteger bigTo =
-                        BigInteger.valueOf(to)
-                                .shiftLeft(to >= 0 ? (int) right.to : (int) right.from);
+                BigInteger bigFrom = BigInteger.valueOf(from).shiftLeft(fromShift);
+                BigInteger bigTo = BigInteger.valueOf(to).shiftLeft(toShift);
                 return create(bigFrom, bigTo);
             }
         } else {
@@ -1198,11 +1292,8 @@ public class Range {
             // Long.MAX_VALUE >> 1 = 4611686018427387903
             return width() > value;
         } else {
-            return BigInteger.valueOf(to)
-                            .subtract(BigInteger.valueOf(from))
-                            .add(BigInteger.ONE)
-                            .compareTo(BigInteger.valueOf(value))
-                    > 0;
+            // The width is (to - from) + 1, where to - from is an unsigned long.
+            return value < 0 || Long.compareUnsigned(to - from, value) >= 0;
         }
     }
 
@@ -1224,14 +1315,6 @@ public class Range {
         return lb <= from && to <= ub;
     }
 
-    /**
-     * Determines if this range is contained inclusively between Long.MIN_VALUE/2 and
-     * Long.MAX_VALUE/2. Note: Long.MIN_VALUE/2 != -Long.MAX_VALUE/2
-     */
-    private boolean isWithinHalfLong() {
-        return isWithin(Long.MIN_VALUE >> 1, Long.MAX_VALUE >> 1);
-    }
-
     /**
      * Determines if this range is completely contained in the scope of the Integer type.
      *
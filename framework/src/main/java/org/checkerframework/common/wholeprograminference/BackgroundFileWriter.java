@@ -0,0 +1,119 @@
+package org.checkerframework.common.wholeprograminference;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.javacutil.BugInCF;
+import org.checkerframework.javacutil.UserError;
+
+/**
+ * Writes files on a background thread, so that the files written by whole-program inference after
+ * each class are written while the next class is type-checked.
+ *
+ * <p>The contents of each file are computed by the caller; this class only performs the I/O. If a
+ * file is submitted again before its previous contents have been written, only the newer contents
+ * are written. Files are written in the order in which they were first submitted.
+ */
+class BackgroundFileWriter {
+
+    /**
+     * The files that have been submitted but not yet written, in submission order. Maps the path
+     * of each file to its contents, or to null if the file is to be deleted. Guarded by {@code
+     * this}.
+     */
+    private final Map<String, @Nullable String> pending = new LinkedHashMap<>();
+
+    /** The failure of the first write that failed, or null. Guarded by {@code this}. */
+    private @Nullable UserError failure = null;
+
+    /**
+     * The single thread that writes the files. It is a daemon thread, so that it does not keep the
+     * JVM alive if the compilation ends without calling {@link #close}.
+     */
+    private final ExecutorService executor =
+            Executors.newSingleThreadExecutor(
+                    runnable -> {
+                        Thread thread = new Thread(runnable, "whole-program-inference-writer");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+
+    /**
+     * Schedules {@code path} to be written with {@code contents}, or to be deleted if {@code
+     * contents} is null. Any contents previously submitted for {@code path} and not yet written
+     * are discarded.
+     *
+     * @param path the path of the file
+     * @param contents the new contents of the file, or null to delete the file
+     */
+    synchronized void submit(String path, @Nullable String contents) {
+        if (pending.isEmpty()) {
+            executor.execute(this::writePending);
+        }
+        pending.put(path, contents);
+    }
+
+    /** Writes the pending files until there are none left. Runs on the writer thread. */
+    private void writePending() {
+        while (true) {
+            String path;
+            String contents;
+            synchronized (this) {
+                Iterator<Map.Entry<String, @Nullable String>> iterator =
+                        pending.entrySet().iterator();
+                if (!iterator.hasNext()) {
+                    return;
+                }
+                Map.Entry<String, @Nullable String> entry = iterator.next();
+                iterator.remove();
+                path = entry.getKey();
+                contents = entry.getValue();
+            }
+            File file = new File(path);
+            file.delete();
+            if (contents == null) {
+                continue;
+            }
+            try (FileWriter fileWriter = new FileWriter(file)) {
+                fileWriter.write(contents);
+            } catch (IOException e) {
+                synchronized (this) {
+                    if (failure == null) {
+                        failure =
+                                new UserError(
+                                        "Problem while writing %s: %s", path, e.getMessage());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Waits until every submitted file has been written, and stops the writer thread.
+     *
+     * @throws UserError if a file could not be written
+     */
+    void close() {
+        executor.shutdown();
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                // Keep waiting: the files must be complete when the compilation ends.
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BugInCF("Interrupted while writing whole-program inference results", e);
+        }
+        synchronized (this) {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
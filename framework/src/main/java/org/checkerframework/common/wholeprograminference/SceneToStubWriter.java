@@ -5,6 +5,7 @@ import com.sun.tools.javac.code.TypeAnnotationPosition.TypePathEntry;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -86,7 +87,32 @@ public final class SceneToStubWriter {
      * @param filename the name of the file to write (must end with .astub)
      */
     public static void write(ASceneWrapper scene, String filename) {
-        writeImpl(scene, filename);
+        String stub = toStubString(scene);
+        if (stub == null) {
+            return;
+        }
+        try (FileWriter fileWriter = new FileWriter(filename)) {
+            fileWriter.write(stub);
+        } catch (IOException e) {
+            throw new BugInCF("error writing file during WPI: " + filename);
+        }
+    }
+
+    /**
+     * Returns the annotations in {@code scene} in stub file format.
+     *
+     * @param scene the scene to format
+     * @return the contents of the stub file for {@code scene}, or null if no class in {@code scene}
+     *     can be written to a stub file
+     */
+    public static @Nullable String toStubString(ASceneWrapper scene) {
+        StringWriter stringWriter = new StringWriter();
+        PrintWriter printWriter = new PrintWriter(stringWriter);
+        if (!writeImpl(scene, printWriter)) {
+            return null;
+        }
+        printWriter.flush();
+        return stringWriter.toString();
     }
 
     /**
@@ -563,13 +589,14 @@ public final class SceneToStubWriter {
     }
 
     /**
-     * The implementation of {@link #write(ASceneWrapper, String)}. Prints imports, classes, method
+     * The implementation of {@link #toStubString(ASceneWrapper)}. Prints imports, classes, method
      * signatures, and fields in stub file format, all with appropriate annotations.
      *
      * @param scene the scene to write
-     * @param filename the name of the file to write (must end in .astub)
+     * @param printWriter the writer on which to print
+     * @return true if at least one class was printed
      */
-    private static void writeImpl(ASceneWrapper scene, String filename) {
+    private static boolean writeImpl(ASceneWrapper scene, PrintWriter printWriter) {
         // Sort by package name first so that output is deterministic and default package
         // comes first; within package sort by class name.
         @SuppressWarnings("signature") // scene-lib bytecode lacks signature annotations
@@ -588,20 +615,10 @@ public final class SceneToStubWriter {
 
         boolean anyClassPrintable = false;
 
-        // The writer is not initialized until it is certain that at
-        // least one class can be written, to avoid empty stub files.
-        PrintWriter printWriter = null;
-
         // For each class
         for (String clazz : classes) {
             if (isPrintable(clazz, scene.getAScene().getClasses().get(clazz))) {
                 if (!anyClassPrintable) {
-                    try {
-                        printWriter = new PrintWriter(new FileWriter(filename));
-                    } catch (IOException e) {
-                        throw new BugInCF("error writing file during WPI: " + filename);
-                    }
-
                     // Write out all imports
                     ImportDefWriter importDefWriter;
                     try {
@@ -616,9 +633,7 @@ public final class SceneToStubWriter {
                 printClass(clazz, scene.getAScene().getClasses().get(clazz), printWriter);
             }
         }
-        if (printWriter != null) {
-            printWriter.flush();
-        }
+        return anyClassPrintable;
     }
 
     /**
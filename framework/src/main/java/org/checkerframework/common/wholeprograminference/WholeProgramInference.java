@@ -182,6 +182,13 @@ public interface WholeProgramInference {
      */
     void writeResultsToFile(OutputFormat format, BaseTypeChecker checker);
 
+    /**
+     * Waits until the results passed to {@link #writeResultsToFile} have been written to files.
+     * Called once, at the end of the type-checking process. The default implementation does
+     * nothing, which is correct for implementations that write the results synchronously.
+     */
+    default void finishWritingResults() {}
+
     /** The kinds of output that whole-program inference can produce. */
     enum OutputFormat {
         /**
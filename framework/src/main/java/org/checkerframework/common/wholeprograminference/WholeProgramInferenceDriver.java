@@ -0,0 +1,488 @@
+package org.checkerframework.common.wholeprograminference;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import javax.annotation.processing.Processor;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.javacutil.BugInCF;
+import org.checkerframework.javacutil.UserError;
+
+/**
+ * Runs whole-program inference with {@code -Ainfer=stubs} until it reaches a fixpoint, performing
+ * every round within a single JVM.
+ *
+ * <p>Each round compiles the program with the given checkers. The stub files written by one round
+ * to {@link WholeProgramInferenceScenesStorage#JAIF_FILES_PATH} are passed to the next round via
+ * {@code -Astubs} and {@code -AmergeStubsWithSource}. The driver stops when a round writes exactly
+ * the files that the previous round wrote. It gives up after a maximum number of rounds, or when a
+ * round writes the same files as an earlier round, which means that the rounds cycle. The outputs
+ * of the rounds are compared in memory. The final stub files remain in {@link
+ * WholeProgramInferenceScenesStorage#JAIF_FILES_PATH}; the source files are not modified.
+ *
+ * <p>By contrast with {@code checker/bin/infer-and-annotate.sh}, JVM startup, class loading, the
+ * file manager (which caches the contents of the classpath), and the parsing of stub files that do
+ * not change between rounds (such as the annotated JDK) are paid once rather than once per round.
+ *
+ * <p>Every round type-checks every compilation unit and starts from empty scenes. The scenes of the
+ * previous round cannot be kept: a scene holds the least upper bound of everything that was
+ * assigned to a location, and the assigned types become more precise from round to round, so
+ * starting from the previous scene would prevent the inferred types from ever becoming more
+ * precise. For the same reason, an unchanged compilation unit cannot be skipped: its uses
+ * contribute to the scenes of the classes that it uses, and those contributions are not recorded
+ * per compilation unit.
+ *
+ * <p>Usage:
+ *
+ * <pre>{@code
+ * java -cp checker.jar org.checkerframework.common.wholeprograminference.WholeProgramInferenceDriver \
+ *     [--max-rounds=N] -processor my.pakkage.MyChecker [javac options] *.java
+ * }</pre>
+ *
+ * The checkers must be given by their fully-qualified names and must be on the classpath of the
+ * driver itself.
+ */
+public class WholeProgramInferenceDriver {
+
+    /** The directory from which a round reads the stub files written by the previous round. */
+    public static final String PREVIOUS_ROUND_PATH =
+            "build" + File.separator + "prev-whole-program-inference" + File.separator;
+
+    /** The prefix of the command-line argument that limits the number of rounds. */
+    private static final String MAX_ROUNDS_OPTION = "--max-rounds=";
+
+    /** The compiler used for every round. */
+    private final JavaCompiler compiler;
+
+    /** The file manager shared by every round. */
+    private final StandardJavaFileManager fileManager;
+
+    /** The fully-qualified names of the checkers to run. */
+    private final List<String> processorNames;
+
+    /** The javac options given on the command line, without {@code -processor}. */
+    private final List<String> javacOptions;
+
+    /** The source files of the program. */
+    private final List<? extends JavaFileObject> compilationUnits;
+
+    /** The directory to which the class files produced by each round are written. */
+    private final Path classOutputDir;
+
+    /** The diagnostics issued by the most recent round. */
+    private DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+    /**
+     * Creates a driver for the given program.
+     *
+     * @param processorNames the fully-qualified names of the checkers to run
+     * @param javacOptions the javac options, without {@code -processor} and without source files
+     * @param sourceFiles the paths of the source files of the program
+     * @throws IOException if the directory for class files cannot be created
+     */
+    public WholeProgramInferenceDriver(
+            List<String> processorNames, List<String> javacOptions, List<String> sourceFiles)
+            throws IOException {
+        this.compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new UserError("No system Java compiler is available; run with a JDK.");
+        }
+        this.fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8);
+        this.processorNames = processorNames;
+        this.javacOptions = javacOptions;
+        this.compilationUnits = toList(fileManager.getJavaFileObjectsFromStrings(sourceFiles));
+        this.classOutputDir = Files.createTempDirectory("whole-program-inference-classes");
+    }
+
+    /**
+     * Runs whole-program inference; see class documentation for details.
+     *
+     * @param args command-line arguments: an optional {@code --max-rounds=N}, then the arguments
+     *     that would be passed to javac, including {@code -processor} and the source files
+     */
+    public static void main(String[] args) {
+        int maxRounds = Integer.MAX_VALUE;
+        List<String> processorNames = new ArrayList<>();
+        List<String> javacOptions = new ArrayList<>();
+        List<String> sourceFiles = new ArrayList<>();
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith(MAX_ROUNDS_OPTION)) {
+                maxRounds = parseMaxRounds(arg.substring(MAX_ROUNDS_OPTION.length()));
+            } else if (arg.equals("-processor")) {
+                processorNames.addAll(Arrays.asList(optionValue(args, i++).split(",")));
+            } else if (arg.startsWith("-Ainfer")) {
+                if (!arg.equals("-Ainfer=stubs")) {
+                    throw new UserError("%s only supports -Ainfer=stubs", getDriverName());
+                }
+            } else if (arg.endsWith(".java")) {
+                sourceFiles.add(arg);
+            } else {
+                javacOptions.add(arg);
+                // Copy the value of a javac option such as -classpath, so that it is never
+                // mistaken for a source file or an option.  An option such as -Xlint:all or
+                // --release=8 contains its value.
+                int values =
+                        compiler == null || arg.contains("=") || arg.contains(":")
+                                ? 0
+                                : compiler.isSupportedOption(arg);
+                for (int j = 0; j < values; j++) {
+                    javacOptions.add(optionValue(args, i++));
+                }
+            }
+        }
+        if (processorNames.isEmpty() || sourceFiles.isEmpty()) {
+            System.err.printf(
+                    "Usage: %s [%sN] -processor <checkers> [javac options] <source files>%n",
+                    getDriverName(), MAX_ROUNDS_OPTION);
+            System.exit(1);
+        }
+
+        try {
+            WholeProgramInferenceDriver driver =
+                    new WholeProgramInferenceDriver(processorNames, javacOptions, sourceFiles);
+            boolean reachedFixpoint;
+            try {
+                reachedFixpoint = driver.run(maxRounds);
+            } finally {
+                driver.close();
+            }
+            driver.printDiagnostics();
+            if (!reachedFixpoint) {
+                System.err.println("Whole-program inference did not reach a fixpoint.");
+                System.exit(1);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the argument that follows an option that takes a value.
+     *
+     * @param args the command-line arguments
+     * @param i the index of the option in {@code args}
+     * @return {@code args[i + 1]}
+     * @throws UserError if the option is the last argument
+     */
+    private static String optionValue(String[] args, int i) {
+        if (i + 1 >= args.length) {
+            throw new UserError("%s: %s expects a value", getDriverName(), args[i]);
+        }
+        return args[i + 1];
+    }
+
+    /**
+     * Parses the value of the {@code --max-rounds=} command-line argument.
+     *
+     * @param value the text after {@code --max-rounds=}
+     * @return the maximum number of rounds
+     * @throws UserError if {@code value} is not a positive integer
+     */
+    private static int parseMaxRounds(String value) {
+        int maxRounds;
+        try {
+            maxRounds = Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            maxRounds = 0;
+        }
+        if (maxRounds < 1) {
+            throw new UserError(
+                    "%s expects a positive integer, found \"%s\"", MAX_ROUNDS_OPTION, value);
+        }
+        return maxRounds;
+    }
+
+    /**
+     * Runs rounds of inference until two consecutive rounds write the same files.
+     *
+     * @param maxRounds the maximum number of rounds to run
+     * @return true if a fixpoint was reached, false if {@code maxRounds} rounds were run without
+     *     reaching one or if a round wrote the same files as an earlier, non-consecutive round
+     * @throws IOException if the stub files cannot be read or written
+     */
+    public boolean run(int maxRounds) throws IOException {
+        Path outputDir = Paths.get(WholeProgramInferenceScenesStorage.JAIF_FILES_PATH);
+        Path previousRoundDir = Paths.get(PREVIOUS_ROUND_PATH);
+        @Nullable Map<String, byte[]> previousRound = null;
+        // Maps a digest of the files written by a round to the round. Used to stop when the
+        // rounds cycle instead of converging.
+        Map<ByteBuffer, Integer> roundsByDigest = new HashMap<>();
+        for (int round = 1; round <= maxRounds; round++) {
+            deleteRecursively(outputDir);
+            deleteRecursively(previousRoundDir);
+            if (previousRound != null) {
+                writeFiles(previousRoundDir, previousRound);
+            }
+            if (!runRound(previousRound == null || previousRound.isEmpty())) {
+                throw new UserError(
+                        "Round %d of whole-program inference did not compile:%n%s",
+                        round, formatDiagnostics());
+            }
+            Map<String, byte[]> currentRound = readFiles(outputDir);
+            int changed = countChangedFiles(previousRound, currentRound);
+            System.out.printf(
+                    "Whole-program inference round %d: %d of %d files changed%n",
+                    round, changed, currentRound.size());
+            previousRound = currentRound;
+            if (changed == 0) {
+                return true;
+            }
+            Integer sameRound = roundsByDigest.put(digest(currentRound), round);
+            if (sameRound != null) {
+                System.out.printf(
+                        "Round %d wrote the same files as round %d: inference oscillates%n",
+                        round, sameRound);
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Compiles the program once with {@code -Ainfer=stubs}.
+     *
+     * @param firstRound true if there are no stub files from a previous round
+     * @return true if the compilation succeeded
+     */
+    private boolean runRound(boolean firstRound) {
+        List<String> options = new ArrayList<>(javacOptions);
+        options.add("-Ainfer=stubs");
+        options.add("-Awarns");
+        options.add("-Xmaxwarns");
+        options.add("10000");
+        options.add("-d");
+        options.add(classOutputDir.toString());
+        if (!firstRound) {
+            addStubsOption(options);
+            options.add("-AmergeStubsWithSource");
+        }
+        diagnostics = new DiagnosticCollector<>();
+        JavaCompiler.CompilationTask task =
+                compiler.getTask(null, fileManager, diagnostics, options, null, compilationUnits);
+        task.setProcessors(createProcessors());
+        return task.call();
+    }
+
+    /**
+     * Adds the stub files of the previous round to the {@code -Astubs} option in {@code options},
+     * keeping any stub files given on the command line.
+     *
+     * @param options the javac options of a round, modified by this method
+     */
+    private static void addStubsOption(List<String> options) {
+        for (int i = 0; i < options.size(); i++) {
+            String option = options.get(i);
+            if (option.startsWith("-Astubs=")) {
+                options.set(i, option + File.pathSeparator + PREVIOUS_ROUND_PATH);
+                return;
+            }
+        }
+        options.add("-Astubs=" + PREVIOUS_ROUND_PATH);
+    }
+
+    /**
+     * Creates fresh instances of the checkers. The checkers are loaded by the class loader of the
+     * driver, so that javac does not load them anew, and with them the Checker Framework, in every
+     * round.
+     *
+     * @return new instances of the checkers
+     */
+    private List<Processor> createProcessors() {
+        List<Processor> processors = new ArrayList<>(processorNames.size());
+        for (String name : processorNames) {
+            try {
+                processors.add(
+                        Class.forName(name.trim())
+                                .asSubclass(Processor.class)
+                                .getDeclaredConstructor()
+                                .newInstance());
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                throw new UserError("Cannot instantiate checker %s: %s", name, e);
+            }
+        }
+        return processors;
+    }
+
+    /** Prints the diagnostics of the last round, which are those of the inferred program. */
+    public void printDiagnostics() {
+        String formatted = formatDiagnostics();
+        if (!formatted.isEmpty()) {
+            System.err.print(formatted);
+        }
+    }
+
+    /**
+     * Returns the diagnostics of the last round, one per line.
+     *
+     * @return the diagnostics of the last round, one per line
+     */
+    private String formatDiagnostics() {
+        StringBuilder sb = new StringBuilder();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            sb.append(diagnostic).append(System.lineSeparator());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Closes the file manager and deletes the class files and the stub files of the previous
+     * round.
+     *
+     * @throws IOException if a file cannot be deleted
+     */
+    public void close() throws IOException {
+        fileManager.close();
+        deleteRecursively(classOutputDir);
+        deleteRecursively(Paths.get(PREVIOUS_ROUND_PATH));
+    }
+
+    /**
+     * Returns the number of files in {@code current} that are not in {@code previous} or differ
+     * from it, plus the number of files in {@code previous} that are not in {@code current}.
+     *
+     * @param previous the files written by the previous round, or null if there was none
+     * @param current the files written by the current round
+     * @return the number of files that changed between the two rounds
+     */
+    private static int countChangedFiles(
+            @Nullable Map<String, byte[]> previous, Map<String, byte[]> current) {
+        if (previous == null) {
+            return current.size();
+        }
+        int changed = 0;
+        for (Map.Entry<String, byte[]> entry : current.entrySet()) {
+            if (!Arrays.equals(entry.getValue(), previous.get(entry.getKey()))) {
+                changed++;
+            }
+        }
+        for (String file : previous.keySet()) {
+            if (!current.containsKey(file)) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Returns a digest of the given files.
+     *
+     * @param files a map from the path of each file to its contents
+     * @return a SHA-256 digest of the paths and contents of {@code files}
+     */
+    private static ByteBuffer digest(Map<String, byte[]> files) {
+        MessageDigest md;
+        try {
+            md = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new BugInCF(e);
+        }
+        // The map is sorted, so equal maps produce equal digests.
+        for (Map.Entry<String, byte[]> entry : files.entrySet()) {
+            md.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+            md.update((byte) 0);
+            md.update(ByteBuffer.allocate(Integer.BYTES).putInt(entry.getValue().length).array());
+            md.update(entry.getValue());
+        }
+        return ByteBuffer.wrap(md.digest());
+    }
+
+    /**
+     * Reads every file under {@code dir}.
+     *
+     * @param dir a directory, which need not exist
+     * @return a map from the path of each file, relative to {@code dir}, to its contents
+     * @throws IOException if a file cannot be read
+     */
+    private static Map<String, byte[]> readFiles(Path dir) throws IOException {
+        Map<String, byte[]> files = new TreeMap<>();
+        if (!Files.isDirectory(dir)) {
+            return files;
+        }
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>) paths.filter(Files::isRegularFile)::iterator) {
+                files.put(dir.relativize(path).toString(), Files.readAllBytes(path));
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Writes the given files under {@code dir}.
+     *
+     * @param dir the directory to write to
+     * @param files a map from the path of each file, relative to {@code dir}, to its contents
+     * @throws IOException if a file cannot be written
+     */
+    private static void writeFiles(Path dir, Map<String, byte[]> files) throws IOException {
+        Files.createDirectories(dir);
+        for (Map.Entry<String, byte[]> entry : files.entrySet()) {
+            Path path = dir.resolve(entry.getKey());
+            Files.createDirectories(path.getParent());
+            Files.write(path, entry.getValue());
+        }
+    }
+
+    /**
+     * Deletes {@code path} and, if it is a directory, everything under it.
+     *
+     * @param path the file or directory to delete, which need not exist
+     * @throws IOException if a file cannot be deleted
+     */
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path p : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(p);
+            }
+        }
+    }
+
+    /**
+     * Returns the elements of {@code iterable} as a list.
+     *
+     * @param <T> the type of the elements
+     * @param iterable an iterable
+     * @return a list of the elements of {@code iterable}
+     */
+    private static <T> List<T> toList(Iterable<? extends T> iterable) {
+        List<T> list = new ArrayList<>();
+        for (T t : iterable) {
+            list.add(t);
+        }
+        return list;
+    }
+
+    /**
+     * Returns the simple name of this class, for messages.
+     *
+     * @return the simple name of this class
+     */
+    private static String getDriverName() {
+        return WholeProgramInferenceDriver.class.getSimpleName();
+    }
+}
@@ -92,7 +92,20 @@ public class WholeProgramInferenceScenes implements WholeProgramInference {
      *     ignored
      */
     public WholeProgramInferenceScenes(boolean ignoreNullAssignments) {
-        storage = new WholeProgramInferenceScenesStorage(ignoreNullAssignments);
+        this(ignoreNullAssignments, false);
+    }
+
+    /**
+     * Creates a WholeProgramInferenceScenes that optionally writes its results on a background
+     * thread.
+     *
+     * @param ignoreNullAssignments indicates whether assignments where the rhs is null should be
+     *     ignored
+     * @param writeInBackground whether {@link #writeResultsToFile} leaves writing stub files to a
+     *     background thread
+     */
+    public WholeProgramInferenceScenes(boolean ignoreNullAssignments, boolean writeInBackground) {
+        storage = new WholeProgramInferenceScenesStorage(ignoreNullAssignments, writeInBackground);
     }
 
     @Override
@@ -423,6 +436,11 @@ public class WholeProgramInferenceScenes implements WholeProgramInference {
         storage.writeScenes(outputFormat, checker);
     }
 
+    @Override
+    public void finishWritingResults() {
+        storage.finishWritingScenes();
+    }
+
     /**
      * Returns the "flatname" of the class enclosing {@code localVariableNode}
      *
@@ -82,6 +82,12 @@ public class WholeProgramInferenceScenesStorage {
      */
     private final Set<String> modifiedScenes = new HashSet<>();
 
+    /**
+     * The writer that writes the files of modified scenes on a background thread, or null if they
+     * are written by {@link #writeScenes} itself.
+     */
+    private final @Nullable BackgroundFileWriter backgroundWriter;
+
     /**
      * Default constructor.
      *
@@ -89,7 +95,22 @@ public class WholeProgramInferenceScenesStorage {
      *     ignored
      */
     public WholeProgramInferenceScenesStorage(boolean ignoreNullAssignments) {
+        this(ignoreNullAssignments, false);
+    }
+
+    /**
+     * Creates a storage that optionally writes files on a background thread.
+     *
+     * @param ignoreNullAssignments indicates whether assignments where the rhs is null should be
+     *     ignored
+     * @param writeInBackground whether {@link #writeScenes} only formats the modified scenes and
+     *     leaves writing stub files to a background thread; if true, {@link #finishWritingScenes}
+     *     must be called after the last call to {@link #writeScenes}
+     */
+    public WholeProgramInferenceScenesStorage(
+            boolean ignoreNullAssignments, boolean writeInBackground) {
         this.ignoreNullAssignments = ignoreNullAssignments;
+        this.backgroundWriter = writeInBackground ? new BackgroundFileWriter() : null;
     }
 
     /**
@@ -107,11 +128,32 @@ public class WholeProgramInferenceScenesStorage {
         }
         // Write scenes into files.
         for (String jaifPath : modifiedScenes) {
-            scenes.get(jaifPath).writeToFile(jaifPath, annosToIgnore, outputFormat, checker);
+            ASceneWrapper scene = scenes.get(jaifPath);
+            // A .jaif file is shared by a checker and its subcheckers, each of which reads the
+            // file written by the others before updating it, so .jaif files are always written
+            // immediately. Each checker writes its own stub files.
+            if (backgroundWriter == null || outputFormat == OutputFormat.JAIF) {
+                scene.writeToFile(jaifPath, annosToIgnore, outputFormat, checker);
+            } else {
+                // Formatting a scene reads javac symbols, so it must happen on this thread.
+                backgroundWriter.submit(
+                        scene.getOutputPath(jaifPath, outputFormat, checker),
+                        scene.getFileContents(annosToIgnore, outputFormat));
+            }
         }
         modifiedScenes.clear();
     }
 
+    /**
+     * Waits until the files of the scenes passed to {@link #writeScenes} have been written. Does
+     * nothing unless this storage writes files in the background.
+     */
+    public void finishWritingScenes() {
+        if (backgroundWriter != null) {
+            backgroundWriter.close();
+        }
+    }
+
     /**
      * Returns the String representing the .jaif path of a class given its name.
      *
@@ -4,6 +4,7 @@ import com.sun.tools.javac.code.Symbol.ClassSymbol;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
@@ -122,41 +123,73 @@ public class ASceneWrapper {
             AnnotationsInContexts annosToIgnore,
             OutputFormat outputFormat,
             BaseTypeChecker checker) {
+        String filepath = getOutputPath(jaifPath, outputFormat, checker);
+        new File(filepath).delete();
+        String contents = getFileContents(annosToIgnore, outputFormat);
+        if (contents != null) {
+            try (FileWriter fileWriter = new FileWriter(filepath)) {
+                fileWriter.write(contents);
+            } catch (IOException e) {
+                throw new UserError("Problem while writing %s: %s", filepath, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns the path of the file to which {@link #writeToFile} writes the scene wrapped by this
+     * object.
+     *
+     * @param jaifPath the path of the file to be written, but ending in ".jaif". If {@code
+     *     outputformat} is not {@code JAIF}, the path will be modified to match.
+     * @param outputFormat the output format to use
+     * @param checker the checker from which this method is called, for naming stub files
+     * @return the path of the file to write
+     */
+    public String getOutputPath(
+            String jaifPath, OutputFormat outputFormat, BaseTypeChecker checker) {
         assert jaifPath.endsWith(".jaif");
-        AScene scene = theScene.clone();
-        removeAnnosFromScene(scene, annosToIgnore);
-        scene.prune();
-        String filepath;
         switch (outputFormat) {
             case JAIF:
-                filepath = jaifPath;
-                break;
+                return jaifPath;
             case STUB:
                 String astubWithChecker = "-" + checker.getClass().getCanonicalName() + ".astub";
-                filepath = jaifPath.replace(".jaif", astubWithChecker);
-                break;
+                return jaifPath.replace(".jaif", astubWithChecker);
             default:
                 throw new BugInCF("Unhandled outputFormat " + outputFormat);
         }
-        new File(filepath).delete();
-        if (!scene.isEmpty()) {
+    }
+
+    /**
+     * Returns the contents of the file to which {@link #writeToFile} writes the scene wrapped by
+     * this object.
+     *
+     * @param annosToIgnore which annotations should be ignored in which contexts
+     * @param outputFormat the output format to use
+     * @return the contents of the file, or null if no file should be written because the scene is
+     *     empty
+     */
+    public @Nullable String getFileContents(
+            AnnotationsInContexts annosToIgnore, OutputFormat outputFormat) {
+        AScene scene = theScene.clone();
+        removeAnnosFromScene(scene, annosToIgnore);
+        scene.prune();
+        if (scene.isEmpty()) {
             // Only write non-empty scenes into files.
-            try {
-                switch (outputFormat) {
-                    case STUB:
-                        SceneToStubWriter.write(this, filepath);
-                        break;
-                    case JAIF:
-                        IndexFileWriter.write(scene, new FileWriter(filepath));
-                        break;
-                    default:
-                        throw new BugInCF("Unhandled outputFormat " + outputFormat);
+            return null;
+        }
+        switch (outputFormat) {
+            case STUB:
+                return SceneToStubWriter.toStubString(this);
+            case JAIF:
+                StringWriter stringWriter = new StringWriter();
+                try {
+                    IndexFileWriter.write(scene, stringWriter);
+                } catch (DefException e) {
+                    throw new BugInCF(e);
                 }
-            } catch (IOException e) {
-                throw new UserError("Problem while writing %s: %s", filepath, e.getMessage());
-            } catch (DefException e) {
-                throw new BugInCF(e);
-            }
+                return stringWriter.toString();
+            default:
+                throw new BugInCF("Unhandled outputFormat " + outputFormat);
         }
     }
 
@@ -1,6 +1,5 @@
 package org.checkerframework.framework.flow;
 
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -99,24 +98,27 @@ public abstract class CFAbstractStore<V extends CFAbstractValue<V>, S extends CF
 
     protected CFAbstractStore(CFAbstractAnalysis<V, S, ?> analysis, boolean sequentialSemantics) {
         this.analysis = analysis;
-        localVariableValues = new HashMap<>();
+        localVariableValues = new CopyOnWriteHashMap<>();
         thisValue = null;
-        fieldValues = new HashMap<>();
-        methodValues = new HashMap<>();
-        arrayValues = new HashMap<>();
-        classValues = new HashMap<>();
+        fieldValues = new CopyOnWriteHashMap<>();
+        methodValues = new CopyOnWriteHashMap<>();
+        arrayValues = new CopyOnWriteHashMap<>();
+        classValues = new CopyOnWriteHashMap<>();
         this.sequentialSemantics = sequentialSemantics;
     }
 
-    /** Copy constructor. */
+    /**
+     * Copy constructor. Takes constant time: the maps of the copy share their entries with the maps
+     * of {@code other} until either store is modified (see {@link CopyOnWriteHashMap}).
+     */
     protected CFAbstractStore(CFAbstractStore<V, S> other) {
         this.analysis = other.analysis;
-        localVariableValues = new HashMap<>(other.localVariableValues);
+        localVariableValues = CopyOnWriteHashMap.copyOf(other.localVariableValues);
         thisValue = other.thisValue;
-        fieldValues = new HashMap<>(other.fieldValues);
-        methodValues = new HashMap<>(other.methodValues);
-        arrayValues = new HashMap<>(other.arrayValues);
-        classValues = new HashMap<>(other.classValues);
+        fieldValues = CopyOnWriteHashMap.copyOf(other.fieldValues);
+        methodValues = CopyOnWriteHashMap.copyOf(other.methodValues);
+        arrayValues = CopyOnWriteHashMap.copyOf(other.arrayValues);
+        classValues = CopyOnWriteHashMap.copyOf(other.classValues);
         sequentialSemantics = other.sequentialSemantics;
     }
 
@@ -188,7 +190,7 @@ public abstract class CFAbstractStore<V extends CFAbstractValue<V>, S extends CF
                 || analysis.checker.hasOption("assumePure")
                 || isSideEffectFree(atypeFactory, method))) {
             // update field values
-            Map<FlowExpressions.FieldAccess, V> newFieldValues = new HashMap<>();
+            Map<FlowExpressions.FieldAccess, V> newFieldValues = new CopyOnWriteHashMap<>();
             for (Map.Entry<FlowExpressions.FieldAccess, V> e : fieldValues.entrySet()) {
                 FlowExpressions.FieldAccess fieldAccess = e.getKey();
                 V otherVal = e.getValue();
@@ -864,21 +866,13 @@ public abstract class CFAbstractStore<V extends CFAbstractValue<V>, S extends CF
     private S upperBound(S other, boolean shouldWiden) {
         S newStore = analysis.createEmptyStore(sequentialSemantics);
 
-        for (Map.Entry<FlowExpressions.LocalVariable, V> e : other.localVariableValues.entrySet()) {
-            // local variables that are only part of one store, but not the
-            // other are discarded, as one of store implicitly contains 'top'
-            // for that variable.
-            FlowExpressions.LocalVariable localVar = e.getKey();
-            V thisVal = localVariableValues.get(localVar);
-            if (thisVal != null) {
-                V otherVal = e.getValue();
-                V mergedVal = upperBoundOfValues(otherVal, thisVal, shouldWiden);
-
-                if (mergedVal != null) {
-                    newStore.localVariableValues.put(localVar, mergedVal);
-                }
-            }
-        }
+        // Local variables, fields, arrays, methods, and classes that are only part of one store,
+        // but not the other are discarded, as one store implicitly contains 'top' for them.
+        upperBoundOfMaps(
+                localVariableValues,
+                other.localVariableValues,
+                newStore.localVariableValues,
+                shouldWiden);
 
         // information about the current object
         {
@@ -890,60 +884,60 @@ public abstract class CFAbstractStore<V extends CFAbstractValue<V>, S extends CF
             }
         }
 
-        for (Map.Entry<FlowExpressions.FieldAccess, V> e : other.fieldValues.entrySet()) {
-            // information about fields that are only part of one store, but not
-            // the other are discarded, as one store implicitly contains 'top'
-            // for that field.
-            FlowExpressions.FieldAccess el = e.getKey();
-            V thisVal = fieldValues.get(el);
-            if (thisVal != null) {
-                V otherVal = e.getValue();
-                V mergedVal = upperBoundOfValues(otherVal, thisVal, shouldWiden);
-                if (mergedVal != null) {
-                    newStore.fieldValues.put(el, mergedVal);
-                }
-            }
-        }
-        for (Map.Entry<FlowExpressions.ArrayAccess, V> e : other.arrayValues.entrySet()) {
-            // information about arrays that are only part of one store, but not
-            // the other are discarded, as one store implicitly contains 'top'
-            // for that array access.
-            FlowExpressions.ArrayAccess el = e.getKey();
-            V thisVal = arrayValues.get(el);
-            if (thisVal != null) {
-                V otherVal = e.getValue();
-                V mergedVal = upperBoundOfValues(otherVal, thisVal, shouldWiden);
-                if (mergedVal != null) {
-                    newStore.arrayValues.put(el, mergedVal);
-                }
-            }
-        }
-        for (Map.Entry<MethodCall, V> e : other.methodValues.entrySet()) {
-            // information about methods that are only part of one store, but
-            // not the other are discarded, as one store implicitly contains
-            // 'top' for that field.
-            FlowExpressions.MethodCall el = e.getKey();
-            V thisVal = methodValues.get(el);
-            if (thisVal != null) {
-                V otherVal = e.getValue();
-                V mergedVal = upperBoundOfValues(otherVal, thisVal, shouldWiden);
-                if (mergedVal != null) {
-                    newStore.methodValues.put(el, mergedVal);
-                }
-            }
+        upperBoundOfMaps(fieldValues, other.fieldValues, newStore.fieldValues, shouldWiden);
+        upperBoundOfMaps(arrayValues, other.arrayValues, newStore.arrayValues, shouldWiden);
+        upperBoundOfMaps(methodValues, other.methodValues, newStore.methodValues, shouldWiden);
+        upperBoundOfMaps(classValues, other.classValues, newStore.classValues, shouldWiden);
+        return newStore;
+    }
+
+    /**
+     * Adds to {@code newMap} the upper bound of the values of every key that is in both {@code
+     * thisMap} and {@code otherMap}.
+     *
+     * <p>If the two maps share their entries, the least upper bound is {@code thisMap} itself, so
+     * {@code newMap} is made to share the same entries instead of merging them one by one.
+     *
+     * @param <K> the type of keys
+     * @param thisMap a map of this store
+     * @param otherMap the corresponding map of the other store
+     * @param newMap the corresponding map of the resulting store, which is empty
+     * @param shouldWiden true if widening should be used instead of least upper bound
+     */
+    private <K> void upperBoundOfMaps(
+            Map<K, V> thisMap, Map<K, V> otherMap, Map<K, V> newMap, boolean shouldWiden) {
+        if (!shouldWiden
+                && thisMap instanceof CopyOnWriteHashMap
+                && newMap instanceof CopyOnWriteHashMap
+                && sharesEntries(thisMap, otherMap)) {
+            ((CopyOnWriteHashMap<K, V>) newMap).shareEntriesOf((CopyOnWriteHashMap<K, V>) thisMap);
+            return;
         }
-        for (Map.Entry<FlowExpressions.ClassName, V> e : other.classValues.entrySet()) {
-            FlowExpressions.ClassName el = e.getKey();
-            V thisVal = classValues.get(el);
+        for (Map.Entry<K, V> e : otherMap.entrySet()) {
+            K key = e.getKey();
+            V thisVal = thisMap.get(key);
             if (thisVal != null) {
                 V otherVal = e.getValue();
                 V mergedVal = upperBoundOfValues(otherVal, thisVal, shouldWiden);
                 if (mergedVal != null) {
-                    newStore.classValues.put(el, mergedVal);
+                    newMap.put(key, mergedVal);
                 }
             }
         }
-        return newStore;
+    }
+
+    /**
+     * Returns true if {@code thisMap} and {@code otherMap} share their entries, which implies that
+     * they are equal. A false result says nothing about equality.
+     *
+     * @param thisMap a map
+     * @param otherMap another map
+     * @return true if the two maps share their entries
+     */
+    private static boolean sharesEntries(Map<?, ?> thisMap, Map<?, ?> otherMap) {
+        return thisMap == otherMap
+                || (thisMap instanceof CopyOnWriteHashMap
+                        && ((CopyOnWriteHashMap<?, ?>) thisMap).isSharedWith(otherMap));
     }
 
     private V upperBoundOfValues(V otherVal, V thisVal, boolean shouldWiden) {
@@ -957,37 +951,28 @@ public abstract class CFAbstractStore<V extends CFAbstractValue<V>, S extends CF
      * equals predicate.
      */
     protected boolean supersetOf(CFAbstractStore<V, S> other) {
-        for (Map.Entry<FlowExpressions.LocalVariable, V> e : other.localVariableValues.entrySet()) {
-            FlowExpressions.LocalVariable key = e.getKey();
-            V value = localVariableValues.get(key);
-            if (value == null || !value.equals(e.getValue())) {
-                return false;
-            }
-        }
-        for (Map.Entry<FlowExpressions.FieldAccess, V> e : other.fieldValues.entrySet()) {
-            FlowExpressions.FieldAccess key = e.getKey();
-            V value = fieldValues.get(key);
-            if (value == null || !value.equals(e.getValue())) {
-                return false;
-            }
-        }
-        for (Map.Entry<FlowExpressions.ArrayAccess, V> e : other.arrayValues.entrySet()) {
-            FlowExpressions.ArrayAccess key = e.getKey();
-            V value = arrayValues.get(key);
-            if (value == null || !value.equals(e.getValue())) {
-                return false;
-            }
-        }
-        for (Map.Entry<MethodCall, V> e : other.methodValues.entrySet()) {
-            FlowExpressions.MethodCall key = e.getKey();
-            V value = methodValues.get(key);
-            if (value == null || !value.equals(e.getValue())) {
-                return false;
-            }
+        return supersetOf(localVariableValues, other.localVariableValues)
+                && supersetOf(fieldValues, other.fieldValues)
+                && supersetOf(arrayValues, other.arrayValues)
+                && supersetOf(methodValues, other.methodValues)
+                && supersetOf(classValues, other.classValues);
+    }
+
+    /**
+     * Returns true iff {@code thisMap} contains a superset of the entries of {@code otherMap}.
+     * Takes constant time if the two maps share their entries.
+     *
+     * @param <K> the type of keys
+     * @param thisMap a map of this store
+     * @param otherMap the corresponding map of the other store
+     * @return true iff {@code thisMap} contains a superset of the entries of {@code otherMap}
+     */
+    private static <K, V> boolean supersetOf(Map<K, V> thisMap, Map<K, V> otherMap) {
+        if (sharesEntries(thisMap, otherMap)) {
+            return true;
         }
-        for (Map.Entry<FlowExpressions.ClassName, V> e : other.classValues.entrySet()) {
-            FlowExpressions.ClassName key = e.getKey();
-            V value = classValues.get(key);
+        for (Map.Entry<K, V> e : otherMap.entrySet()) {
+            V value = thisMap.get(e.getKey());
             if (value == null || !value.equals(e.getValue())) {
                 return false;
             }
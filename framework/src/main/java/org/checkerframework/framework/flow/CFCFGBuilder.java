@@ -8,12 +8,17 @@ import com.sun.source.tree.MethodInvocationTree;
 import com.sun.source.tree.MethodTree;
 import com.sun.source.tree.Tree;
 import com.sun.source.tree.VariableTree;
+import java.lang.annotation.Annotation;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.common.basetype.BaseTypeChecker;
 import org.checkerframework.dataflow.cfg.CFGBuilder;
 import org.checkerframework.dataflow.cfg.ControlFlowGraph;
@@ -23,6 +28,8 @@ import org.checkerframework.framework.type.AnnotatedTypeFactory;
 import org.checkerframework.framework.type.AnnotatedTypeMirror;
 import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedArrayType;
 import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedWildcardType;
+import org.checkerframework.javacutil.AnnotationProvider;
+import org.checkerframework.javacutil.Pair;
 import org.checkerframework.javacutil.TreeUtils;
 import org.checkerframework.javacutil.UserError;
 
@@ -34,7 +41,20 @@ public class CFCFGBuilder extends CFGBuilder {
     /** This class should never be instantiated. Protected to still allow subclasses. */
     protected CFCFGBuilder() {}
 
-    /** Build the control flow graph of some code. */
+    /**
+     * Build the control flow graph of some code.
+     *
+     * <p>If {@code checker} is part of a compound checker, the control flow graph may be one that
+     * another checker of the compound checker has built for the same code, which is possible if
+     * building it did not depend on the checker; see {@link SharedCFG}.
+     *
+     * @param root the compilation unit that contains the code
+     * @param underlyingAST the code
+     * @param checker the checker
+     * @param factory the type factory of {@code checker}
+     * @param env the processing environment
+     * @return the control flow graph of the code
+     */
     public static ControlFlowGraph build(
             CompilationUnitTree root,
             UnderlyingAST underlyingAST,
@@ -48,18 +68,42 @@ public class CFCFGBuilder extends CFGBuilder {
                     "Assertions cannot be assumed to be enabled and disabled at the same time.");
         }
 
+        Map<Tree, SharedCFG> sharedCFGs = checker.getSharedCFGs();
+        Tree code = underlyingAST.getCode();
+        SharedCFG shared = null;
+        if (sharedCFGs != null && sharedCFGs.containsKey(code)) {
+            shared = sharedCFGs.get(code);
+            if (shared.canBeUsedBy(
+                    checker, factory, assumeAssertionsEnabled, assumeAssertionsDisabled)) {
+                for (Map.Entry<Tree, Element> entry : shared.artificialTrees.entrySet()) {
+                    factory.setEnclosingElementForArtificialTree(entry.getKey(), entry.getValue());
+                }
+                return shared.cfg;
+            }
+        }
+
         CFTreeBuilder builder = new CFTreeBuilder(env);
-        PhaseOneResult phase1result =
+        CFCFGTranslationPhaseOne phase1 =
                 new CFCFGTranslationPhaseOne(
-                                builder,
-                                checker,
-                                factory,
-                                assumeAssertionsEnabled,
-                                assumeAssertionsDisabled,
-                                env)
-                        .process(root, underlyingAST);
+                        builder,
+                        checker,
+                        factory,
+                        assumeAssertionsEnabled,
+                        assumeAssertionsDisabled,
+                        env);
+        PhaseOneResult phase1result = phase1.process(root, underlyingAST);
         ControlFlowGraph phase2result = CFGTranslationPhaseTwo.process(phase1result);
         ControlFlowGraph phase3result = CFGTranslationPhaseThree.process(phase2result);
+
+        if (sharedCFGs != null && shared == null && phase1.isShareable()) {
+            sharedCFGs.put(
+                    code,
+                    new SharedCFG(
+                            phase3result,
+                            phase1,
+                            assumeAssertionsEnabled,
+                            assumeAssertionsDisabled));
+        }
         return phase3result;
     }
 
@@ -84,6 +128,145 @@ public class CFCFGBuilder extends CFGBuilder {
         return false;
     }
 
+    /**
+     * A control flow graph that can be shared by the checkers of a compound checker, so that the
+     * graph of each method is built only once rather than once per checker.
+     *
+     * <p>Building the graph depends on the checker in a few places, which are recorded so that
+     * another checker only reuses the graph if it would have built the same graph:
+     *
+     * <ul>
+     *   <li>the {@code -AassumeAssertionsAreEnabled} and {@code -AassumeAssertionsAreDisabled}
+     *       options, which can be given to a single checker;
+     *   <li>{@code @AssumeAssertion} strings, which are specific to a checker;
+     *   <li>declaration annotations such as {@code @TerminatesExecution}, which can come from the
+     *       stub files of a checker; and
+     *   <li>the artificial trees created for the graph, which must be registered with the type
+     *       factory of every checker that uses the graph.
+     * </ul>
+     *
+     * A graph that contains annotated types, as the artificial variables of enhanced for loops do,
+     * is never shared, because those annotations belong to the checker that built it.
+     */
+    public static final class SharedCFG {
+        /** The control flow graph. */
+        private final ControlFlowGraph cfg;
+
+        /** The artificial trees of the graph, and the elements that enclose them. */
+        private final Map<Tree, Element> artificialTrees;
+
+        /** Whether each {@code assert} statement used an {@code @AssumeAssertion} string. */
+        private final Map<AssertTree, Boolean> assumeAssertionsActivated;
+
+        /** Whether each declaration annotation that was looked up was present. */
+        private final Map<Pair<Element, Class<? extends Annotation>>, Boolean> declAnnotations;
+
+        /** Whether {@code -AassumeAssertionsAreEnabled} was supplied to the checker. */
+        private final boolean assumeAssertionsEnabled;
+
+        /** Whether {@code -AassumeAssertionsAreDisabled} was supplied to the checker. */
+        private final boolean assumeAssertionsDisabled;
+
+        /**
+         * Creates a SharedCFG.
+         *
+         * @param cfg the control flow graph
+         * @param phase1 the first phase of the construction of {@code cfg}
+         * @param assumeAssertionsEnabled whether {@code -AassumeAssertionsAreEnabled} was supplied
+         * @param assumeAssertionsDisabled whether {@code -AassumeAssertionsAreDisabled} was
+         *     supplied
+         */
+        SharedCFG(
+                ControlFlowGraph cfg,
+                CFCFGTranslationPhaseOne phase1,
+                boolean assumeAssertionsEnabled,
+                boolean assumeAssertionsDisabled) {
+            this.cfg = cfg;
+            this.artificialTrees = phase1.artificialTrees;
+            this.assumeAssertionsActivated = phase1.assumeAssertionsActivated;
+            this.declAnnotations = phase1.declAnnotations.recorded;
+            this.assumeAssertionsEnabled = assumeAssertionsEnabled;
+            this.assumeAssertionsDisabled = assumeAssertionsDisabled;
+        }
+
+        /**
+         * Returns true if {@code checker} would build the same control flow graph.
+         *
+         * @param checker a checker of the compound checker
+         * @param factory the type factory of {@code checker}
+         * @param assumeAssertionsEnabled whether {@code -AassumeAssertionsAreEnabled} was supplied
+         *     to {@code checker}
+         * @param assumeAssertionsDisabled whether {@code -AassumeAssertionsAreDisabled} was
+         *     supplied to {@code checker}
+         * @return true if {@code checker} can use this control flow graph
+         */
+        boolean canBeUsedBy(
+                BaseTypeChecker checker,
+                AnnotatedTypeFactory factory,
+                boolean assumeAssertionsEnabled,
+                boolean assumeAssertionsDisabled) {
+            if (this.assumeAssertionsEnabled != assumeAssertionsEnabled
+                    || this.assumeAssertionsDisabled != assumeAssertionsDisabled) {
+                return false;
+            }
+            for (Map.Entry<AssertTree, Boolean> entry : assumeAssertionsActivated.entrySet()) {
+                if (assumeAssertionsActivatedForAssertTree(checker, entry.getKey())
+                        != entry.getValue()) {
+                    return false;
+                }
+            }
+            for (Map.Entry<Pair<Element, Class<? extends Annotation>>, Boolean> entry :
+                    declAnnotations.entrySet()) {
+                Pair<Element, Class<? extends Annotation>> query = entry.getKey();
+                if ((factory.getDeclAnnotation(query.first, query.second) != null)
+                        != entry.getValue()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * An annotation provider that records the declaration annotations that are looked up, so that
+     * a {@link SharedCFG} can check that another checker would find the same annotations.
+     */
+    private static class RecordingAnnotationProvider implements AnnotationProvider {
+        /** The annotation provider that is delegated to. */
+        private final AnnotationProvider delegate;
+
+        /** Whether each declaration annotation that was looked up was present. */
+        private final Map<Pair<Element, Class<? extends Annotation>>, Boolean> recorded =
+                new HashMap<>();
+
+        /** Whether {@link #getAnnotationMirror} has been called. */
+        private boolean usedTreeAnnotations = false;
+
+        /**
+         * Creates a RecordingAnnotationProvider.
+         *
+         * @param delegate the annotation provider that is delegated to
+         */
+        RecordingAnnotationProvider(AnnotationProvider delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public @Nullable AnnotationMirror getDeclAnnotation(
+                Element elt, Class<? extends Annotation> anno) {
+            AnnotationMirror result = delegate.getDeclAnnotation(elt, anno);
+            recorded.put(Pair.of(elt, anno), result != null);
+            return result;
+        }
+
+        @Override
+        public @Nullable AnnotationMirror getAnnotationMirror(
+                Tree tree, Class<? extends Annotation> target) {
+            usedTreeAnnotations = true;
+            return delegate.getAnnotationMirror(tree, target);
+        }
+    }
+
     protected static class CFCFGTranslationPhaseOne extends CFGTranslationPhaseOne {
         /** The associated checker. */
         protected final BaseTypeChecker checker;
@@ -91,6 +274,21 @@ public class CFCFGBuilder extends CFGBuilder {
         /** Type factory to provide types used during CFG building. */
         protected final AnnotatedTypeFactory factory;
 
+        /** Records the declaration annotations looked up while building the graph. */
+        private final RecordingAnnotationProvider declAnnotations;
+
+        /** The artificial trees created so far, and the elements that enclose them. */
+        private final Map<Tree, Element> artificialTrees = new HashMap<>();
+
+        /** Whether each {@code assert} statement used an {@code @AssumeAssertion} string. */
+        private final Map<AssertTree, Boolean> assumeAssertionsActivated = new HashMap<>();
+
+        /**
+         * Whether the graph depends on the annotated types of {@link #factory}, in which case it
+         * cannot be shared with other checkers.
+         */
+        private boolean usedAnnotatedTypes = false;
+
         public CFCFGTranslationPhaseOne(
                 CFTreeBuilder builder,
                 BaseTypeChecker checker,
@@ -98,14 +296,32 @@ public class CFCFGBuilder extends CFGBuilder {
                 boolean assumeAssertionsEnabled,
                 boolean assumeAssertionsDisabled,
                 ProcessingEnvironment env) {
-            super(builder, factory, assumeAssertionsEnabled, assumeAssertionsDisabled, env);
+            super(
+                    builder,
+                    new RecordingAnnotationProvider(factory),
+                    assumeAssertionsEnabled,
+                    assumeAssertionsDisabled,
+                    env);
             this.checker = checker;
             this.factory = factory;
+            this.declAnnotations = (RecordingAnnotationProvider) annotationProvider;
+        }
+
+        /**
+         * Returns true if the graph built so far can be shared with other checkers, provided that
+         * they agree on the choices recorded by {@link SharedCFG}.
+         *
+         * @return true if the graph built so far does not contain annotated types
+         */
+        boolean isShareable() {
+            return !usedAnnotatedTypes && !declAnnotations.usedTreeAnnotations;
         }
 
         @Override
         protected boolean assumeAssertionsEnabledFor(AssertTree tree) {
-            if (assumeAssertionsActivatedForAssertTree(checker, tree)) {
+            boolean activated = assumeAssertionsActivatedForAssertTree(checker, tree);
+            assumeAssertionsActivated.put(tree, activated);
+            if (activated) {
                 return true;
             }
             return super.assumeAssertionsEnabledFor(tree);
@@ -114,22 +330,26 @@ public class CFCFGBuilder extends CFGBuilder {
         @Override
         public void handleArtificialTree(Tree tree) {
             // Record the method or class that encloses the newly created tree.
+            Element enclosingElement = null;
             MethodTree enclosingMethod = TreeUtils.enclosingMethod(getCurrentPath());
             if (enclosingMethod != null) {
-                Element methodElement = TreeUtils.elementFromDeclaration(enclosingMethod);
-                factory.setEnclosingElementForArtificialTree(tree, methodElement);
+                enclosingElement = TreeUtils.elementFromDeclaration(enclosingMethod);
             } else {
                 ClassTree enclosingClass = TreeUtils.enclosingClass(getCurrentPath());
                 if (enclosingClass != null) {
-                    Element classElement = TreeUtils.elementFromDeclaration(enclosingClass);
-                    factory.setEnclosingElementForArtificialTree(tree, classElement);
+                    enclosingElement = TreeUtils.elementFromDeclaration(enclosingClass);
                 }
             }
+            if (enclosingElement != null) {
+                factory.setEnclosingElementForArtificialTree(tree, enclosingElement);
+                artificialTrees.put(tree, enclosingElement);
+            }
         }
 
         @Override
         protected VariableTree createEnhancedForLoopIteratorVariable(
                 MethodInvocationTree iteratorCall, VariableElement variableElement) {
+            usedAnnotatedTypes = true;
             // We do not want to cache flow-insensitive types
             // retrieved during CFG building.
             boolean oldShouldCache = factory.shouldCache;
@@ -154,6 +374,7 @@ public class CFCFGBuilder extends CFGBuilder {
         @Override
         protected VariableTree createEnhancedForLoopArrayVariable(
                 ExpressionTree expression, VariableElement variableElement) {
+            usedAnnotatedTypes = true;
             // We do not want to cache flow-insensitive types
             // retrieved during CFG building.
             boolean oldShouldCache = factory.shouldCache;
@@ -0,0 +1,308 @@
+package org.checkerframework.framework.flow;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A hash map whose copies share their entries until one of them is modified.
+ *
+ * <p>Copying a store is the most frequent operation of a dataflow analysis: a store is copied at
+ * nearly every block boundary and whenever a conditional store is split into its then and else
+ * stores, yet most copies are only read or are modified in a single entry. {@link
+ * #CopyOnWriteHashMap(CopyOnWriteHashMap)} therefore takes constant time: the copy and the
+ * original share one backing {@link HashMap}, and whichever of them is modified first makes a
+ * private copy of it. Maps that share their backing map are equal, which lets {@link
+ * CFAbstractStore} skip comparing or merging them entry by entry.
+ *
+ * <p>All {@link Map} operations are supported, including modification through the views returned
+ * by {@link #entrySet()}, {@link #keySet()}, and {@link #values()}, so subclasses of {@link
+ * CFAbstractStore} can keep treating the maps as ordinary maps.
+ *
+ * @param <K> the type of keys
+ * @param <V> the type of values
+ */
+public final class CopyOnWriteHashMap<K, V> extends AbstractMap<K, V> {
+
+    /** A hash map together with the number of {@link CopyOnWriteHashMap}s that use it. */
+    private static final class Backing<K, V> {
+        /** The entries. */
+        final HashMap<K, V> map;
+
+        /** The number of {@link CopyOnWriteHashMap}s whose backing is this. */
+        int owners = 1;
+
+        /**
+         * Creates a backing with a single owner.
+         *
+         * @param map the entries
+         */
+        Backing(HashMap<K, V> map) {
+            this.map = map;
+        }
+    }
+
+    /** The entries of this map, possibly shared with other maps. */
+    private Backing<K, V> backing;
+
+    /** The entry set view of this map, created lazily. */
+    private @Nullable Set<Map.Entry<K, V>> entrySet;
+
+    /** Creates an empty map. */
+    public CopyOnWriteHashMap() {
+        backing = new Backing<>(new HashMap<>());
+    }
+
+    /**
+     * Creates a map with the same entries as {@code other}, in constant time.
+     *
+     * @param other the map to copy
+     */
+    public CopyOnWriteHashMap(CopyOnWriteHashMap<K, V> other) {
+        backing = other.backing;
+        backing.owners++;
+    }
+
+    /**
+     * Returns a map with the same entries as {@code map}. If {@code map} is a {@link
+     * CopyOnWriteHashMap}, the result shares its entries; otherwise, they are copied.
+     *
+     * @param <K> the type of keys
+     * @param <V> the type of values
+     * @param map the map to copy
+     * @return a copy of {@code map}
+     */
+    public static <K, V> CopyOnWriteHashMap<K, V> copyOf(Map<K, V> map) {
+        if (map instanceof CopyOnWriteHashMap) {
+            return new CopyOnWriteHashMap<>((CopyOnWriteHashMap<K, V>) map);
+        }
+        CopyOnWriteHashMap<K, V> result = new CopyOnWriteHashMap<>();
+        result.backing.map.putAll(map);
+        return result;
+    }
+
+    /**
+     * Returns true if {@code map} is a {@link CopyOnWriteHashMap} that shares its entries with this
+     * map, which implies that the two maps are equal. A false result says nothing about equality.
+     *
+     * @param map a map
+     * @return true if {@code map} shares its entries with this map
+     */
+    boolean isSharedWith(@Nullable Object map) {
+        return map instanceof CopyOnWriteHashMap
+                && ((CopyOnWriteHashMap<?, ?>) map).backing == backing;
+    }
+
+    /**
+     * Replaces the entries of this map by those of {@code other}, in constant time.
+     *
+     * @param other the map whose entries to share
+     */
+    void shareEntriesOf(CopyOnWriteHashMap<K, V> other) {
+        if (other.backing != backing) {
+            backing.owners--;
+            backing = other.backing;
+            backing.owners++;
+        }
+    }
+
+    /**
+     * Returns the backing map, first making a private copy of it if it is shared with another
+     * map. Every modification of this map goes through this method.
+     *
+     * @return the backing map, which is not shared and may be modified
+     */
+    private HashMap<K, V> writable() {
+        if (backing.owners > 1) {
+            backing.owners--;
+            backing = new Backing<>(new HashMap<>(backing.map));
+        }
+        return backing.map;
+    }
+
+    @Override
+    public int size() {
+        return backing.map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return backing.map.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(@Nullable Object key) {
+        return backing.map.containsKey(key);
+    }
+
+    @Override
+    public boolean containsValue(@Nullable Object value) {
+        return backing.map.containsValue(value);
+    }
+
+    @Override
+    public @Nullable V get(@Nullable Object key) {
+        return backing.map.get(key);
+    }
+
+    @Override
+    public @Nullable V put(K key, V value) {
+        return writable().put(key, value);
+    }
+
+    @Override
+    public @Nullable V remove(@Nullable Object key) {
+        if (!backing.map.containsKey(key)) {
+            return null;
+        }
+        return writable().remove(key);
+    }
+
+    @Override
+    public void putAll(Map<? extends K, ? extends V> m) {
+        if (!m.isEmpty()) {
+            writable().putAll(m);
+        }
+    }
+
+    @Override
+    public void clear() {
+        if (backing.map.isEmpty()) {
+            return;
+        }
+        if (backing.owners > 1) {
+            backing.owners--;
+            backing = new Backing<>(new HashMap<>());
+        } else {
+            backing.map.clear();
+        }
+    }
+
+    @Override
+    public Set<Map.Entry<K, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    @Override
+    public boolean equals(@Nullable Object o) {
+        return isSharedWith(o) || super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return backing.map.hashCode();
+    }
+
+    /** The entry set view of a {@link CopyOnWriteHashMap}. */
+    private final class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+        @Override
+        public int size() {
+            return backing.map.size();
+        }
+
+        @Override
+        public boolean contains(@Nullable Object o) {
+            return backing.map.entrySet().contains(o);
+        }
+
+        @Override
+        public void clear() {
+            CopyOnWriteHashMap.this.clear();
+        }
+
+        @Override
+        public Iterator<Map.Entry<K, V>> iterator() {
+            return new EntryIterator();
+        }
+    }
+
+    /**
+     * An iterator over the entries of a {@link CopyOnWriteHashMap}.
+     *
+     * <p>The iterator walks the backing map that was current when it was created. If the backing
+     * map is shared when an entry is removed or changed through the iterator, the modification is
+     * made to a private copy and the iteration continues over the unchanged, shared original.
+     */
+    private final class EntryIterator implements Iterator<Map.Entry<K, V>> {
+        /** The backing map being iterated over. */
+        private final HashMap<K, V> iterated = backing.map;
+
+        /** The iterator over {@link #iterated}. */
+        private final Iterator<Map.Entry<K, V>> delegate = iterated.entrySet().iterator();
+
+        /** The entry returned by the last call to {@link #next}, or null. */
+        private Map.@Nullable Entry<K, V> last;
+
+        @Override
+        public boolean hasNext() {
+            return delegate.hasNext();
+        }
+
+        @Override
+        public Map.Entry<K, V> next() {
+            Map.Entry<K, V> entry = delegate.next();
+            last = entry;
+            return new Map.Entry<K, V>() {
+                @Override
+                public K getKey() {
+                    return entry.getKey();
+                }
+
+                @Override
+                public V getValue() {
+                    return backing.map == iterated ? entry.getValue() : backing.map.get(getKey());
+                }
+
+                @Override
+                public V setValue(V value) {
+                    V old = getValue();
+                    // Replacing the value of an existing key is not a structural modification,
+                    // so it does not disturb the iteration even if it is made to {@code iterated}.
+                    writable().put(entry.getKey(), value);
+                    return old;
+                }
+
+                @Override
+                public boolean equals(@Nullable Object o) {
+                    if (!(o instanceof Map.Entry)) {
+                        return false;
+                    }
+                    Map.Entry<?, ?> other = (Map.Entry<?, ?>) o;
+                    return Objects.equals(getKey(), other.getKey())
+                            && Objects.equals(getValue(), other.getValue());
+                }
+
+                @Override
+                public int hashCode() {
+                    return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+                }
+
+                @Override
+                public String toString() {
+                    return getKey() + "=" + getValue();
+                }
+            };
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException();
+            }
+            if (backing.map == iterated && backing.owners == 1) {
+                delegate.remove();
+            } else {
+                writable().remove(last.getKey());
+            }
+            last = null;
+        }
+    }
+}
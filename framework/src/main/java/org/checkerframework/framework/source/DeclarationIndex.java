@@ -0,0 +1,236 @@
+package org.checkerframework.framework.source;
+
+import com.sun.source.tree.ClassTree;
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.MethodTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.tree.VariableTree;
+import com.sun.source.util.SourcePositions;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreePathScanner;
+import com.sun.source.util.Trees;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The class, method, and variable declarations of one compilation unit, ordered by their start
+ * positions. {@link SourceChecker#shouldSuppressWarnings(Tree, String)} uses it to find the path
+ * to a tree without scanning the whole compilation unit, which {@link Trees#getPath} does.
+ *
+ * <p>javac does not record end positions unless {@code -Xjcov} is supplied, so the extent of a
+ * declaration is approximated by the largest start position of any tree within it. The
+ * declaration found for a position is therefore only a candidate: {@link #getPath} searches for
+ * the tree within it, and within the whole compilation unit if that fails.
+ */
+class DeclarationIndex {
+
+    /** The compilation unit. */
+    private final CompilationUnitTree root;
+
+    /** The declarations of {@link #root}, sorted by start position; outer ones first on ties. */
+    private final Declaration[] declarations;
+
+    /** The start positions of {@link #declarations}, for binary search. */
+    private final long[] starts;
+
+    /**
+     * Creates the index of the declarations of {@code root}.
+     *
+     * @param root the compilation unit
+     * @param trees the Trees instance to use
+     */
+    DeclarationIndex(CompilationUnitTree root, Trees trees) {
+        this.root = root;
+        List<Declaration> list = new ArrayList<>();
+        new DeclarationScanner(trees.getSourcePositions(), list).scan(root, null);
+        // The scan is in pre-order, and the sort is stable, so an enclosing declaration precedes
+        // the declarations within it that start at the same position.
+        list.sort(Comparator.comparingLong(declaration -> declaration.start));
+        this.declarations = list.toArray(new Declaration[0]);
+        this.starts = new long[declarations.length];
+        for (int i = 0; i < declarations.length; i++) {
+            starts[i] = declarations[i].start;
+        }
+    }
+
+    /**
+     * Returns the compilation unit that this index is for.
+     *
+     * @return the compilation unit that this index is for
+     */
+    CompilationUnitTree getRoot() {
+        return root;
+    }
+
+    /**
+     * Returns the path to {@code tree}, like {@code trees.getPath(getRoot(), tree)} does.
+     *
+     * @param tree a tree
+     * @param trees the Trees instance to use
+     * @return the path to {@code tree}, or null if it is not within the compilation unit
+     */
+    @Nullable TreePath getPath(Tree tree, Trees trees) {
+        long pos = trees.getSourcePositions().getStartPosition(root, tree);
+        Declaration declaration = innermostDeclaration(pos);
+        if (declaration != null) {
+            TreePath path = TreePath.getPath(declaration.path, tree);
+            if (path != null) {
+                return path;
+            }
+        }
+        // The tree does not start within any declaration, shares its start position with a
+        // declaration within it (such as a lambda and its first parameter), or is an artificial
+        // tree that is not part of the compilation unit.
+        return trees.getPath(root, tree);
+    }
+
+    /**
+     * Returns the innermost declaration whose extent contains {@code pos}.
+     *
+     * @param pos a position in the compilation unit
+     * @return the innermost declaration whose extent contains {@code pos}, or null if there is none
+     */
+    private @Nullable Declaration innermostDeclaration(long pos) {
+        if (pos < 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(starts, pos);
+        if (index < 0) {
+            // The last declaration that starts before pos.
+            index = -index - 2;
+        } else {
+            // The last, and thus innermost, declaration that starts at pos.
+            while (index + 1 < starts.length && starts[index + 1] == pos) {
+                index++;
+            }
+        }
+        if (index < 0) {
+            return null;
+        }
+        // The extents of the declarations are nested or disjoint, so every declaration that
+        // contains pos encloses the last declaration that starts at or before pos.
+        Declaration declaration = declarations[index];
+        while (declaration != null && declaration.end < pos) {
+            declaration = declaration.enclosing;
+        }
+        return declaration;
+    }
+
+    /** A class, method, or variable declaration, or a {@code new} expression with a class body. */
+    private static class Declaration {
+
+        /** The path to the declaration. */
+        final TreePath path;
+
+        /** The start position of the declaration. */
+        final long start;
+
+        /** The largest start position of any tree within the declaration. */
+        long end;
+
+        /** The innermost declaration that encloses this one, or null. */
+        final @Nullable Declaration enclosing;
+
+        /**
+         * Creates a Declaration.
+         *
+         * @param path the path to the declaration
+         * @param start the start position of the declaration
+         * @param enclosing the innermost declaration that encloses this one, or null
+         */
+        Declaration(TreePath path, long start, @Nullable Declaration enclosing) {
+            this.path = path;
+            this.start = start;
+            this.end = start;
+            this.enclosing = enclosing;
+        }
+    }
+
+    /** Collects the declarations of a compilation unit and computes their extents. */
+    private class DeclarationScanner extends TreePathScanner<Void, Void> {
+
+        /** The source positions of the compilation unit. */
+        private final SourcePositions positions;
+
+        /** Where to add the declarations. */
+        private final List<Declaration> declarations;
+
+        /** The innermost declaration being scanned, or null. */
+        private @Nullable Declaration current = null;
+
+        /** The largest start position of the trees scanned since the current declaration began. */
+        private long maxStart = -1;
+
+        /**
+         * Creates a DeclarationScanner.
+         *
+         * @param positions the source positions of the compilation unit
+         * @param declarations where to add the declarations
+         */
+        DeclarationScanner(SourcePositions positions, List<Declaration> declarations) {
+            this.positions = positions;
+            this.declarations = declarations;
+        }
+
+        @Override
+        public Void scan(Tree tree, Void p) {
+            if (tree != null) {
+                maxStart = Math.max(maxStart, positions.getStartPosition(root, tree));
+            }
+            return super.scan(tree, p);
+        }
+
+        @Override
+        public Void visitClass(ClassTree tree, Void p) {
+            return scanDeclaration(getCurrentPath(), () -> super.visitClass(tree, p));
+        }
+
+        @Override
+        public Void visitMethod(MethodTree tree, Void p) {
+            return scanDeclaration(getCurrentPath(), () -> super.visitMethod(tree, p));
+        }
+
+        @Override
+        public Void visitVariable(VariableTree tree, Void p) {
+            return scanDeclaration(getCurrentPath(), () -> super.visitVariable(tree, p));
+        }
+
+        /**
+         * Records a declaration, and scans it.
+         *
+         * <p>An anonymous class is recorded as the {@code new} expression that contains it,
+         * because javac uses the same tree for the class name in the expression and for the
+         * superclass or interface of the anonymous class. {@link Trees#getPath} finds the former,
+         * which searching from the anonymous class would not.
+         *
+         * @param path the path to the declaration
+         * @param scanChildren scans the children of the declaration
+         * @return null
+         */
+        private Void scanDeclaration(TreePath path, Runnable scanChildren) {
+            TreePath parentPath = path.getParentPath();
+            if (parentPath.getLeaf().getKind() == Tree.Kind.NEW_CLASS) {
+                path = parentPath;
+            }
+            long start = positions.getStartPosition(root, path.getLeaf());
+            if (start < 0) {
+                // An artificial tree, such as a default constructor.
+                scanChildren.run();
+                return null;
+            }
+            Declaration enclosing = current;
+            long enclosingMaxStart = maxStart;
+            current = new Declaration(path, start, enclosing);
+            declarations.add(current);
+            maxStart = start;
+            scanChildren.run();
+            current.end = maxStart;
+            current = enclosing;
+            maxStart = Math.max(enclosingMaxStart, maxStart);
+            return null;
+        }
+    }
+}
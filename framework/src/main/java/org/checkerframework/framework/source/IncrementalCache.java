@@ -0,0 +1,859 @@
+package org.checkerframework.framework.source;
+
+import com.sun.source.tree.CompilationUnitTree;
+import com.sun.source.tree.Tree;
+import com.sun.source.util.TreePath;
+import com.sun.source.util.TreeScanner;
+import com.sun.source.util.Trees;
+import com.sun.tools.javac.code.Source;
+import com.sun.tools.javac.code.Symbol;
+import com.sun.tools.javac.code.Symbol.CompletionFailure;
+import com.sun.tools.javac.processing.JavacProcessingEnvironment;
+import com.sun.tools.javac.tree.JCTree;
+import com.sun.tools.javac.tree.JCTree.JCCompilationUnit;
+import com.sun.tools.javac.tree.TreeInfo;
+import com.sun.tools.javac.util.Context;
+import com.sun.tools.javac.util.Log;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.QualifiedNameable;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.TypeParameterElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.IntersectionType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.type.UnionType;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.Elements;
+import javax.tools.Diagnostic.Kind;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.javacutil.BugInCF;
+import org.checkerframework.javacutil.UserError;
+
+/**
+ * The diagnostics that a checker issued for each top-level class, kept on disk so that later
+ * compilations can reuse them. This class implements the {@code -AincrementalCacheDir}
+ * command-line option.
+ *
+ * <p>An entry is keyed by a fingerprint of everything the diagnostics for a class are assumed to
+ * depend on:
+ *
+ * <ul>
+ *   <li>the checker, the files its classes were loaded from, and the command-line options;
+ *   <li>the Java version and the source level;
+ *   <li>the stub files passed with {@code -Astubs};
+ *   <li>the text of the compilation unit that contains the class;
+ *   <li>the signatures, including all annotations, of every class outside the JDK that the
+ *       compilation unit refers to, directly or through the signatures of other such classes;
+ *       and
+ *   <li>the annotations of the packages of the compilation unit and of those classes, and of
+ *       their enclosing packages, such as a {@code @DefaultQualifier} in a {@code
+ *       package-info.java} file.
+ * </ul>
+ *
+ * When a file is recompiled but none of these has changed, for example because only a method body
+ * of a class it calls has changed, {@link SourceChecker#replayCachedDiagnostics} issues the cached
+ * diagnostics instead of checking the class again.
+ *
+ * <p>The fingerprint does not include the JDK, which is assumed to be determined by the Java
+ * version, or the bodies of methods in other classes. The cache is therefore unsound for a checker
+ * whose results for a class depend on the bodies of other classes; {@code -Ainfer} disables it.
+ *
+ * <p>A class is cached only if every error and warning issued while checking it was recorded by
+ * {@link #record} and is attached to a tree of its compilation unit, so that replaying the entry
+ * prints exactly the same diagnostics at exactly the same positions. Entries whose fingerprint no
+ * longer occurs are never removed; the directory may be deleted at any time.
+ */
+final class IncrementalCache {
+
+    /** The first int of every cache file; changing the file format requires changing it. */
+    private static final int MAGIC = 0x43466943;
+
+    /**
+     * Prefixes of the qualified names of classes whose signatures are not fingerprinted because
+     * they are part of the JDK.
+     */
+    private static final String[] PLATFORM_PREFIXES = {
+        "java.", "javax.", "jdk.", "sun.", "com.sun."
+    };
+
+    /** The directory that holds one file per cached class, named by the fingerprint. */
+    private final Path directory;
+
+    /** The processing environment of the checker. */
+    private final ProcessingEnvironment processingEnv;
+
+    /** The compiler's log, whose error and warning counts validate a recording. */
+    private final Log log;
+
+    /** The digest of the checker, its options, and the platform, common to all entries. */
+    private final byte[] configurationDigest;
+
+    /** The compilation unit whose fingerprint is {@link #rootDigest}, or null. */
+    private @Nullable CompilationUnitTree digestedRoot;
+
+    /** The digest of the text and the dependencies of {@link #digestedRoot}. */
+    private byte @Nullable [] rootDigest;
+
+    /** The compilation unit whose trees are indexed in {@link #treesByPosition}, or null. */
+    private @Nullable CompilationUnitTree indexedRoot;
+
+    /** Maps the {@link #positionKey} of each tree of {@link #indexedRoot} to the tree. */
+    private final Map<String, Tree> treesByPosition = new HashMap<>();
+
+    /**
+     * The signature of each class and package outside the JDK whose signature was computed in this
+     * compilation, so that each one is computed, and its symbols completed, at most once.
+     */
+    private final Map<Element, Signature> signatures = new HashMap<>();
+
+    /** The class being recorded, or null if no class is being recorded. */
+    private @Nullable Recording recording;
+
+    /**
+     * Creates a cache that stores its entries in {@code directory}, creating the directory if
+     * necessary.
+     *
+     * @param checker the top-level checker
+     * @param directory the argument of {@code -AincrementalCacheDir}
+     */
+    IncrementalCache(SourceChecker checker, String directory) {
+        this.directory = Paths.get(directory);
+        try {
+            Files.createDirectories(this.directory);
+        } catch (IOException e) {
+            throw new UserError(
+                    "Cannot create the directory %s given by -AincrementalCacheDir: %s",
+                    directory, e.getMessage());
+        }
+        this.processingEnv = checker.getProcessingEnvironment();
+        Context context = ((JavacProcessingEnvironment) processingEnv).getContext();
+        this.log = Log.instance(context);
+
+        MessageDigest md = newDigest();
+        update(md, String.valueOf(MAGIC));
+        update(md, checker.getClass().getName());
+        update(md, codeVersion(checker.getClass()));
+        update(md, codeVersion(SourceChecker.class));
+        update(md, System.getProperty("java.version"));
+        update(md, Source.instance(context).name);
+        update(md, new TreeMap<>(processingEnv.getOptions()).toString());
+        String stubs = checker.getOption("stubs");
+        if (stubs != null) {
+            for (String stub : stubs.split(File.pathSeparator)) {
+                update(md, fileVersions(Paths.get(stub)));
+            }
+        }
+        this.configurationDigest = md.digest();
+    }
+
+    /**
+     * If the diagnostics for the class at {@code path} are cached, issues them and returns true.
+     * Otherwise, returns false and starts recording the diagnostics of the class, which {@link
+     * #store} saves once the class has been checked.
+     *
+     * @param element the top-level class
+     * @param path the path to the declaration of the class
+     * @return true if the cached diagnostics were issued; false if the class must be checked
+     */
+    boolean replayOrRecord(TypeElement element, TreePath path) {
+        CompilationUnitTree root = path.getCompilationUnit();
+        String key = key(element, root);
+        List<CachedDiagnostic> cached = read(directory.resolve(key));
+        if (cached != null) {
+            List<Tree> sources = new ArrayList<>(cached.size());
+            for (CachedDiagnostic diagnostic : cached) {
+                Tree source = treeAt(root, diagnostic.position);
+                if (source == null) {
+                    break;
+                }
+                sources.add(source);
+            }
+            if (sources.size() == cached.size()) {
+                Trees trees = Trees.instance(processingEnv);
+                for (int i = 0; i < cached.size(); i++) {
+                    CachedDiagnostic diagnostic = cached.get(i);
+                    trees.printMessage(diagnostic.kind, diagnostic.message, sources.get(i), root);
+                }
+                return true;
+            }
+        }
+        recording = new Recording(key, root, log.nerrors, log.nwarnings);
+        return false;
+    }
+
+    /**
+     * Records a diagnostic issued while a class is recorded; does nothing otherwise.
+     *
+     * @param kind the kind of the diagnostic
+     * @param message the text of the diagnostic
+     * @param source the tree at which the diagnostic is issued
+     */
+    void record(Kind kind, String message, Tree source) {
+        if (recording != null) {
+            recording.diagnostics.add(
+                    new CachedDiagnostic(kind, message, positionKey((JCTree) source)));
+        }
+    }
+
+    /**
+     * Stops recording and, if every diagnostic issued since {@link #replayOrRecord} was recorded
+     * and can be replayed, writes the recorded diagnostics to the cache.
+     */
+    void store() {
+        Recording current = recording;
+        if (current == null) {
+            return;
+        }
+        recording = null;
+        int errors = 0;
+        int warnings = 0;
+        for (CachedDiagnostic diagnostic : current.diagnostics) {
+            if (diagnostic.kind == Kind.ERROR) {
+                errors++;
+            } else if (diagnostic.kind == Kind.WARNING
+                    || diagnostic.kind == Kind.MANDATORY_WARNING) {
+                warnings++;
+            }
+            if (treeAt(current.root, diagnostic.position) == null) {
+                return;
+            }
+        }
+        if (log.nerrors - current.errorsBefore != errors
+                || log.nwarnings - current.warningsBefore != warnings) {
+            // Some diagnostic, such as a crash report, was issued without being recorded.
+            return;
+        }
+        write(directory.resolve(current.key), current.diagnostics);
+    }
+
+    /**
+     * Returns the fingerprint of a top-level class, as a hexadecimal string.
+     *
+     * @param element the top-level class
+     * @param root the compilation unit that contains {@code element}
+     * @return the fingerprint of the class
+     */
+    private String key(TypeElement element, CompilationUnitTree root) {
+        if (root != digestedRoot) {
+            rootDigest = digestRoot(root);
+            digestedRoot = root;
+        }
+        MessageDigest md = newDigest();
+        md.update(configurationDigest);
+        md.update(rootDigest);
+        update(md, element.getQualifiedName().toString());
+        StringBuilder key = new StringBuilder();
+        for (byte b : md.digest()) {
+            key.append(String.format("%02x", b));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Returns the digest of the text of a compilation unit and of the signatures of the classes it
+     * depends on.
+     *
+     * @param root a compilation unit
+     * @return the digest of {@code root} and its dependencies
+     */
+    private byte[] digestRoot(CompilationUnitTree root) {
+        MessageDigest md = newDigest();
+        try {
+            update(md, root.getSourceFile().getCharContent(true).toString());
+        } catch (IOException e) {
+            throw new BugInCF("cannot read " + root.getSourceFile().getName(), e);
+        }
+
+        DependencyCollector collector =
+                new DependencyCollector(processingEnv.getElementUtils());
+        PackageElement rootPackage = ((JCCompilationUnit) root).packge;
+        if (rootPackage != null) {
+            collector.addPackage(rootPackage);
+        }
+        collector.scan(root, null);
+        Deque<Element> worklist = collector.worklist;
+        Set<Element> seen = new HashSet<>(worklist);
+        // Sort the dependencies so that the digest does not depend on the order of discovery.
+        Map<String, String> dependencySignatures = new TreeMap<>();
+        while (!worklist.isEmpty()) {
+            Element dependency = worklist.remove();
+            Signature signature = signature(dependency);
+            dependencySignatures.put(
+                    dependency.getKind() + " " + ((QualifiedNameable) dependency).getQualifiedName(),
+                    signature.text);
+            for (Element next : signature.dependencies) {
+                if (seen.add(next)) {
+                    worklist.add(next);
+                }
+            }
+        }
+        update(md, dependencySignatures.toString());
+        return md.digest();
+    }
+
+    /**
+     * Returns the signature of a class or package outside the JDK, computing it if it was not
+     * computed earlier in this compilation.
+     *
+     * @param element a class or package
+     * @return the signature of {@code element}
+     */
+    private Signature signature(Element element) {
+        Signature signature = signatures.get(element);
+        if (signature == null) {
+            DependencyCollector collector =
+                    new DependencyCollector(processingEnv.getElementUtils());
+            StringBuilder text = new StringBuilder();
+            try {
+                collector.appendSignature(element, text);
+            } catch (CompletionFailure e) {
+                text.append("incomplete: ").append(e.getMessage());
+            }
+            signature = new Signature(text.toString(), new ArrayList<>(collector.worklist));
+            signatures.put(element, signature);
+        }
+        return signature;
+    }
+
+    /**
+     * Collects the outermost classes outside the JDK that a compilation unit or a signature refers
+     * to, and their packages, and computes signatures.
+     */
+    private static class DependencyCollector extends TreeScanner<Void, Void> {
+        /** The classes and packages that were found, in the order they were found. */
+        final Deque<Element> worklist = new ArrayDeque<>();
+
+        /** The classes and packages that were added to {@link #worklist}. */
+        private final Set<Element> seen = new HashSet<>();
+
+        /** The element utilities, used to look up enclosing packages. */
+        private final Elements elements;
+
+        /** The type variables whose bounds were visited, to terminate on recursive bounds. */
+        private final Set<Element> visitedTypeVariables = new HashSet<>();
+
+        /**
+         * Creates a DependencyCollector.
+         *
+         * @param elements the element utilities
+         */
+        DependencyCollector(Elements elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public Void scan(Tree tree, Void p) {
+            if (tree != null) {
+                JCTree jcTree = (JCTree) tree;
+                Symbol symbol = TreeInfo.symbolFor(jcTree);
+                if (symbol != null) {
+                    addElement(symbol);
+                    addType(symbol.asType());
+                }
+                if (jcTree.type != null) {
+                    addType(jcTree.type);
+                }
+            }
+            return super.scan(tree, p);
+        }
+
+        /**
+         * Appends the signature of {@code element} and of its members to {@code signature}, and
+         * adds the classes that the signature refers to. The signature of a package consists of
+         * its annotations only.
+         *
+         * @param element an element
+         * @param signature where to append the signature
+         */
+        void appendSignature(Element element, StringBuilder signature) {
+            signature
+                    .append(element.getKind())
+                    .append(' ')
+                    .append(element.getModifiers())
+                    .append(' ')
+                    .append(element.getSimpleName())
+                    .append(' ')
+                    .append(element.asType())
+                    .append(' ')
+                    .append(element.getAnnotationMirrors())
+                    .append('\n');
+            addType(element.asType());
+            addAnnotations(element.getAnnotationMirrors());
+
+            if (element instanceof TypeElement) {
+                TypeElement typeElement = (TypeElement) element;
+                signature.append("extends ").append(typeElement.getSuperclass()).append('\n');
+                addType(typeElement.getSuperclass());
+                for (TypeMirror iface : typeElement.getInterfaces()) {
+                    signature.append("implements ").append(iface).append('\n');
+                    addType(iface);
+                }
+                appendTypeParameters(typeElement.getTypeParameters(), signature);
+                for (Element member : typeElement.getEnclosedElements()) {
+                    appendSignature(member, signature);
+                }
+            } else if (element instanceof ExecutableElement) {
+                ExecutableElement method = (ExecutableElement) element;
+                appendTypeParameters(method.getTypeParameters(), signature);
+                for (TypeMirror thrown : method.getThrownTypes()) {
+                    signature.append("throws ").append(thrown).append('\n');
+                    addType(thrown);
+                }
+                for (VariableElement parameter : method.getParameters()) {
+                    appendSignature(parameter, signature);
+                }
+                AnnotationValue defaultValue = method.getDefaultValue();
+                if (defaultValue != null) {
+                    signature.append("default ").append(defaultValue).append('\n');
+                }
+            } else if (element instanceof VariableElement) {
+                Object constant = ((VariableElement) element).getConstantValue();
+                if (constant != null) {
+                    signature.append("= ").append(constant).append('\n');
+                }
+            }
+        }
+
+        /**
+         * Appends the bounds of type parameters to {@code signature}, because the string
+         * representation of a generic type does not include them.
+         *
+         * @param typeParameters the type parameters of a class or method
+         * @param signature where to append the bounds
+         */
+        private void appendTypeParameters(
+                List<? extends TypeParameterElement> typeParameters, StringBuilder signature) {
+            for (TypeParameterElement typeParameter : typeParameters) {
+                signature
+                        .append("typeparameter ")
+                        .append(typeParameter.getAnnotationMirrors())
+                        .append(typeParameter.getSimpleName())
+                        .append(" extends ")
+                        .append(typeParameter.getBounds())
+                        .append('\n');
+                addAnnotations(typeParameter.getAnnotationMirrors());
+                for (TypeMirror bound : typeParameter.getBounds()) {
+                    addType(bound);
+                }
+            }
+        }
+
+        /**
+         * Adds the outermost class of {@code element} and its package, unless it is part of the
+         * JDK.
+         *
+         * @param element an element
+         */
+        private void addElement(Element element) {
+            Element outermost = element;
+            while (outermost.getEnclosingElement() != null
+                    && !(outermost.getEnclosingElement() instanceof PackageElement)) {
+                outermost = outermost.getEnclosingElement();
+            }
+            if (!(outermost instanceof TypeElement)) {
+                return;
+            }
+            TypeElement outermostClass = (TypeElement) outermost;
+            String name = outermostClass.getQualifiedName().toString();
+            for (String prefix : PLATFORM_PREFIXES) {
+                if (name.startsWith(prefix)) {
+                    return;
+                }
+            }
+            if (seen.add(outermostClass)) {
+                worklist.add(outermostClass);
+                addPackage(elements.getPackageOf(outermostClass));
+            }
+        }
+
+        /**
+         * Adds {@code packageElement} and the packages that enclose it, whose annotations, such as
+         * {@code @DefaultQualifier(applyToSubpackages = true)}, may apply to it.
+         *
+         * @param packageElement a package
+         */
+        void addPackage(PackageElement packageElement) {
+            if (packageElement.isUnnamed() || !seen.add(packageElement)) {
+                return;
+            }
+            worklist.add(packageElement);
+            String name = packageElement.getQualifiedName().toString();
+            int lastDot = name.lastIndexOf('.');
+            if (lastDot != -1) {
+                PackageElement enclosing = elements.getPackageElement(name.substring(0, lastDot));
+                if (enclosing != null) {
+                    addPackage(enclosing);
+                }
+            }
+        }
+
+        /**
+         * Adds the classes of the given annotations.
+         *
+         * @param annotations annotations
+         */
+        private void addAnnotations(List<? extends AnnotationMirror> annotations) {
+            for (AnnotationMirror annotation : annotations) {
+                addElement(annotation.getAnnotationType().asElement());
+            }
+        }
+
+        /**
+         * Adds the classes that {@code type} refers to, including those of its annotations.
+         *
+         * @param type a type, or null
+         */
+        private void addType(@Nullable TypeMirror type) {
+            if (type == null) {
+                return;
+            }
+            addAnnotations(type.getAnnotationMirrors());
+            switch (type.getKind()) {
+                case DECLARED:
+                    DeclaredType declared = (DeclaredType) type;
+                    addElement(declared.asElement());
+                    addType(declared.getEnclosingType());
+                    for (TypeMirror typeArgument : declared.getTypeArguments()) {
+                        addType(typeArgument);
+                    }
+                    break;
+                case ARRAY:
+                    addType(((ArrayType) type).getComponentType());
+                    break;
+                case TYPEVAR:
+                    TypeVariable typeVariable = (TypeVariable) type;
+                    if (visitedTypeVariables.add(typeVariable.asElement())) {
+                        addType(typeVariable.getUpperBound());
+                        addType(typeVariable.getLowerBound());
+                    }
+                    break;
+                case WILDCARD:
+                    addType(((WildcardType) type).getExtendsBound());
+                    addType(((WildcardType) type).getSuperBound());
+                    break;
+                case INTERSECTION:
+                    for (TypeMirror bound : ((IntersectionType) type).getBounds()) {
+                        addType(bound);
+                    }
+                    break;
+                case UNION:
+                    for (TypeMirror alternative : ((UnionType) type).getAlternatives()) {
+                        addType(alternative);
+                    }
+                    break;
+                case EXECUTABLE:
+                    ExecutableType executable = (ExecutableType) type;
+                    addType(executable.getReturnType());
+                    for (TypeMirror parameter : executable.getParameterTypes()) {
+                        addType(parameter);
+                    }
+                    for (TypeMirror thrown : executable.getThrownTypes()) {
+                        addType(thrown);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Returns the tree of {@code root} at the given position.
+     *
+     * @param root a compilation unit
+     * @param position the {@link #positionKey} of a tree
+     * @return the tree of {@code root} whose {@link #positionKey} is {@code position}, or null
+     */
+    private @Nullable Tree treeAt(CompilationUnitTree root, String position) {
+        if (root != indexedRoot) {
+            treesByPosition.clear();
+            new TreeScanner<Void, Void>() {
+                @Override
+                public Void scan(Tree tree, Void p) {
+                    if (tree != null) {
+                        treesByPosition.putIfAbsent(positionKey((JCTree) tree), tree);
+                    }
+                    return super.scan(tree, p);
+                }
+            }.scan(root, null);
+            indexedRoot = root;
+        }
+        return treesByPosition.get(position);
+    }
+
+    /**
+     * Returns a string that identifies a tree within its compilation unit. Two trees with the same
+     * key are reported at the same position.
+     *
+     * @param tree a tree
+     * @return the kind, start position, and preferred position of {@code tree}
+     */
+    private static String positionKey(JCTree tree) {
+        return tree.getKind() + ":" + tree.getStartPosition() + ":" + tree.getPreferredPosition();
+    }
+
+    /**
+     * Reads a cache file.
+     *
+     * @param file a cache file
+     * @return the diagnostics in {@code file}, or null if it does not exist or cannot be read
+     */
+    private static @Nullable List<CachedDiagnostic> read(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (DataInputStream in =
+                new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                return null;
+            }
+            int count = in.readInt();
+            List<CachedDiagnostic> diagnostics = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Kind kind = Kind.valueOf(in.readUTF());
+                String position = in.readUTF();
+                byte[] message = new byte[in.readInt()];
+                in.readFully(message);
+                diagnostics.add(
+                        new CachedDiagnostic(
+                                kind, new String(message, StandardCharsets.UTF_8), position));
+            }
+            return diagnostics;
+        } catch (IOException | IllegalArgumentException e) {
+            // A truncated or otherwise corrupt entry is treated as a miss and overwritten.
+            return null;
+        }
+    }
+
+    /**
+     * Writes a cache file. The file is written under a temporary name and then renamed, so that
+     * concurrent compilations never read a partially written file.
+     *
+     * @param file the cache file
+     * @param diagnostics the diagnostics to write
+     */
+    private static void write(Path file, List<CachedDiagnostic> diagnostics) {
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out =
+                    new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(diagnostics.size());
+                for (CachedDiagnostic diagnostic : diagnostics) {
+                    out.writeUTF(diagnostic.kind.name());
+                    out.writeUTF(diagnostic.position);
+                    byte[] message = diagnostic.message.getBytes(StandardCharsets.UTF_8);
+                    out.writeInt(message.length);
+                    out.write(message);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            temp = null;
+        } catch (IOException e) {
+            // Failing to cache a class only means that it is checked again next time.
+        } finally {
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e) {
+                    // Ignore; the temporary file is never read.
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a string that changes when the file that {@code clazz} was loaded from changes.
+     *
+     * @param clazz a class
+     * @return the location, length, and modification time of the jar file or class file of {@code
+     *     clazz}
+     */
+    private static String codeVersion(Class<?> clazz) {
+        String name = clazz.getName();
+        URL url = clazz.getResource(name.substring(name.lastIndexOf('.') + 1) + ".class");
+        if (url == null) {
+            return name;
+        }
+        try {
+            URLConnection connection = url.openConnection();
+            if (connection instanceof JarURLConnection) {
+                url = ((JarURLConnection) connection).getJarFileURL();
+            }
+            if ("file".equals(url.getProtocol())) {
+                return fileVersions(Paths.get(url.toURI()));
+            }
+        } catch (IOException | URISyntaxException e) {
+            // Fall through and use only the location.
+        }
+        return url.toString();
+    }
+
+    /**
+     * Returns the names, lengths, and modification times of {@code path} and, if it is a
+     * directory, of all files in it.
+     *
+     * @param path a file or directory
+     * @return a string that changes when a file in {@code path} changes
+     */
+    private static String fileVersions(Path path) {
+        StringBuilder result = new StringBuilder();
+        try (Stream<Path> files = Files.walk(path)) {
+            files.filter(Files::isRegularFile)
+                    .sorted()
+                    .forEach(
+                            file -> {
+                                File f = file.toFile();
+                                result.append(f)
+                                        .append(' ')
+                                        .append(f.length())
+                                        .append(' ')
+                                        .append(f.lastModified())
+                                        .append('\n');
+                            });
+        } catch (IOException e) {
+            result.append(path).append(" unreadable");
+        }
+        return result.toString();
+    }
+
+    /**
+     * Returns a new SHA-256 message digest.
+     *
+     * @return a new SHA-256 message digest
+     */
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256.
+            throw new BugInCF("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * Adds a string, followed by a separator, to a message digest.
+     *
+     * @param md a message digest
+     * @param s the string to add
+     */
+    private static void update(MessageDigest md, String s) {
+        md.update(s.getBytes(StandardCharsets.UTF_8));
+        md.update((byte) 0);
+    }
+
+    /** The signature of a class or package, and the classes and packages it refers to. */
+    private static class Signature {
+        /** The signature, as computed by {@link DependencyCollector#appendSignature}. */
+        final String text;
+
+        /** The classes and packages outside the JDK that the signature refers to. */
+        final List<Element> dependencies;
+
+        /**
+         * Creates a signature.
+         *
+         * @param text the signature
+         * @param dependencies the classes and packages outside the JDK that the signature refers to
+         */
+        Signature(String text, List<Element> dependencies) {
+            this.text = text;
+            this.dependencies = dependencies;
+        }
+    }
+
+    /** The diagnostics recorded while a class is checked. */
+    private static class Recording {
+        /** The fingerprint of the class. */
+        final String key;
+
+        /** The compilation unit that contains the class. */
+        final CompilationUnitTree root;
+
+        /** The number of errors issued before the class was checked. */
+        final int errorsBefore;
+
+        /** The number of warnings issued before the class was checked. */
+        final int warningsBefore;
+
+        /** The diagnostics issued so far, in the order they were issued. */
+        final List<CachedDiagnostic> diagnostics = new ArrayList<>();
+
+        /**
+         * Creates a recording.
+         *
+         * @param key the fingerprint of the class
+         * @param root the compilation unit that contains the class
+         * @param errorsBefore the number of errors issued before the class was checked
+         * @param warningsBefore the number of warnings issued before the class was checked
+         */
+        Recording(String key, CompilationUnitTree root, int errorsBefore, int warningsBefore) {
+            this.key = key;
+            this.root = root;
+            this.errorsBefore = errorsBefore;
+            this.warningsBefore = warningsBefore;
+        }
+    }
+
+    /** A diagnostic in the cache. */
+    private static class CachedDiagnostic {
+        /** The kind of the diagnostic. */
+        final Kind kind;
+
+        /** The text of the diagnostic. */
+        final String message;
+
+        /** The {@link #positionKey} of the tree at which the diagnostic is issued. */
+        final String position;
+
+        /**
+         * Creates a cached diagnostic.
+         *
+         * @param kind the kind of the diagnostic
+         * @param message the text of the diagnostic
+         * @param position the {@link #positionKey} of the tree at which the diagnostic is issued
+         */
+        CachedDiagnostic(Kind kind, String message, String position) {
+            this.kind = kind;
+            this.message = message;
+            this.position = position;
+        }
+    }
+}
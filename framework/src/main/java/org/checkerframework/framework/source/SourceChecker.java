@@ -61,6 +61,7 @@ import org.checkerframework.framework.type.AnnotatedTypeFactory;
 import org.checkerframework.framework.util.CFContext;
 import org.checkerframework.framework.util.CheckerMain;
 import org.checkerframework.framework.util.OptionConfiguration;
+import org.checkerframework.framework.util.PerfStats;
 import org.checkerframework.javacutil.AbstractTypeProcessor;
 import org.checkerframework.javacutil.AnnotationProvider;
 import org.checkerframework.javacutil.AnnotationUtils;
@@ -192,6 +193,10 @@ import org.plumelib.util.UtilPlume;
     // "-Ainfer=stubs" or "-Ainfer=jaifs".
     "infer",
 
+    // Whether whole-program inference writes its stub files on a background thread.
+    // org.checkerframework.common.wholeprograminference.WholeProgramInferenceScenesStorage
+    "inferWriteInBackground",
+
     // With each warning, in addition to the concrete error key,
     // output the SuppressWarnings strings that can be used to
     // suppress that warning.
@@ -347,18 +352,30 @@ import org.plumelib.util.UtilPlume;
 
     /// Caches
 
-    // Set the cache size for caches in AnnotatedTypeFactory
+    // Set the cache size for caches in AnnotatedTypeFactory and DefaultTypeHierarchy
     "atfCacheSize",
 
-    // Sets AnnotatedTypeFactory shouldCache to false
+    // Sets AnnotatedTypeFactory shouldCache to false, and disables the DefaultTypeHierarchy cache
     "atfDoNotCache",
 
+    // Directory in which to cache the diagnostics for each class across compilations, so that an
+    // unchanged class whose dependencies' signatures are unchanged is not checked again.
+    // org.checkerframework.framework.source.IncrementalCache
+    // -AincrementalCacheDir=build/checkerframework-cache
+    "incrementalCacheDir",
+
     /// Miscellaneous debugging options
 
     // Whether to output resource statistics at JVM shutdown
     // org.checkerframework.framework.source.SourceChecker.shutdownHook()
     "resourceStats",
 
+    // Write wall times, invocation counts, and cache hit rates as JSON to the given file, or to
+    // standard output if no file is given
+    // org.checkerframework.framework.util.PerfStats
+    // -AperfStats=perf-stats.json
+    "perfStats",
+
     // Parse all JDK files at startup rather than as needed.
     "parseAllJdk"
 })
@@ -559,6 +576,24 @@ public abstract class SourceChecker extends AbstractTypeProcessor
     protected void setRoot(CompilationUnitTree newRoot) {
         this.currentRoot = newRoot;
         visitor.setRoot(currentRoot);
+        suppressWarningsStringsCache.clear();
+        annotatedForCache.clear();
+    }
+
+    /**
+     * Returns the statistics collected for {@code -AperfStats}, which are shared by a checker and
+     * all its subcheckers.
+     *
+     * @return the statistics, or null if {@code -AperfStats} was not supplied
+     */
+    public @Nullable PerfStats getPerfStats() {
+        if (parentChecker != null) {
+            return parentChecker.getPerfStats();
+        }
+        if (perfStats == null && hasOption("perfStats")) {
+            perfStats = new PerfStats();
+        }
+        return perfStats;
     }
 
     /**
@@ -808,6 +843,10 @@ public abstract class SourceChecker extends AbstractTypeProcessor
         if (this.activeLints == null) {
             this.activeLints = createActiveLints(getOptions());
         }
+
+        if (parentChecker == null && hasOption("incrementalCacheDir") && !hasOption("infer")) {
+            this.incrementalCache = new IncrementalCache(this, getOption("incrementalCacheDir"));
+        }
     }
 
     /** Output the warning about source level at most once. */
@@ -821,6 +860,38 @@ public abstract class SourceChecker extends AbstractTypeProcessor
      */
     protected int errsOnLastExit = 0;
 
+    /**
+     * The diagnostics cached by previous compilations, or null if {@code -AincrementalCacheDir} was
+     * not supplied or this checker is a subchecker.
+     */
+    private @Nullable IncrementalCache incrementalCache;
+
+    /**
+     * The statistics collected for {@code -AperfStats}, or null if they are not collected or not
+     * yet created. Subcheckers use the statistics of their parent.
+     */
+    private @Nullable PerfStats perfStats;
+
+    /**
+     * The declarations of the compilation unit in which a warning was last considered for
+     * suppression, or null. Only set in the top-level checker. Do not use directly; call {@link
+     * #getDeclarationIndex}.
+     */
+    private @Nullable DeclarationIndex declarationIndex;
+
+    /**
+     * The lowercased values of the {@code @SuppressWarnings} annotations of the elements considered
+     * by {@link #shouldSuppressWarnings(Element, String)}, or null for an element without one.
+     * Cleared when the compilation unit changes.
+     */
+    private final Map<Element, String @Nullable []> suppressWarningsStringsCache = new HashMap<>();
+
+    /**
+     * Caches the results of {@link #isAnnotatedForThisCheckerOrUpstreamChecker}. Cleared when the
+     * compilation unit changes.
+     */
+    private final Map<Element, Boolean> annotatedForCache = new HashMap<>();
+
     /**
      * Type-check the code using this checker's visitor.
      *
@@ -906,6 +977,54 @@ public abstract class SourceChecker extends AbstractTypeProcessor
         }
     }
 
+    /**
+     * If {@code -AincrementalCacheDir} was supplied and a previous compilation cached the
+     * diagnostics for the class at {@code p}, issues them and returns true; the caller must then
+     * not check the class. Otherwise, returns false and starts recording the diagnostics issued
+     * for the class, which {@link #cacheDiagnostics} stores.
+     *
+     * <p>{@link BaseTypeChecker#typeProcess} calls this before any of its subcheckers and {@link
+     * #cacheDiagnostics} after all of them.
+     *
+     * @param e the top-level class
+     * @param p the path to the declaration of the class
+     * @return true if the class need not be checked, because its cached diagnostics were issued
+     */
+    protected boolean replayCachedDiagnostics(TypeElement e, TreePath p) {
+        if (incrementalCache == null || e == null || p == null || visitor == null) {
+            return false;
+        }
+        Log log = Log.instance(((JavacProcessingEnvironment) processingEnv).getContext());
+        if (log.nerrors > this.errsOnLastExit
+                || p.getCompilationUnit() == previousErrorCompilationUnit) {
+            // typeProcess will skip the class because of Java errors.
+            return false;
+        }
+        try {
+            if (incrementalCache.replayOrRecord(e, p)) {
+                this.errsOnLastExit = log.nerrors;
+                return true;
+            }
+        } catch (UserError ce) {
+            logUserError(ce);
+        } catch (BugInCF ce) {
+            logBugInCF(ce);
+        } catch (Throwable t) {
+            logBugInCF(wrapThrowableAsBugInCF("SourceChecker.replayCachedDiagnostics", t, p));
+        }
+        return false;
+    }
+
+    /**
+     * Stores the diagnostics recorded since the last call to {@link #replayCachedDiagnostics}, if
+     * any, so that later compilations can replay them.
+     */
+    protected void cacheDiagnostics() {
+        if (incrementalCache != null) {
+            incrementalCache.store();
+        }
+    }
+
     ///////////////////////////////////////////////////////////////////////////
     /// Reporting type-checking errors; most clients use reportError() or reportWarning()
     ///
@@ -1067,6 +1186,9 @@ public abstract class SourceChecker extends AbstractTypeProcessor
             String message,
             Tree source,
             CompilationUnitTree root) {
+        if (incrementalCache != null) {
+            incrementalCache.record(kind, message, source);
+        }
         Trees.instance(processingEnv).printMessage(kind, message, source, root);
     }
 
@@ -1883,8 +2005,9 @@ public abstract class SourceChecker extends AbstractTypeProcessor
                     "Checker must provide a SuppressWarnings prefix. SourceChecker#getSuppressWarningsPrefixes was not overridden correctly.");
         }
 
-        // trees.getPath might be slow, but this is only used in error reporting
-        @Nullable TreePath path = trees.getPath(this.currentRoot, tree);
+        // trees.getPath scans the whole compilation unit, which is slow when many warnings are
+        // suppressed, so find the path from the innermost declaration that contains the tree.
+        @Nullable TreePath path = getDeclarationIndex(this.currentRoot).getPath(tree, trees);
 
         @Nullable VariableTree var = TreeUtils.enclosingVariable(path);
         if (var != null && shouldSuppressWarnings(TreeUtils.elementFromTree(var), errKey)) {
@@ -1932,6 +2055,25 @@ public abstract class SourceChecker extends AbstractTypeProcessor
         return false;
     }
 
+    /**
+     * Returns the index of the declarations of {@code root}, which is shared by a checker and all
+     * its subcheckers.
+     *
+     * @param root a compilation unit
+     * @return the index of the declarations of {@code root}
+     */
+    private DeclarationIndex getDeclarationIndex(CompilationUnitTree root) {
+        SourceChecker rootChecker = this;
+        while (rootChecker.parentChecker != null) {
+            rootChecker = rootChecker.parentChecker;
+        }
+        if (rootChecker.declarationIndex == null
+                || rootChecker.declarationIndex.getRoot() != root) {
+            rootChecker.declarationIndex = new DeclarationIndex(root, trees);
+        }
+        return rootChecker.declarationIndex;
+    }
+
     /**
      * Should conservative defaults be used for the kind of unchecked code indicated by the
      * parameter?
@@ -1999,11 +2141,8 @@ public abstract class SourceChecker extends AbstractTypeProcessor
         }
 
         while (elt != null) {
-            SuppressWarnings suppressWarningsAnno = elt.getAnnotation(SuppressWarnings.class);
-            if (suppressWarningsAnno != null) {
-                String[] suppressWarningsStrings = suppressWarningsAnno.value();
-                Arrays.setAll(
-                        suppressWarningsStrings, i -> suppressWarningsStrings[i].toLowerCase());
+            String[] suppressWarningsStrings = getSuppressWarningsStrings(elt);
+            if (suppressWarningsStrings != null) {
                 if (shouldSuppress(suppressWarningsStrings, errKey)) {
                     if (hasOption("warnUnneededSuppressions")) {
                         elementsWithSuppressedWarnings.add(elt);
@@ -2021,6 +2160,28 @@ public abstract class SourceChecker extends AbstractTypeProcessor
         return false;
     }
 
+    /**
+     * Returns the lowercased values of the {@code @SuppressWarnings} annotation of {@code elt}.
+     *
+     * @param elt an element
+     * @return the lowercased values of the {@code @SuppressWarnings} annotation of {@code elt}, or
+     *     null if it has none
+     */
+    private String @Nullable [] getSuppressWarningsStrings(Element elt) {
+        if (suppressWarningsStringsCache.containsKey(elt)) {
+            return suppressWarningsStringsCache.get(elt);
+        }
+        SuppressWarnings suppressWarningsAnno = elt.getAnnotation(SuppressWarnings.class);
+        String[] suppressWarningsStrings = null;
+        if (suppressWarningsAnno != null) {
+            String[] values = suppressWarningsAnno.value();
+            Arrays.setAll(values, i -> values[i].toLowerCase());
+            suppressWarningsStrings = values;
+        }
+        suppressWarningsStringsCache.put(elt, suppressWarningsStrings);
+        return suppressWarningsStrings;
+    }
+
     /**
      * Determines whether an error (whose message key is {@code messageKey}) should be suppressed.
      * It is suppressed if any of the given SuppressWarnings strings suppresses it.
@@ -2133,6 +2294,21 @@ public abstract class SourceChecker extends AbstractTypeProcessor
             return false;
         }
 
+        Boolean result = annotatedForCache.get(elt);
+        if (result == null) {
+            result = computeIsAnnotatedForThisCheckerOrUpstreamChecker(elt);
+            annotatedForCache.put(elt, result);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the result of {@link #isAnnotatedForThisCheckerOrUpstreamChecker}.
+     *
+     * @param elt the source code element to check
+     * @return true if the element is annotated for this checker or an upstream checker
+     */
+    private boolean computeIsAnnotatedForThisCheckerOrUpstreamChecker(Element elt) {
         @Nullable AnnotatedFor anno = elt.getAnnotation(AnnotatedFor.class);
 
         String[] userAnnotatedFors = (anno == null ? null : anno.value());
@@ -2423,6 +2599,25 @@ public abstract class SourceChecker extends AbstractTypeProcessor
     /// Shutdown
     ///
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>If this is the top-level checker and {@code -AperfStats} was supplied, writes the
+     * statistics collected during the run.
+     */
+    @Override
+    public void typeProcessingOver() {
+        if (parentChecker == null && perfStats != null) {
+            String file = getOption("perfStats");
+            try {
+                perfStats.write(file);
+            } catch (IOException e) {
+                message(Kind.WARNING, "Cannot write -AperfStats file %s: %s", file, e.getMessage());
+            }
+        }
+        super.typeProcessingOver();
+    }
+
     /**
      * Return true to indicate that method {@link #shutdownHook} should be added as a shutdownHook
      * of the JVM.
@@ -0,0 +1,126 @@
+package org.checkerframework.framework.stub;
+
+import com.github.javaparser.StaticJavaParser;
+import com.github.javaparser.ast.StubUnit;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.javacutil.BugInCF;
+
+/**
+ * A JVM-wide cache of the ASTs of parsed stub files, keyed by a digest of the stub file contents.
+ *
+ * <p>Parsing {@code jdk.astub}, the checker-specific stub files, and the files of the annotated
+ * JDK with JavaParser is a large part of the start-up cost of a checker. When many compilations
+ * run in the same JVM, as in a Gradle compiler daemon or a build server, each compilation reads
+ * the same stub files. This cache lets all but the first of them skip the parse.
+ *
+ * <p>Only the JavaParser AST is cached. The annotated types and declaration annotations that
+ * {@link StubParser} creates from it refer to the elements and types of a single compilation, so
+ * they are recomputed for each compilation. {@link StubParser} only reads the AST, so a cached AST
+ * may be shared by several compilations.
+ *
+ * <p>Keying the cache by contents means that an edited stub file is parsed again and that no
+ * separate version key is needed. The cache holds its ASTs through soft references, so the
+ * garbage collector can reclaim them when memory is low.
+ */
+class StubUnitCache {
+
+    /** Maps the digest of the contents of a stub file to the AST of the stub file. */
+    private static final Map<ByteBuffer, SoftReference<StubUnit>> cache = new HashMap<>();
+
+    /** Do not instantiate. */
+    private StubUnitCache() {
+        throw new Error("Do not instantiate");
+    }
+
+    /**
+     * Returns the AST of the stub file with the given contents, parsing it only if it is not in
+     * the cache. Reads {@code inputStream} to the end, but does not close it.
+     *
+     * @param filename name of stub file, used only for diagnostic messages
+     * @param inputStream the contents of the stub file
+     * @return the AST of the stub file
+     * @throws com.github.javaparser.ParseProblemException if the stub file cannot be parsed
+     */
+    static StubUnit parse(String filename, InputStream inputStream) {
+        byte[] contents;
+        try {
+            contents = readAllBytes(inputStream);
+        } catch (IOException e) {
+            throw new BugInCF("cannot read the stub file " + filename, e);
+        }
+        ByteBuffer key = ByteBuffer.wrap(digest(contents));
+
+        StubUnit stubUnit = get(key);
+        if (stubUnit == null) {
+            // Parse outside of the lock, so that other compilations in the same JVM are not
+            // blocked. Two compilations may occasionally parse the same file; both ASTs are valid.
+            stubUnit = StaticJavaParser.parseStubUnit(new ByteArrayInputStream(contents));
+            synchronized (cache) {
+                cache.put(key, new SoftReference<>(stubUnit));
+            }
+        }
+        return stubUnit;
+    }
+
+    /**
+     * Returns the cached AST for the given key, if any.
+     *
+     * @param key the digest of the contents of a stub file
+     * @return the cached AST, or null if it is not cached or was reclaimed
+     */
+    private static @Nullable StubUnit get(ByteBuffer key) {
+        synchronized (cache) {
+            SoftReference<StubUnit> ref = cache.get(key);
+            if (ref == null) {
+                return null;
+            }
+            StubUnit stubUnit = ref.get();
+            if (stubUnit == null) {
+                cache.remove(key);
+            }
+            return stubUnit;
+        }
+    }
+
+    /**
+     * Returns the SHA-256 digest of {@code contents}.
+     *
+     * @param contents the contents of a stub file
+     * @return the SHA-256 digest of {@code contents}
+     */
+    private static byte[] digest(byte[] contents) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(contents);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256.
+            throw new BugInCF("SHA-256 is not supported", e);
+        }
+    }
+
+    /**
+     * Reads the rest of {@code in}.
+     *
+     * @param in an input stream
+     * @return the remaining bytes of {@code in}
+     * @throws IOException if reading fails
+     */
+    private static byte[] readAllBytes(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+}
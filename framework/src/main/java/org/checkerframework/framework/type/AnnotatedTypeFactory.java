@@ -92,6 +92,7 @@ import org.checkerframework.framework.util.FieldInvariants;
 import org.checkerframework.framework.util.GraphQualifierHierarchy;
 import org.checkerframework.framework.util.MultiGraphQualifierHierarchy;
 import org.checkerframework.framework.util.MultiGraphQualifierHierarchy.MultiGraphFactory;
+import org.checkerframework.framework.util.PerfStats;
 import org.checkerframework.framework.util.TreePathCacher;
 import org.checkerframework.framework.util.typeinference.DefaultTypeArgumentInference;
 import org.checkerframework.framework.util.typeinference.TypeArgInferenceUtil;
@@ -376,6 +377,19 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
     /** Mapping from a Tree to its TreePath. Shared between all instances. */
     private final TreePathCacher treePathCache;
 
+    /** Measures {@link #getAnnotatedType(Tree)}, or null without {@code -AperfStats}. */
+    private PerfStats.@Nullable Timer getAnnotatedTypeTimer;
+
+    /** Measures {@link #parseStubFiles()}, or null without {@code -AperfStats}. */
+    private PerfStats.@Nullable Timer stubParsingTimer;
+
+    /**
+     * The number of modifications to the annotated types created by this factory. Incremented
+     * whenever the annotations or the component types of one of those types change, it invalidates
+     * the hash codes cached by {@link AnnotatedTypeMirror#hashCode()}.
+     */
+    /*package-private*/ long typeModificationCount = 0;
+
     /** Mapping from CFG generated trees to their enclosing elements. */
     private final Map<Tree, Element> artificialTreeToEnclosingElementMap;
 
@@ -430,12 +444,12 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
         this.shouldCache = !checker.hasOption("atfDoNotCache");
         if (shouldCache) {
             int cacheSize = getCacheSize();
-            this.classAndMethodTreeCache = CollectionUtils.createLRUCache(cacheSize);
-            this.fromExpressionTreeCache = CollectionUtils.createLRUCache(cacheSize);
-            this.fromMemberTreeCache = CollectionUtils.createLRUCache(cacheSize);
-            this.fromTypeTreeCache = CollectionUtils.createLRUCache(cacheSize);
-            this.elementCache = CollectionUtils.createLRUCache(cacheSize);
-            this.elementToTreeCache = CollectionUtils.createLRUCache(cacheSize);
+            this.classAndMethodTreeCache = createCache("classAndMethodTreeCache", cacheSize);
+            this.fromExpressionTreeCache = createCache("fromExpressionTreeCache", cacheSize);
+            this.fromMemberTreeCache = createCache("fromMemberTreeCache", cacheSize);
+            this.fromTypeTreeCache = createCache("fromTypeTreeCache", cacheSize);
+            this.elementCache = createCache("elementCache", cacheSize);
+            this.elementToTreeCache = createCache("elementToTreeCache", cacheSize);
             this.annotationClassNames =
                     Collections.synchronizedMap(
                             CollectionUtils.createLRUCache(ANNOTATION_CACHE_SIZE));
@@ -449,6 +463,14 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
             this.annotationClassNames = null;
         }
 
+        PerfStats perfStats = checker.getPerfStats();
+        if (perfStats != null) {
+            String checkerName = checker.getClass().getSimpleName();
+            this.getAnnotatedTypeTimer =
+                    perfStats.timer(checkerName, PerfStats.GET_ANNOTATED_TYPE);
+            this.stubParsingTimer = perfStats.timer(checkerName, PerfStats.STUB_PARSING);
+        }
+
         this.typeFormatter = createAnnotatedTypeFormatter();
         this.annotationFormatter = createAnnotationFormatter();
 
@@ -475,7 +497,9 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
             }
             boolean isNullnessChecker =
                     "NullnessAnnotatedTypeFactory".equals(this.getClass().getSimpleName());
-            wholeProgramInference = new WholeProgramInferenceScenes(!isNullnessChecker);
+            wholeProgramInference =
+                    new WholeProgramInferenceScenes(
+                            !isNullnessChecker, checker.hasOption("inferWriteInBackground"));
         } else {
             wholeProgramInference = null;
         }
@@ -1014,6 +1038,25 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
     // Factories for annotated types that account for default qualifiers
     // **********************************************************************
 
+    /**
+     * Creates an LRU cache of the given size. If {@code -AperfStats} was supplied, the cache counts
+     * its hits and misses.
+     *
+     * @param <K> the type of keys
+     * @param <V> the type of values
+     * @param name the name of the cache, used in the statistics
+     * @param size the maximum number of entries
+     * @return a new LRU cache
+     */
+    private <K, V> Map<K, V> createCache(String name, int size) {
+        Map<K, V> cache = CollectionUtils.createLRUCache(size);
+        PerfStats perfStats = checker.getPerfStats();
+        if (perfStats == null) {
+            return cache;
+        }
+        return perfStats.countingCache(checker.getClass().getSimpleName(), name, cache);
+    }
+
     /**
      * Returns the int supplied to the checker via the atfCacheSize option or the default cache
      * size.
@@ -1066,6 +1109,25 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
      * @return the annotated type of {@code tree}
      */
     public AnnotatedTypeMirror getAnnotatedType(Tree tree) {
+        if (getAnnotatedTypeTimer == null) {
+            return computeAnnotatedType(tree);
+        }
+        long start = getAnnotatedTypeTimer.start();
+        try {
+            return computeAnnotatedType(tree);
+        } finally {
+            getAnnotatedTypeTimer.stop(start);
+        }
+    }
+
+    /**
+     * Computes the annotated type of {@code tree}; the implementation of {@link
+     * #getAnnotatedType(Tree)}.
+     *
+     * @param tree the AST node
+     * @return the annotated type of {@code tree}
+     */
+    private AnnotatedTypeMirror computeAnnotatedType(Tree tree) {
 
         /// For debugging
         // String treeString = tree.toString();
@@ -3173,7 +3235,16 @@ public class AnnotatedTypeFactory implements AnnotationProvider {
      * <p>Sets typesFromStubFiles and declAnnosFromStubFiles by side effect, just before returning.
      */
     protected void parseStubFiles() {
-        stubTypes.parseStubFiles();
+        if (stubParsingTimer == null) {
+            stubTypes.parseStubFiles();
+            return;
+        }
+        long start = stubParsingTimer.start();
+        try {
+            stubTypes.parseStubFiles();
+        } finally {
+            stubParsingTimer.stop(start);
+        }
     }
 
     /**
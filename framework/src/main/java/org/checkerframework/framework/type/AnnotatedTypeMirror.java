@@ -137,6 +137,18 @@ public abstract class AnnotatedTypeMirror {
     // any Annotation type.
     protected final Set<AnnotationMirror> annotations = AnnotationUtils.createAnnotationSet();
 
+    /**
+     * The cached result of {@link #hashCode()}. Only valid if {@link #hashCodeModificationCount}
+     * equals the {@link AnnotatedTypeFactory#typeModificationCount} of {@link #atypeFactory}.
+     */
+    private int cachedHashCode;
+
+    /**
+     * The value of {@link AnnotatedTypeFactory#typeModificationCount} when {@link #cachedHashCode}
+     * was computed, or -1 if it has never been computed.
+     */
+    private long hashCodeModificationCount = -1;
+
     /** The explicitly written annotations on this type. */
     // TODO: use this to cache the result once computed? For generic types?
     // protected final Set<AnnotationMirror> explicitannotations =
@@ -165,13 +177,52 @@ public abstract class AnnotatedTypeMirror {
             return false;
         }
 
-        return EQUALITY_COMPARER.visit(this, (AnnotatedTypeMirror) o, null);
+        AnnotatedTypeMirror other = (AnnotatedTypeMirror) o;
+        if (this.hasCachedHashCode()
+                && other.hasCachedHashCode()
+                && this.cachedHashCode != other.cachedHashCode) {
+            return false;
+        }
+        return EQUALITY_COMPARER.visit(this, other, null);
     }
 
+    /**
+     * Returns a structural hash code of this type, computed by {@link HashcodeAtmVisitor} from the
+     * underlying types and primary annotations of this type and its component types.
+     *
+     * <p>The result is cached, so that types can be used as keys of hash maps cheaply. The cached
+     * value is discarded as soon as any type created by the same type factory is modified, because
+     * a modification of a component type is not visible to the types that contain it.
+     *
+     * @return a hash code of this type that is consistent with {@link #equals}
+     */
     @Pure
     @Override
     public final int hashCode() {
-        return HASHCODE_VISITOR.visit(this);
+        if (!hasCachedHashCode()) {
+            cachedHashCode = HASHCODE_VISITOR.visit(this);
+            hashCodeModificationCount = atypeFactory.typeModificationCount;
+        }
+        return cachedHashCode;
+    }
+
+    /**
+     * Returns true if {@link #cachedHashCode} is the current hash code of this type.
+     *
+     * @return true if no type created by the type factory has been modified since the hash code of
+     *     this type was cached
+     */
+    private boolean hasCachedHashCode() {
+        return hashCodeModificationCount == atypeFactory.typeModificationCount;
+    }
+
+    /**
+     * Records that this type has been modified, which invalidates the hash codes cached by this
+     * type and by any type that contains it. Must be called whenever the primary annotations or the
+     * component types of a type change.
+     */
+    /*package-private*/ void recordModification() {
+        atypeFactory.typeModificationCount++;
     }
 
     /**
@@ -522,6 +573,7 @@ public abstract class AnnotatedTypeMirror {
             throw new BugInCF("AnnotatedTypeMirror.addAnnotation: null argument.");
         }
         if (atypeFactory.isSupportedQualifier(a)) {
+            recordModification();
             this.annotations.add(a);
         } else {
             AnnotationMirror aliased = atypeFactory.canonicalAnnotation(a);
@@ -605,6 +657,7 @@ public abstract class AnnotatedTypeMirror {
         AnnotationMirror anno =
                 AnnotationUtils.getAnnotationByName(annotations, AnnotationUtils.annotationName(a));
         if (anno != null) {
+            recordModification();
             return annotations.remove(anno);
         } else {
             return false;
@@ -680,6 +733,7 @@ public abstract class AnnotatedTypeMirror {
      * methods.
      */
     public void clearAnnotations() {
+        recordModification();
         annotations.clear();
     }
 
@@ -850,6 +904,23 @@ public abstract class AnnotatedTypeMirror {
 
         @Override
         public AnnotatedDeclaredType deepCopy(boolean copyAnnotations) {
+            if (enclosingType == null && (typeArgs == null || typeArgs.isEmpty())) {
+                // This type has no component types, so it cannot be part of a cycle and the
+                // AnnotatedTypeCopier (and its identity map) is not needed.  The result is
+                // identical to the one the copier would produce.
+                AnnotatedDeclaredType copy =
+                        new AnnotatedDeclaredType(getUnderlyingType(), atypeFactory, declaration);
+                if (copyAnnotations) {
+                    copy.addAnnotations(this.getAnnotationsField());
+                }
+                if (wasRaw) {
+                    copy.setWasRaw();
+                }
+                if (typeArgs != null) {
+                    copy.typeArgs = Collections.emptyList();
+                }
+                return copy;
+            }
             return (AnnotatedDeclaredType) new AnnotatedTypeCopier(copyAnnotations).visit(this);
         }
 
@@ -883,6 +954,7 @@ public abstract class AnnotatedTypeMirror {
          */
         // WMD
         public void setTypeArguments(List<? extends AnnotatedTypeMirror> ts) {
+            recordModification();
             if (ts == null || ts.isEmpty()) {
                 typeArgs = Collections.emptyList();
             } else {
@@ -1019,6 +1091,7 @@ public abstract class AnnotatedTypeMirror {
 
         /** Sets the enclosing type. */
         /*default-visibility*/ void setEnclosingType(AnnotatedDeclaredType enclosingType) {
+            recordModification();
             this.enclosingType = enclosingType;
         }
 
@@ -1083,6 +1156,7 @@ public abstract class AnnotatedTypeMirror {
          * @param params the parameter types
          */
         void setParameterTypes(List<? extends AnnotatedTypeMirror> params) {
+            recordModification();
             paramTypes.clear();
             paramTypes.addAll(params);
         }
@@ -1108,6 +1182,7 @@ public abstract class AnnotatedTypeMirror {
          * @param returnType the return type
          */
         void setReturnType(AnnotatedTypeMirror returnType) {
+            recordModification();
             this.returnType = returnType;
         }
 
@@ -1138,6 +1213,7 @@ public abstract class AnnotatedTypeMirror {
          * @param receiverType the receiver type
          */
         void setReceiverType(AnnotatedDeclaredType receiverType) {
+            recordModification();
             this.receiverType = receiverType;
         }
 
@@ -1189,6 +1265,7 @@ public abstract class AnnotatedTypeMirror {
          * @param thrownTypes the thrown types
          */
         void setThrownTypes(List<? extends AnnotatedTypeMirror> thrownTypes) {
+            recordModification();
             this.throwsTypes.clear();
             this.throwsTypes.addAll(thrownTypes);
         }
@@ -1214,6 +1291,7 @@ public abstract class AnnotatedTypeMirror {
          * @param types the type variables of this executable type
          */
         void setTypeVariables(List<AnnotatedTypeVariable> types) {
+            recordModification();
             typeVarTypes.clear();
             typeVarTypes.addAll(types);
         }
@@ -1329,6 +1407,7 @@ public abstract class AnnotatedTypeMirror {
          */
         // WMD
         public void setComponentType(AnnotatedTypeMirror type) {
+            recordModification();
             this.componentType = type;
         }
 
@@ -1475,6 +1554,7 @@ public abstract class AnnotatedTypeMirror {
          * @param type the lower bound type
          */
         void setLowerBound(AnnotatedTypeMirror type) {
+            recordModification();
             checkBound("Lower", type, this);
             this.lowerBound = type;
             fixupBoundAnnotations();
@@ -1563,6 +1643,7 @@ public abstract class AnnotatedTypeMirror {
          * @param type the upper bound type
          */
         void setUpperBound(AnnotatedTypeMirror type) {
+            recordModification();
             checkBound("Upper", type, this);
             this.upperBound = type;
             fixupBoundAnnotations();
@@ -1696,7 +1777,8 @@ public abstract class AnnotatedTypeMirror {
 
         @Override
         public AnnotatedNoType deepCopy(boolean copyAnnotations) {
-            return (AnnotatedNoType) new AnnotatedTypeCopier(copyAnnotations).visit(this);
+            // This type has no component types, so a shallow copy is a deep copy.
+            return shallowCopy(copyAnnotations);
         }
 
         @Override
@@ -1738,7 +1820,8 @@ public abstract class AnnotatedTypeMirror {
 
         @Override
         public AnnotatedNullType deepCopy(boolean copyAnnotations) {
-            return (AnnotatedNullType) new AnnotatedTypeCopier(copyAnnotations).visit(this);
+            // This type has no component types, so a shallow copy is a deep copy.
+            return shallowCopy(copyAnnotations);
         }
 
         @Override
@@ -1783,7 +1866,8 @@ public abstract class AnnotatedTypeMirror {
 
         @Override
         public AnnotatedPrimitiveType deepCopy(boolean copyAnnotations) {
-            return (AnnotatedPrimitiveType) new AnnotatedTypeCopier(copyAnnotations).visit(this);
+            // This type has no component types, so a shallow copy is a deep copy.
+            return shallowCopy(copyAnnotations);
         }
 
         @Override
@@ -1844,6 +1928,7 @@ public abstract class AnnotatedTypeMirror {
          * @param type the type of the lower bound
          */
         void setSuperBound(AnnotatedTypeMirror type) {
+            recordModification();
             checkBound("Super", type, this);
             this.superBound = type;
             fixupBoundAnnotations();
@@ -1873,6 +1958,7 @@ public abstract class AnnotatedTypeMirror {
          * @param type the type of the upper bound
          */
         void setExtendsBound(AnnotatedTypeMirror type) {
+            recordModification();
             checkBound("Extends", type, this);
             this.extendsBound = type;
             fixupBoundAnnotations();
@@ -2083,6 +2169,7 @@ public abstract class AnnotatedTypeMirror {
         }
 
         void setDirectSuperTypes(List<AnnotatedDeclaredType> supertypes) {
+            recordModification();
             this.supertypes = new ArrayList<>(supertypes);
         }
     }
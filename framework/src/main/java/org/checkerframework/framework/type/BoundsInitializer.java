@@ -119,6 +119,7 @@ public class BoundsInitializer {
                     // do nothing
             }
         }
+        declaredType.recordModification();
         declaredType.typeArgs = Collections.unmodifiableList(typeArgs);
     }
 
@@ -1,6 +1,7 @@
 package org.checkerframework.framework.type;
 
 import java.util.List;
+import java.util.Map;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.ElementKind;
 import javax.lang.model.element.TypeElement;
@@ -8,6 +9,7 @@ import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.type.TypeVariable;
 import javax.lang.model.util.Types;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.common.basetype.BaseTypeChecker;
 import org.checkerframework.framework.qual.Covariant;
 import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedArrayType;
@@ -21,8 +23,10 @@ import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedWildcard
 import org.checkerframework.framework.type.visitor.AbstractAtmComboVisitor;
 import org.checkerframework.framework.util.AnnotatedTypes;
 import org.checkerframework.framework.util.AtmCombo;
+import org.checkerframework.framework.util.PerfStats;
 import org.checkerframework.javacutil.AnnotationUtils;
 import org.checkerframework.javacutil.BugInCF;
+import org.checkerframework.javacutil.CollectionUtils;
 import org.checkerframework.javacutil.TypesUtils;
 
 /**
@@ -119,6 +123,21 @@ public class DefaultTypeHierarchy extends AbstractAtmComboVisitor<Boolean, Void>
      */
     protected final StructuralEqualityVisitHistory typeargVisitHistory;
 
+    /** Measures {@link #isSubtype(AnnotatedTypeMirror, AnnotatedTypeMirror)}, or null. */
+    private final PerfStats.@Nullable Timer isSubtypeTimer;
+
+    /**
+     * Caches the results of {@link #isSubtype(AnnotatedTypeMirror, AnnotatedTypeMirror,
+     * AnnotationMirror)} for the queries made by {@link #isSubtype(AnnotatedTypeMirror,
+     * AnnotatedTypeMirror)}, or null if it has not been created yet. Unlike {@link #visitHistory},
+     * it stores both true and false results, and it is bounded. It has the size of the type
+     * factory's caches and is only used when {@link AnnotatedTypeFactory#shouldCache} is true.
+     */
+    private @Nullable Map<SubtypeQuery, Boolean> isSubtypeCache;
+
+    /** Compares the types in the keys of {@link #isSubtypeCache}. */
+    private final SameTypeAtmComparer sameTypeComparer;
+
     /** Creates a DefaultTypeHierarchy. */
     public DefaultTypeHierarchy(
             final BaseTypeChecker checker,
@@ -133,6 +152,34 @@ public class DefaultTypeHierarchy extends AbstractAtmComboVisitor<Boolean, Void>
 
         this.ignoreRawTypes = ignoreRawTypes;
         this.invariantArrayComponents = invariantArrayComponents;
+
+        PerfStats perfStats = checker.getPerfStats();
+        this.isSubtypeTimer =
+                perfStats == null
+                        ? null
+                        : perfStats.timer(
+                                checker.getClass().getSimpleName(), PerfStats.IS_SUBTYPE);
+
+        this.sameTypeComparer =
+                new SameTypeAtmComparer(checker.getProcessingEnvironment().getTypeUtils());
+    }
+
+    /**
+     * Creates {@link #isSubtypeCache}.
+     *
+     * @param typeFactory the type factory of {@link #checker}
+     * @return a new cache with the size of the type factory's caches
+     */
+    private Map<SubtypeQuery, Boolean> createIsSubtypeCache(AnnotatedTypeFactory typeFactory) {
+        Map<SubtypeQuery, Boolean> cache =
+                CollectionUtils.createLRUCache(typeFactory.getCacheSize());
+        PerfStats perfStats = checker.getPerfStats();
+        if (perfStats != null) {
+            cache =
+                    perfStats.countingCache(
+                            checker.getClass().getSimpleName(), "isSubtypeCache", cache);
+        }
+        return cache;
     }
 
     /** Create the equality comparer. */
@@ -154,13 +201,46 @@ public class DefaultTypeHierarchy extends AbstractAtmComboVisitor<Boolean, Void>
     @Override
     public boolean isSubtype(
             final AnnotatedTypeMirror subtype, final AnnotatedTypeMirror supertype) {
-        for (final AnnotationMirror top : qualifierHierarchy.getTopAnnotations()) {
-            if (!isSubtype(subtype, supertype, top)) {
-                return false;
+        long start = isSubtypeTimer == null ? 0 : isSubtypeTimer.start();
+        try {
+            AnnotatedTypeFactory typeFactory = checker.getTypeFactory();
+            if (typeFactory == null || !typeFactory.shouldCache) {
+                for (final AnnotationMirror top : qualifierHierarchy.getTopAnnotations()) {
+                    if (!isSubtype(subtype, supertype, top)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            Map<SubtypeQuery, Boolean> cache = isSubtypeCache;
+            if (cache == null) {
+                cache = createIsSubtypeCache(typeFactory);
+                isSubtypeCache = cache;
             }
-        }
 
-        return true;
+            // A copy of the query, made before the first call to isSubtype (which may modify its
+            // arguments) and shared by the cache entries for all hierarchies.
+            SubtypeQuery copy = null;
+            for (final AnnotationMirror top : qualifierHierarchy.getTopAnnotations()) {
+                SubtypeQuery query = new SubtypeQuery(subtype, supertype, top);
+                boolean result;
+                if (cache.containsKey(query)) {
+                    result = cache.get(query);
+                } else {
+                    copy = copy == null ? query.deepCopy() : copy.withTop(top);
+                    result = isSubtype(subtype, supertype, top);
+                    cache.put(copy, result);
+                }
+                if (!result) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            if (isSubtypeTimer != null) {
+                isSubtypeTimer.stop(start);
+            }
+        }
     }
 
     /**
@@ -1108,4 +1188,98 @@ public class DefaultTypeHierarchy extends AbstractAtmComboVisitor<Boolean, Void>
 
         return isSubtype(subtype.getExtendsBound(), supertype, currentTop);
     }
+
+    /**
+     * A key of {@link #isSubtypeCache}: a subtype query for a single qualifier hierarchy.
+     *
+     * <p>The result of a query depends on the primary annotations of the types and of all of their
+     * component types, including the bounds of type variables and wildcards, so the types are
+     * compared with {@link #sameTypeComparer}, which visits all of them. Type variables, including
+     * captured wildcards, are compared by identity of their underlying types, so uses of different
+     * type parameters never share an entry.
+     */
+    private class SubtypeQuery {
+        /** The expected subtype. */
+        private final AnnotatedTypeMirror subtype;
+
+        /** The expected supertype. */
+        private final AnnotatedTypeMirror supertype;
+
+        /** The top of the hierarchy for which the types are compared. */
+        private final AnnotationMirror top;
+
+        /** The hash code of the types, which does not depend on {@link #top}. */
+        private final int typesHashCode;
+
+        /**
+         * Creates a query.
+         *
+         * @param subtype the expected subtype
+         * @param supertype the expected supertype
+         * @param top the top of the hierarchy for which the types are compared
+         */
+        SubtypeQuery(
+                AnnotatedTypeMirror subtype, AnnotatedTypeMirror supertype, AnnotationMirror top) {
+            this(subtype, supertype, top, 31 * subtype.hashCode() + supertype.hashCode());
+        }
+
+        /**
+         * Creates a query with the given fields.
+         *
+         * @param subtype the expected subtype
+         * @param supertype the expected supertype
+         * @param top the top of the hierarchy for which the types are compared
+         * @param typesHashCode the hash code of the types
+         */
+        private SubtypeQuery(
+                AnnotatedTypeMirror subtype,
+                AnnotatedTypeMirror supertype,
+                AnnotationMirror top,
+                int typesHashCode) {
+            this.subtype = subtype;
+            this.supertype = supertype;
+            this.top = top;
+            this.typesHashCode = typesHashCode;
+        }
+
+        /**
+         * Returns a copy of this query that shares no types with it, so that it can be stored in
+         * the cache even if the types of this query are modified later.
+         *
+         * @return a deep copy of this query
+         */
+        SubtypeQuery deepCopy() {
+            return new SubtypeQuery(subtype.deepCopy(), supertype.deepCopy(), top, typesHashCode);
+        }
+
+        /**
+         * Returns the same query for another hierarchy. The result shares its types with this.
+         *
+         * @param otherTop the top of the other hierarchy
+         * @return the same query for the hierarchy of {@code otherTop}
+         */
+        SubtypeQuery withTop(AnnotationMirror otherTop) {
+            return new SubtypeQuery(subtype, supertype, otherTop, typesHashCode);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SubtypeQuery)) {
+                return false;
+            }
+            SubtypeQuery other = (SubtypeQuery) o;
+            return typesHashCode == other.typesHashCode
+                    && AnnotationUtils.areSame(top, other.top)
+                    && sameTypeComparer.visit(subtype, other.subtype, null)
+                    && sameTypeComparer.visit(supertype, other.supertype, null);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * typesHashCode + AnnotationUtils.annotationName(top).hashCode();
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package org.checkerframework.framework.type;
 
+import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedDeclaredType;
 import org.checkerframework.framework.type.visitor.EquivalentAtmComboScanner;
 import org.checkerframework.javacutil.AnnotationUtils;
 import org.checkerframework.javacutil.SystemUtil;
@@ -66,6 +67,20 @@ public class EqualityAtmComparer extends EquivalentAtmComboScanner<Boolean, Void
         return compare(type1, type2) && reduce(true, super.scan(type1, type2, v));
     }
 
+    /**
+     * Compares the enclosing types as well as the type arguments, because HashcodeAtmVisitor hashes
+     * both.
+     */
+    @Override
+    public Boolean visitDeclared_Declared(
+            AnnotatedDeclaredType type1, AnnotatedDeclaredType type2, Void v) {
+        if (visited.contains(type1, type2)) {
+            return visited.getResult(type1, type2);
+        }
+        Boolean r = super.visitDeclared_Declared(type1, type2, v);
+        return scanAndReduce(type1.getEnclosingType(), type2.getEnclosingType(), v, r);
+    }
+
     /** Used to combine the results from component types or a type and its component types. */
     @Override
     protected Boolean reduce(Boolean r1, Boolean r2) {
@@ -87,8 +87,10 @@ import org.checkerframework.framework.type.typeannotator.ListTypeAnnotator;
 import org.checkerframework.framework.type.typeannotator.PropagationTypeAnnotator;
 import org.checkerframework.framework.type.typeannotator.TypeAnnotator;
 import org.checkerframework.framework.util.AnnotatedTypes;
+import org.checkerframework.framework.util.ContractsUtils;
 import org.checkerframework.framework.util.FlowExpressionParseUtil;
 import org.checkerframework.framework.util.FlowExpressionParseUtil.FlowExpressionParseException;
+import org.checkerframework.framework.util.PerfStats;
 import org.checkerframework.framework.util.defaults.QualifierDefaults;
 import org.checkerframework.framework.util.dependenttypes.DependentTypesHelper;
 import org.checkerframework.framework.util.dependenttypes.DependentTypesTreeAnnotator;
@@ -190,6 +192,18 @@ public abstract class GenericAnnotatedTypeFactory<
                     IdentityHashMap<Node, TransferResult<Value, Store>>>
             flowResultAnalysisCaches;
 
+    /** The statistics of {@code -AperfStats}, or null without -AperfStats. */
+    private final @Nullable PerfStats perfStats;
+
+    /** Measures the construction of control flow graphs, or null without -AperfStats. */
+    private PerfStats.@Nullable Timer cfgTimer;
+
+    /** Measures the dataflow analysis, or null without -AperfStats. */
+    private PerfStats.@Nullable Timer dataflowTimer;
+
+    /** Finds and caches the contracts of methods; created by {@link #getContractsUtils()}. */
+    private @Nullable ContractsUtils contractsUtils;
+
     /**
      * Creates a type factory for checking the given compilation unit with respect to the given
      * annotation.
@@ -223,6 +237,13 @@ public abstract class GenericAnnotatedTypeFactory<
             flowResultAnalysisCaches = null;
         }
 
+        this.perfStats = checker.getPerfStats();
+        if (perfStats != null) {
+            String checkerName = checker.getClass().getSimpleName();
+            this.cfgTimer = perfStats.timer(checkerName, PerfStats.CFG);
+            this.dataflowTimer = perfStats.timer(checkerName, PerfStats.DATAFLOW);
+        }
+
         // Every subclass must call postInit, but it must be called after
         // all other initialization is finished.
     }
@@ -475,6 +496,19 @@ public abstract class GenericAnnotatedTypeFactory<
         return dependentTypesHelper;
     }
 
+    /**
+     * Returns the object that finds the pre- and postconditions of methods for this factory. It is
+     * created on first use and caches the contracts of each method.
+     *
+     * @return the {@link ContractsUtils} for this factory
+     */
+    public ContractsUtils getContractsUtils() {
+        if (contractsUtils == null) {
+            contractsUtils = new ContractsUtils(this);
+        }
+        return contractsUtils;
+    }
+
     @Override
     public AnnotatedDeclaredType fromNewClass(NewClassTree newClassTree) {
         AnnotatedDeclaredType superResult = super.fromNewClass(newClassTree);
@@ -1231,7 +1265,18 @@ public abstract class GenericAnnotatedTypeFactory<
             boolean updateInitializationStore,
             boolean isStatic,
             Store capturedStore) {
-        ControlFlowGraph cfg = CFCFGBuilder.build(root, ast, checker, this, processingEnv);
+        ControlFlowGraph cfg;
+        long cfgNanos = 0;
+        if (cfgTimer == null) {
+            cfg = CFCFGBuilder.build(root, ast, checker, this, processingEnv);
+        } else {
+            long cfgStart = cfgTimer.start();
+            try {
+                cfg = CFCFGBuilder.build(root, ast, checker, this, processingEnv);
+            } finally {
+                cfgNanos = cfgTimer.stop(cfgStart);
+            }
+        }
 
         if (isInitializationCode) {
             Store initStore = !isStatic ? initializationStore : initializationStaticStore;
@@ -1246,7 +1291,22 @@ public abstract class GenericAnnotatedTypeFactory<
         } else {
             transfer.setFixedInitialStore(capturedStore);
         }
-        analysis.performAnalysis(cfg, fieldValues);
+        if (perfStats == null || dataflowTimer == null) {
+            analysis.performAnalysis(cfg, fieldValues);
+        } else {
+            long dataflowStart = dataflowTimer.start();
+            long dataflowNanos;
+            try {
+                analysis.performAnalysis(cfg, fieldValues);
+            } finally {
+                dataflowNanos = dataflowTimer.stop(dataflowStart);
+            }
+            perfStats.recordMethod(
+                    checker.getClass().getSimpleName(),
+                    () -> describeForPerfStats(ast),
+                    cfgNanos,
+                    dataflowNanos);
+        }
         AnalysisResult<Value, Store> result = analysis.getResult();
 
         // store result
@@ -1311,6 +1371,34 @@ public abstract class GenericAnnotatedTypeFactory<
         postAnalyze(cfg);
     }
 
+    /**
+     * Returns a description of the code that {@code ast} represents, for the {@code methods} of the
+     * {@code -AperfStats} report.
+     *
+     * @param ast an AST that is analyzed
+     * @return the class, name, and line number of the method, lambda, or initializer
+     */
+    private String describeForPerfStats(UnderlyingAST ast) {
+        Tree code = ast.getCode();
+        long start = trees.getSourcePositions().getStartPosition(root, code);
+        long line = root.getLineMap().getLineNumber(start);
+        switch (ast.getKind()) {
+            case METHOD:
+                CFGMethod method = (CFGMethod) ast;
+                return method.getClassTree().getSimpleName()
+                        + "."
+                        + method.getMethod().getName()
+                        + " at line "
+                        + line;
+            case LAMBDA:
+                return "lambda at line " + line;
+            default:
+                return ((CFGStatement) ast).getClassTree().getSimpleName()
+                        + " initializer at line "
+                        + line;
+        }
+    }
+
     /**
      * Perform any additional operations on a CFG. Called once per CFG, after the CFG has been
      * analyzed by {@link #analyze(Queue, Queue, UnderlyingAST, List, ClassTree, boolean, boolean,
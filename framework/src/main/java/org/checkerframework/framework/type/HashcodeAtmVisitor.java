@@ -1,12 +1,16 @@
 package org.checkerframework.framework.type;
 
+import javax.lang.model.element.AnnotationMirror;
 import org.checkerframework.framework.type.visitor.SimpleAnnotatedTypeScanner;
+import org.checkerframework.javacutil.AnnotationUtils;
 
 /**
  * Computes the hashcode of an AnnotatedTypeMirror using the underlying type and primary annotations
  * of the type and its component type.
  *
- * <p>This class should be synchronized with EqualityAtmComparer.
+ * <p>This class should be synchronized with EqualityAtmComparer: types that it considers equal must
+ * have the same hashcode, because AnnotatedTypeMirror.equals returns false without comparing the
+ * types if their cached hashcodes differ.
  *
  * @see org.checkerframework.framework.type.EqualityAtmComparer for more details.
  *     <p>This is used by AnnotatedTypeMirror.hashcode.
@@ -32,7 +36,12 @@ public class HashcodeAtmVisitor extends SimpleAnnotatedTypeScanner<Integer, Void
             return 0;
         }
 
-        return type.getAnnotations().toString().hashCode() * 17
-                + type.getUnderlyingType().toString().hashCode() * 13;
+        // The element values are hashed too, so that, for example, types annotated with @IntVal
+        // and different values have different hash codes.
+        int annotationsHash = 0;
+        for (AnnotationMirror anno : type.getAnnotations()) {
+            annotationsHash += AnnotationUtils.annotationHashCode(anno);
+        }
+        return annotationsHash * 17 + type.getUnderlyingType().toString().hashCode() * 13;
     }
 }
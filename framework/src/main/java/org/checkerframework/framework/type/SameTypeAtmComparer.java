@@ -0,0 +1,65 @@
+package org.checkerframework.framework.type;
+
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.util.Types;
+import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedDeclaredType;
+import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedWildcardType;
+
+/**
+ * Compares annotated types like {@link AnnotatedTypeMirror#equals}, except that the underlying
+ * types are compared with {@link Types#isSameType} rather than by identity, and that the flags that
+ * affect subtyping ({@link AnnotatedTypeMirror#isDeclaration}, {@link
+ * AnnotatedDeclaredType#wasRaw}, and {@link AnnotatedWildcardType#isUninferredTypeArgument}) are
+ * also compared.
+ *
+ * <p>This is the equality to use for caches whose keys are annotated types: javac creates a new
+ * type for many occurrences of the same type, such as the type of each string literal, so {@link
+ * AnnotatedTypeMirror#equals} rarely holds for types computed at different locations. Types that
+ * are equal according to this class need not have the same {@link AnnotatedTypeMirror#hashCode},
+ * but almost always do.
+ *
+ * <p>Wildcards are compared by identity, because {@link Types#isSameType} is false for any two
+ * wildcards.
+ */
+public class SameTypeAtmComparer extends EqualityAtmComparer {
+    /** The type utilities used to compare underlying types. */
+    private final Types types;
+
+    /**
+     * Creates a SameTypeAtmComparer.
+     *
+     * @param types the type utilities used to compare underlying types
+     */
+    public SameTypeAtmComparer(Types types) {
+        this.types = types;
+    }
+
+    @Override
+    protected boolean compare(AnnotatedTypeMirror type1, AnnotatedTypeMirror type2) {
+        if (type1 == type2) {
+            return true;
+        }
+        if (type1 == null || type2 == null) {
+            return false;
+        }
+        if (type1.getKind() != type2.getKind()
+                || type1.isDeclaration() != type2.isDeclaration()) {
+            return false;
+        }
+        if (type1.getKind() == TypeKind.DECLARED
+                && ((AnnotatedDeclaredType) type1).wasRaw()
+                        != ((AnnotatedDeclaredType) type2).wasRaw()) {
+            return false;
+        }
+        if (type1.getKind() == TypeKind.WILDCARD) {
+            // Types.isSameType never holds for wildcards, not even for a wildcard and itself, so
+            // compare them by identity, like AnnotatedTypeMirror#equals.
+            return type1.getUnderlyingType() == type2.getUnderlyingType()
+                    && ((AnnotatedWildcardType) type1).isUninferredTypeArgument()
+                            == ((AnnotatedWildcardType) type2).isUninferredTypeArgument()
+                    && arePrimeAnnosEqual(type1, type2);
+        }
+        return types.isSameType(type1.getUnderlyingType(), type2.getUnderlyingType())
+                && arePrimeAnnosEqual(type1, type2);
+    }
+}
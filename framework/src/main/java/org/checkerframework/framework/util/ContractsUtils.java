@@ -1,6 +1,7 @@
 package org.checkerframework.framework.util;
 
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -22,6 +23,7 @@ import org.checkerframework.framework.type.GenericAnnotatedTypeFactory;
 import org.checkerframework.framework.util.Contract.Kind;
 import org.checkerframework.javacutil.AnnotationBuilder;
 import org.checkerframework.javacutil.AnnotationUtils;
+import org.checkerframework.javacutil.CollectionUtils;
 import org.checkerframework.javacutil.Pair;
 
 /**
@@ -44,18 +46,44 @@ public class ContractsUtils {
      */
     protected static ContractsUtils instance;
 
+    /** The maximum number of methods whose contracts are cached, per kind of contract. */
+    private static final int CONTRACTS_CACHE_SIZE = 500;
+
     /** The factory that this ContractsUtils is associated with. */
     protected GenericAnnotatedTypeFactory<?, ?, ?, ?> factory;
 
-    /** Creates a ContractsUtils for the given factory. */
-    private ContractsUtils(GenericAnnotatedTypeFactory<?, ?, ?, ?> factory) {
+    /**
+     * Maps each kind of contract to a cache from a method or constructor to its contracts of that
+     * kind. The cached sets are unmodifiable. The contracts only depend on the declaration
+     * annotations of the method, so they are computed once rather than at every call site and
+     * override check; the expressions in them are still resolved against each use.
+     */
+    private final Map<Kind, Map<ExecutableElement, Set<? extends Contract>>> contractsCache =
+            new EnumMap<>(Kind.class);
+
+    /**
+     * Creates a ContractsUtils for the given factory. Clients should use {@link
+     * GenericAnnotatedTypeFactory#getContractsUtils()} or {@link #getInstance} instead, so that
+     * the contracts cached by this object are reused.
+     *
+     * @param factory the type factory whose declaration annotations are used to find contracts
+     */
+    public ContractsUtils(GenericAnnotatedTypeFactory<?, ?, ?, ?> factory) {
         this.factory = factory;
+        for (Kind kind : Kind.values()) {
+            contractsCache.put(kind, CollectionUtils.createLRUCache(CONTRACTS_CACHE_SIZE));
+        }
     }
 
-    /** Returns an instance of the {@link ContractsUtils} class. */
+    /**
+     * Returns the {@link ContractsUtils} for the given factory.
+     *
+     * @param factory the type factory whose contracts are needed
+     * @return the {@link ContractsUtils} owned by {@code factory}
+     */
     public static ContractsUtils getInstance(GenericAnnotatedTypeFactory<?, ?, ?, ?> factory) {
         if (instance == null || instance.factory != factory) {
-            instance = new ContractsUtils(factory);
+            instance = factory.getContractsUtils();
         }
         return instance;
     }
@@ -155,16 +183,42 @@ public class ContractsUtils {
     }
 
     /**
-     * Returns the contracts on method or constructor {@code executableElement}.
+     * Returns the contracts on method or constructor {@code executableElement}, using the cached
+     * set if there is one.
      *
      * @param executableElement the method whose contracts to return
      * @param kind the kind of contracts to retrieve
      * @param clazz the class to determine the return type
      * @param <T> the specific type of {@link Contract} to use
-     * @return the contracts on {@code executableElement}
+     * @return the contracts on {@code executableElement}, as an unmodifiable set
      */
     private <T extends Contract> Set<T> getContracts(
             ExecutableElement executableElement, Kind kind, Class<T> clazz) {
+        if (!factory.shouldCache) {
+            return Collections.unmodifiableSet(
+                    computeContracts(executableElement, kind, clazz));
+        }
+        Map<ExecutableElement, Set<? extends Contract>> cache = contractsCache.get(kind);
+        @SuppressWarnings("unchecked") // the cache for kind only contains sets of clazz
+        Set<T> result = (Set<T>) cache.get(executableElement);
+        if (result == null) {
+            result = Collections.unmodifiableSet(computeContracts(executableElement, kind, clazz));
+            cache.put(executableElement, result);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the contracts on method or constructor {@code executableElement}.
+     *
+     * @param executableElement the method whose contracts to return
+     * @param kind the kind of contracts to retrieve
+     * @param clazz the class to determine the return type
+     * @param <T> the specific type of {@link Contract} to use
+     * @return the contracts on {@code executableElement}
+     */
+    private <T extends Contract> Set<T> computeContracts(
+            ExecutableElement executableElement, Kind kind, Class<T> clazz) {
         Set<T> result = new LinkedHashSet<>();
         // Check for a single contract annotation.
         AnnotationMirror frameworkContractAnno =
@@ -38,6 +38,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.StringJoiner;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -74,6 +75,7 @@ import org.checkerframework.dataflow.cfg.node.ObjectCreationNode;
 import org.checkerframework.framework.source.DiagMessage;
 import org.checkerframework.framework.type.AnnotatedTypeFactory;
 import org.checkerframework.framework.util.dependenttypes.DependentTypesError;
+import org.checkerframework.javacutil.CollectionUtils;
 import org.checkerframework.javacutil.ElementUtils;
 import org.checkerframework.javacutil.Resolver;
 import org.checkerframework.javacutil.TreeUtils;
@@ -105,6 +107,19 @@ public class FlowExpressionParseUtil {
 
     private static final int PARAMETER_REPLACEMENT_LENGTH = PARMETER_REPLACEMENT.length();
 
+    /** The maximum number of entries in {@link #parsedExpressionCache}. */
+    private static final int PARSED_EXPRESSION_CACHE_SIZE = 1000;
+
+    /**
+     * Maps an expression string, as written in an annotation, to its JavaParser AST. Parsing does
+     * not depend on the context, so the same {@code @EnsuresNonNull} or {@code @GuardedBy} string
+     * is parsed once rather than at every use; only the conversion to a {@link Receiver} is done
+     * per use. The ASTs are never modified after parsing.
+     */
+    private static final Map<String, Expression> parsedExpressionCache =
+            Collections.synchronizedMap(
+                    CollectionUtils.createLRUCache(PARSED_EXPRESSION_CACHE_SIZE));
+
     /**
      * Parse a string and return its representation as a {@link Receiver}, or throw an {@link
      * FlowExpressionParseException}.
@@ -122,12 +137,7 @@ public class FlowExpressionParseUtil {
             throws FlowExpressionParseException {
         context = context.copyAndSetUseLocalScope(useLocalScope);
         ProcessingEnvironment env = context.checkerContext.getProcessingEnvironment();
-        Expression expr;
-        try {
-            expr = StaticJavaParser.parseExpression(replaceParameterSyntax(expression));
-        } catch (ParseProblemException e) {
-            throw constructParserException(expression, "is an invalid expression");
-        }
+        Expression expr = parseExpression(expression);
 
         Receiver result;
         try {
@@ -151,6 +161,27 @@ public class FlowExpressionParseUtil {
         return result;
     }
 
+    /**
+     * Returns the JavaParser AST for the given expression string, using a cached AST if possible.
+     *
+     * @param expression flow expression to parse
+     * @return the parsed expression, which must not be modified
+     * @throws FlowExpressionParseException if the string is not a valid Java expression
+     */
+    private static Expression parseExpression(String expression)
+            throws FlowExpressionParseException {
+        Expression expr = parsedExpressionCache.get(expression);
+        if (expr == null) {
+            try {
+                expr = StaticJavaParser.parseExpression(replaceParameterSyntax(expression));
+            } catch (ParseProblemException e) {
+                throw constructParserException(expression, "is an invalid expression");
+            }
+            parsedExpressionCache.put(expression, expr);
+        }
+        return expr;
+    }
+
     /**
      * Replaces every occurrence of "#(number)" with "PARAMETER_REPLACEMENT(number)" where number is
      * an index of a parameter.
@@ -390,7 +421,8 @@ public class FlowExpressionParseUtil {
             if (expr.getScope().isPresent()) {
                 Receiver receiver = expr.getScope().get().accept(this, context);
                 context = context.copyChangeToParsingMemberOfReceiver(receiver);
-                expr = expr.removeScope();
+                // Do not call expr.removeScope(): expr may be a cached AST that is shared with
+                // other uses.  The code below only reads the name and the arguments.
             }
 
             String methodName = expr.getNameAsString();
@@ -1,15 +1,19 @@
 package org.checkerframework.framework.util;
 
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.StringJoiner;
 import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
 import javax.lang.model.element.Name;
+import javax.lang.model.util.ElementFilter;
 import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.dataflow.qual.Pure;
 import org.checkerframework.dataflow.qual.SideEffectFree;
@@ -176,6 +180,39 @@ public class MultiGraphQualifierHierarchy extends QualifierHierarchy {
     /** All qualifiers, including polymorphic qualifiers. */
     private final Set<AnnotationMirror> typeQualifiers;
 
+    /**
+     * Maps the annotation type of each qualifier to a dense index into {@link #qualifiersByIndex},
+     * {@link #supertypesByIndex}, {@link #lubTable}, and {@link #glbTable}. Null if some qualifier
+     * of the hierarchy has elements, in which case the qualifier hierarchy is not indexed and all
+     * queries go through the annotation-keyed maps.
+     *
+     * <p>When no qualifier has elements, a qualifier is determined by its annotation type, so the
+     * index of an {@link AnnotationMirror} can be found by an identity lookup of its type element
+     * instead of by comparing annotation names and element values.
+     */
+    private final @Nullable Map<Element, Integer> qualifierIndexes;
+
+    /** The qualifiers of an indexed hierarchy; see {@link #qualifierIndexes}. */
+    private final AnnotationMirror[] qualifiersByIndex;
+
+    /**
+     * The subtype relation of an indexed hierarchy, as a bit matrix: bit {@code j} of {@code
+     * supertypesByIndex[i]} is set iff qualifier {@code i} is a subtype of qualifier {@code j}.
+     */
+    private final BitSet[] supertypesByIndex;
+
+    /**
+     * The lub of each pair of qualifiers of an indexed hierarchy, or null for qualifiers in
+     * different hierarchies. Computed on first use, like {@link #lubs}.
+     */
+    private @Nullable AnnotationMirror[][] lubTable = null;
+
+    /**
+     * The glb of each pair of qualifiers of an indexed hierarchy, or null for qualifiers in
+     * different hierarchies. Computed on first use, like {@link #glbs}.
+     */
+    private @Nullable AnnotationMirror[][] glbTable = null;
+
     public MultiGraphQualifierHierarchy(MultiGraphFactory f) {
         this(f, (Object[]) null);
     }
@@ -212,9 +249,87 @@ public class MultiGraphQualifierHierarchy extends QualifierHierarchy {
         Set<AnnotationMirror> typeQualifiers = AnnotationUtils.createAnnotationSet();
         typeQualifiers.addAll(supertypesTransitive.keySet());
         this.typeQualifiers = Collections.unmodifiableSet(typeQualifiers);
+
+        if (hasElementlessQualifiersOnly(typeQualifiers)) {
+            int size = typeQualifiers.size();
+            this.qualifierIndexes = new IdentityHashMap<>(size);
+            this.qualifiersByIndex = typeQualifiers.toArray(new AnnotationMirror[size]);
+            for (int i = 0; i < size; i++) {
+                qualifierIndexes.put(qualifiersByIndex[i].getAnnotationType().asElement(), i);
+            }
+            this.supertypesByIndex = new BitSet[size];
+            for (int i = 0; i < size; i++) {
+                BitSet supertypes = new BitSet(size);
+                supertypes.set(i);
+                for (AnnotationMirror sup : supertypesTransitive.get(qualifiersByIndex[i])) {
+                    int j = indexOf(sup);
+                    if (j != -1) {
+                        supertypes.set(j);
+                    }
+                }
+                supertypesByIndex[i] = supertypes;
+            }
+        } else {
+            this.qualifierIndexes = null;
+            this.qualifiersByIndex = new AnnotationMirror[0];
+            this.supertypesByIndex = new BitSet[0];
+        }
         // System.out.println("MGH: " + this);
     }
 
+    /**
+     * Returns true if no qualifier in {@code qualifiers} has elements, so that every qualifier is
+     * determined by its annotation type alone.
+     *
+     * @param qualifiers the qualifiers of the hierarchy
+     * @return true if no qualifier in {@code qualifiers} has elements
+     */
+    private static boolean hasElementlessQualifiersOnly(Set<AnnotationMirror> qualifiers) {
+        for (AnnotationMirror qualifier : qualifiers) {
+            Element annoElement = qualifier.getAnnotationType().asElement();
+            if (!ElementFilter.methodsIn(annoElement.getEnclosedElements()).isEmpty()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index of {@code anno} in an indexed hierarchy.
+     *
+     * @param anno a qualifier, or null
+     * @return the index of {@code anno}, or -1 if the hierarchy is not indexed or {@code anno} is
+     *     null or not one of its qualifiers
+     */
+    private int indexOf(@Nullable AnnotationMirror anno) {
+        if (qualifierIndexes == null || anno == null) {
+            return -1;
+        }
+        Integer index = qualifierIndexes.get(anno.getAnnotationType().asElement());
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Returns a table of the lub or glb of each pair of qualifiers of an indexed hierarchy.
+     *
+     * @param lub true to compute lubs, false to compute glbs
+     * @return a table whose entry {@code [i][j]} is the lub or glb of the qualifiers with indexes
+     *     {@code i} and {@code j}
+     */
+    private @Nullable AnnotationMirror[][] computeBoundTable(boolean lub) {
+        int size = qualifiersByIndex.length;
+        @Nullable AnnotationMirror[][] table = new AnnotationMirror[size][size];
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                AnnotationMirror a1 = qualifiersByIndex[i];
+                AnnotationMirror a2 = qualifiersByIndex[j];
+                table[i][j] =
+                        lub ? leastUpperBoundInGraph(a1, a2) : greatestLowerBoundInGraph(a1, a2);
+            }
+        }
+        return table;
+    }
+
     @Override
     public boolean isValid() {
         return !typeQualifiers.isEmpty();
@@ -374,6 +489,25 @@ public class MultiGraphQualifierHierarchy extends QualifierHierarchy {
 
     @Override
     public AnnotationMirror leastUpperBound(AnnotationMirror a1, AnnotationMirror a2) {
+        int index1 = indexOf(a1);
+        int index2 = indexOf(a2);
+        if (index1 != -1 && index2 != -1) {
+            if (lubTable == null) {
+                lubTable = computeBoundTable(true);
+            }
+            return lubTable[index1][index2];
+        }
+        return leastUpperBoundInGraph(a1, a2);
+    }
+
+    /**
+     * Returns the lub of {@code a1} and {@code a2}, using the annotation-keyed maps.
+     *
+     * @param a1 a qualifier
+     * @param a2 a qualifier
+     * @return the lub of {@code a1} and {@code a2}, or null if they are in different hierarchies
+     */
+    private AnnotationMirror leastUpperBoundInGraph(AnnotationMirror a1, AnnotationMirror a2) {
         if (!AnnotationUtils.areSameByName(getTopAnnotation(a1), getTopAnnotation(a2))) {
             return null;
         } else if (isSubtype(a1, a2)) {
@@ -404,6 +538,25 @@ public class MultiGraphQualifierHierarchy extends QualifierHierarchy {
 
     @Override
     public AnnotationMirror greatestLowerBound(AnnotationMirror a1, AnnotationMirror a2) {
+        int index1 = indexOf(a1);
+        int index2 = indexOf(a2);
+        if (index1 != -1 && index2 != -1) {
+            if (glbTable == null) {
+                glbTable = computeBoundTable(false);
+            }
+            return glbTable[index1][index2];
+        }
+        return greatestLowerBoundInGraph(a1, a2);
+    }
+
+    /**
+     * Returns the glb of {@code a1} and {@code a2}, using the annotation-keyed maps.
+     *
+     * @param a1 a qualifier
+     * @param a2 a qualifier
+     * @return the glb of {@code a1} and {@code a2}
+     */
+    private AnnotationMirror greatestLowerBoundInGraph(AnnotationMirror a1, AnnotationMirror a2) {
         if (AnnotationUtils.areSameByName(a1, a2)) {
             return AnnotationUtils.sameElementValues(a1, a2) ? a1 : getBottomAnnotation(a1);
         }
@@ -442,6 +595,12 @@ public class MultiGraphQualifierHierarchy extends QualifierHierarchy {
      */
     @Override
     public boolean isSubtype(AnnotationMirror subAnno, AnnotationMirror superAnno) {
+        int subIndex = indexOf(subAnno);
+        int superIndex = indexOf(superAnno);
+        if (subIndex != -1 && superIndex != -1) {
+            return supertypesByIndex[subIndex].get(superIndex);
+        }
+
         checkAnnoInGraph(subAnno);
         checkAnnoInGraph(superAnno);
 
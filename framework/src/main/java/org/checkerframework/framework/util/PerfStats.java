@@ -0,0 +1,502 @@
+package org.checkerframework.framework.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Wall-time, invocation, and cache statistics of a run of a checker and its subcheckers. This class
+ * implements the {@code -AperfStats} command-line option.
+ *
+ * <p>A checker and all of its subcheckers share one instance, which is returned by {@link
+ * org.checkerframework.framework.source.SourceChecker#getPerfStats()}. Code to be measured obtains
+ * a {@link Timer} once, typically when the object that runs the code is created, and brackets each
+ * invocation by {@link Timer#start()} and {@link Timer#stop(long)}. The time of each invocation is
+ * also attributed to the current compilation unit. {@link
+ * org.checkerframework.framework.type.GenericAnnotatedTypeFactory} additionally records the time
+ * spent building the control flow graph of and analyzing each method, lambda, and initializer.
+ *
+ * <p>At the end of the run, {@link #write} prints the statistics as a JSON object with the
+ * following members:
+ *
+ * <ul>
+ *   <li>{@code phases}: for each checker and phase, the number of invocations and the total time
+ *   <li>{@code caches}: for each checker and cache, the number of hits and misses
+ *   <li>{@code compilationUnits}: for each compilation unit, the time spent in each phase, sorted
+ *       by decreasing total time
+ *   <li>{@code methods}: the {@value #MAX_METHODS} methods with the largest time spent in CFG
+ *       construction and dataflow analysis
+ * </ul>
+ *
+ * All times are in milliseconds.
+ */
+public final class PerfStats {
+
+    /** The name of the phase that builds control flow graphs. */
+    public static final String CFG = "cfg";
+
+    /** The name of the phase that runs the dataflow analysis. */
+    public static final String DATAFLOW = "dataflow";
+
+    /** The name of the phase that computes the annotated type of a tree. */
+    public static final String GET_ANNOTATED_TYPE = "getAnnotatedType";
+
+    /** The name of the phase that checks whether one annotated type is a subtype of another. */
+    public static final String IS_SUBTYPE = "isSubtype";
+
+    /** The name of the phase that parses stub files and the annotated JDK. */
+    public static final String STUB_PARSING = "stubParsing";
+
+    /** The name of the phase that type-checks a class, including flow analysis. */
+    public static final String TYPE_PROCESS = "typeProcess";
+
+    /** The maximum number of methods in the report. */
+    private static final int MAX_METHODS = 100;
+
+    /** The timers, keyed by checker and then by phase. */
+    private final Map<String, Map<String, Timer>> timers = new LinkedHashMap<>();
+
+    /** The cache statistics, keyed by checker and then by cache. */
+    private final Map<String, Map<String, CacheStats>> caches = new LinkedHashMap<>();
+
+    /**
+     * For each compilation unit, the time in nanoseconds spent in each phase, keyed by the checker
+     * and phase.
+     */
+    private final Map<String, Map<String, Long>> compilationUnits = new LinkedHashMap<>();
+
+    /** The name of the current compilation unit, or null. */
+    private @Nullable String currentCompilationUnitName;
+
+    /** The time spent in the phases of the current compilation unit, or null. */
+    private @Nullable Map<String, Long> currentCompilationUnit;
+
+    /**
+     * The {@link #MAX_METHODS} methods with the largest total time among those whose CFG was built
+     * and analyzed, with the fastest of them at the head.
+     */
+    private final PriorityQueue<MethodStats> slowestMethods =
+            new PriorityQueue<>(Comparator.comparingLong(MethodStats::totalNanos));
+
+    /**
+     * Returns the timer for the given checker and phase, creating it if necessary.
+     *
+     * @param checker the name of the checker
+     * @param phase the name of the phase, usually one of the constants of this class
+     * @return the timer for {@code phase} of {@code checker}
+     */
+    public Timer timer(String checker, String phase) {
+        return timers.computeIfAbsent(checker, c -> new LinkedHashMap<>())
+                .computeIfAbsent(phase, p -> new Timer(checker + "." + phase));
+    }
+
+    /**
+     * Returns a map that behaves like {@code cache} and counts, in the statistics of the given
+     * checker and cache name, how often lookups find a key. A lookup is either a call to {@link
+     * Map#get} or a call to {@link Map#containsKey} that is followed, if it finds the key, by a
+     * call to {@link Map#get}.
+     *
+     * @param <K> the type of keys
+     * @param <V> the type of values
+     * @param checker the name of the checker
+     * @param name the name of the cache
+     * @param cache the cache to count the hits and misses of
+     * @return a view of {@code cache} that counts hits and misses
+     */
+    public <K, V> Map<K, V> countingCache(String checker, String name, Map<K, V> cache) {
+        CacheStats stats =
+                caches.computeIfAbsent(checker, c -> new LinkedHashMap<>())
+                        .computeIfAbsent(name, n -> new CacheStats());
+        return new CountingMap<>(cache, stats);
+    }
+
+    /**
+     * Attributes the time measured from now on to the given compilation unit.
+     *
+     * @param name the name of the compilation unit, usually the name of its source file
+     */
+    public void setCompilationUnit(String name) {
+        currentCompilationUnitName = name;
+        currentCompilationUnit = compilationUnits.computeIfAbsent(name, n -> new HashMap<>());
+    }
+
+    /**
+     * Records the time spent building and analyzing the control flow graph of one method, lambda,
+     * or initializer of the current compilation unit. Only the {@link #MAX_METHODS} slowest methods
+     * are kept, because only they are reported, and {@code method} is only called for them.
+     *
+     * @param checker the name of the checker
+     * @param method computes a description of the method
+     * @param cfgNanos the time spent building the control flow graph, in nanoseconds
+     * @param dataflowNanos the time spent in the dataflow analysis, in nanoseconds
+     */
+    public void recordMethod(
+            String checker, Supplier<String> method, long cfgNanos, long dataflowNanos) {
+        if (slowestMethods.size() == MAX_METHODS) {
+            MethodStats fastest = slowestMethods.peek();
+            if (fastest == null || fastest.totalNanos() >= cfgNanos + dataflowNanos) {
+                return;
+            }
+            slowestMethods.poll();
+        }
+        slowestMethods.add(
+                new MethodStats(
+                        currentCompilationUnitName,
+                        checker,
+                        method.get(),
+                        cfgNanos,
+                        dataflowNanos));
+    }
+
+    /**
+     * Writes the statistics as JSON to the given file, or to standard output if {@code file} is
+     * null or empty.
+     *
+     * @param file the file to write to, or null
+     * @throws IOException if the file cannot be written
+     */
+    public void write(@Nullable String file) throws IOException {
+        StringBuilder json = new StringBuilder();
+        toJson(json);
+        if (file == null || file.isEmpty()) {
+            System.out.println(json);
+        } else {
+            try (Writer writer =
+                    Files.newBufferedWriter(Paths.get(file), StandardCharsets.UTF_8)) {
+                writer.write(json.toString());
+                writer.write(System.lineSeparator());
+            }
+        }
+    }
+
+    /**
+     * Appends the statistics as a JSON object to {@code json}.
+     *
+     * @param json where to append the statistics
+     */
+    private void toJson(StringBuilder json) {
+        json.append("{\n  \"phases\": [");
+        String separator = "\n";
+        for (Map.Entry<String, Map<String, Timer>> checker : timers.entrySet()) {
+            for (Map.Entry<String, Timer> phase : checker.getValue().entrySet()) {
+                Timer timer = phase.getValue();
+                json.append(separator).append("    {\"checker\": ");
+                appendString(json, checker.getKey());
+                json.append(", \"phase\": ");
+                appendString(json, phase.getKey());
+                json.append(", \"invocations\": ").append(timer.invocations);
+                json.append(", \"millis\": ").append(millis(timer.totalNanos)).append('}');
+                separator = ",\n";
+            }
+        }
+
+        json.append("\n  ],\n  \"caches\": [");
+        separator = "\n";
+        for (Map.Entry<String, Map<String, CacheStats>> checker : caches.entrySet()) {
+            for (Map.Entry<String, CacheStats> cache : checker.getValue().entrySet()) {
+                CacheStats stats = cache.getValue();
+                long lookups = stats.hits + stats.misses;
+                json.append(separator).append("    {\"checker\": ");
+                appendString(json, checker.getKey());
+                json.append(", \"cache\": ");
+                appendString(json, cache.getKey());
+                json.append(", \"hits\": ").append(stats.hits);
+                json.append(", \"misses\": ").append(stats.misses);
+                json.append(", \"hitRate\": ")
+                        .append(
+                                String.format(
+                                        Locale.ROOT,
+                                        "%.4f",
+                                        lookups == 0 ? 0.0 : (double) stats.hits / lookups))
+                        .append('}');
+                separator = ",\n";
+            }
+        }
+
+        json.append("\n  ],\n  \"compilationUnits\": [");
+        List<Map.Entry<String, Map<String, Long>>> units =
+                new ArrayList<>(compilationUnits.entrySet());
+        units.sort(
+                Comparator.comparingLong(
+                                (Map.Entry<String, Map<String, Long>> unit) ->
+                                        total(unit.getValue()))
+                        .reversed());
+        separator = "\n";
+        for (Map.Entry<String, Map<String, Long>> unit : units) {
+            json.append(separator).append("    {\"file\": ");
+            appendString(json, unit.getKey());
+            json.append(", \"millis\": {");
+            String phaseSeparator = "";
+            for (Map.Entry<String, Long> phase : unit.getValue().entrySet()) {
+                json.append(phaseSeparator);
+                appendString(json, phase.getKey());
+                json.append(": ").append(millis(phase.getValue()));
+                phaseSeparator = ", ";
+            }
+            json.append("}}");
+            separator = ",\n";
+        }
+
+        json.append("\n  ],\n  \"methods\": [");
+        List<MethodStats> slowest = new ArrayList<>(slowestMethods);
+        slowest.sort(Comparator.comparingLong(MethodStats::totalNanos).reversed());
+        separator = "\n";
+        for (MethodStats method : slowest) {
+            json.append(separator).append("    {\"file\": ");
+            appendString(json, String.valueOf(method.file));
+            json.append(", \"checker\": ");
+            appendString(json, method.checker);
+            json.append(", \"method\": ");
+            appendString(json, method.method);
+            json.append(", \"cfgMillis\": ").append(millis(method.cfgNanos));
+            json.append(", \"dataflowMillis\": ").append(millis(method.dataflowNanos));
+            json.append('}');
+            separator = ",\n";
+        }
+        json.append("\n  ]\n}");
+    }
+
+    /**
+     * Returns the sum of the values of {@code phases}.
+     *
+     * @param phases the time spent in each phase
+     * @return the total time
+     */
+    private static long total(Map<String, Long> phases) {
+        long total = 0;
+        for (long nanos : phases.values()) {
+            total += nanos;
+        }
+        return total;
+    }
+
+    /**
+     * Formats a duration in milliseconds.
+     *
+     * @param nanos a duration in nanoseconds
+     * @return {@code nanos} in milliseconds, with three decimal places
+     */
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1e6);
+    }
+
+    /**
+     * Appends a JSON string literal to {@code json}.
+     *
+     * @param json where to append the literal
+     * @param s the value of the literal
+     */
+    private static void appendString(StringBuilder json, String s) {
+        json.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    /**
+     * Measures the invocations of one phase of one checker. Nested invocations of the same phase,
+     * such as recursive calls, are counted but their time is only included in that of the
+     * outermost invocation.
+     */
+    public final class Timer {
+        /** The key of this timer in the per-compilation-unit statistics. */
+        private final String key;
+
+        /** The number of invocations. */
+        private long invocations;
+
+        /** The total time of the outermost invocations, in nanoseconds. */
+        private long totalNanos;
+
+        /** The number of invocations in progress. */
+        private int depth;
+
+        /**
+         * Creates a timer.
+         *
+         * @param key the key of this timer in the per-compilation-unit statistics
+         */
+        private Timer(String key) {
+            this.key = key;
+        }
+
+        /**
+         * Records the start of an invocation.
+         *
+         * @return the value to pass to {@link #stop}
+         */
+        public long start() {
+            invocations++;
+            return depth++ == 0 ? System.nanoTime() : 0;
+        }
+
+        /**
+         * Records the end of an invocation.
+         *
+         * @param start the result of the matching call to {@link #start}
+         * @return the duration of the invocation in nanoseconds if it is the outermost one, or 0
+         */
+        public long stop(long start) {
+            if (--depth != 0) {
+                return 0;
+            }
+            long elapsed = System.nanoTime() - start;
+            totalNanos += elapsed;
+            if (currentCompilationUnit != null) {
+                currentCompilationUnit.merge(key, elapsed, Long::sum);
+            }
+            return elapsed;
+        }
+    }
+
+    /** The number of hits and misses of a cache. */
+    private static class CacheStats {
+        /** The number of lookups that found a key. */
+        long hits;
+
+        /** The number of lookups that did not find a key. */
+        long misses;
+    }
+
+    /**
+     * A map that forwards to another map and counts how often lookups find a key.
+     *
+     * @param <K> the type of keys
+     * @param <V> the type of values
+     */
+    private static class CountingMap<K, V> extends AbstractMap<K, V> {
+        /** The map that holds the entries. */
+        private final Map<K, V> delegate;
+
+        /** Where to count hits and misses. */
+        private final CacheStats stats;
+
+        /**
+         * Creates a counting view of {@code delegate}.
+         *
+         * @param delegate the map that holds the entries
+         * @param stats where to count hits and misses
+         */
+        CountingMap(Map<K, V> delegate, CacheStats stats) {
+            this.delegate = delegate;
+            this.stats = stats;
+        }
+
+        @Override
+        public boolean containsKey(@Nullable Object key) {
+            // A hit is counted by the call to get that follows it.
+            boolean found = delegate.containsKey(key);
+            if (!found) {
+                stats.misses++;
+            }
+            return found;
+        }
+
+        @Override
+        public @Nullable V get(@Nullable Object key) {
+            V value = delegate.get(key);
+            if (value != null || delegate.containsKey(key)) {
+                stats.hits++;
+            } else {
+                stats.misses++;
+            }
+            return value;
+        }
+
+        @Override
+        public @Nullable V put(K key, V value) {
+            return delegate.put(key, value);
+        }
+
+        @Override
+        public @Nullable V remove(@Nullable Object key) {
+            return delegate.remove(key);
+        }
+
+        @Override
+        public void clear() {
+            delegate.clear();
+        }
+
+        @Override
+        public int size() {
+            return delegate.size();
+        }
+
+        @Override
+        public Set<Entry<K, V>> entrySet() {
+            return delegate.entrySet();
+        }
+    }
+
+    /** The time spent building and analyzing the control flow graph of a method. */
+    private static class MethodStats {
+        /** The name of the compilation unit that contains the method, or null. */
+        final @Nullable String file;
+
+        /** The name of the checker. */
+        final String checker;
+
+        /** A description of the method. */
+        final String method;
+
+        /** The time spent building the control flow graph, in nanoseconds. */
+        final long cfgNanos;
+
+        /** The time spent in the dataflow analysis, in nanoseconds. */
+        final long dataflowNanos;
+
+        /**
+         * Creates the statistics of a method.
+         *
+         * @param file the name of the compilation unit that contains the method, or null
+         * @param checker the name of the checker
+         * @param method a description of the method
+         * @param cfgNanos the time spent building the control flow graph, in nanoseconds
+         * @param dataflowNanos the time spent in the dataflow analysis, in nanoseconds
+         */
+        MethodStats(
+                @Nullable String file,
+                String checker,
+                String method,
+                long cfgNanos,
+                long dataflowNanos) {
+            this.file = file;
+            this.checker = checker;
+            this.method = method;
+            this.cfgNanos = cfgNanos;
+            this.dataflowNanos = dataflowNanos;
+        }
+
+        /**
+         * Returns the total time spent on the method.
+         *
+         * @return the total time spent on the method, in nanoseconds
+         */
+        long totalNanos() {
+            return cfgNanos + dataflowNanos;
+        }
+    }
+}
@@ -21,6 +21,7 @@ import javax.lang.model.type.TypeKind;
 import javax.lang.model.type.TypeVariable;
 import javax.lang.model.util.Types;
 import javax.tools.Diagnostic.Kind;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.framework.source.SourceChecker;
 import org.checkerframework.framework.type.AnnotatedTypeFactory;
 import org.checkerframework.framework.type.AnnotatedTypeMirror;
@@ -28,9 +29,11 @@ import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedExecutab
 import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedPrimitiveType;
 import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedTypeVariable;
 import org.checkerframework.framework.type.QualifierHierarchy;
+import org.checkerframework.framework.type.SameTypeAtmComparer;
 import org.checkerframework.framework.type.TypeHierarchy;
 import org.checkerframework.framework.util.AnnotatedTypes;
 import org.checkerframework.framework.util.AnnotationMirrorSet;
+import org.checkerframework.framework.util.PerfStats;
 import org.checkerframework.framework.util.typeinference.constraint.A2F;
 import org.checkerframework.framework.util.typeinference.constraint.A2FReducer;
 import org.checkerframework.framework.util.typeinference.constraint.AFConstraint;
@@ -51,6 +54,7 @@ import org.checkerframework.framework.util.typeinference.solver.InferredValue.In
 import org.checkerframework.framework.util.typeinference.solver.SubtypesSolver;
 import org.checkerframework.framework.util.typeinference.solver.SupertypesSolver;
 import org.checkerframework.javacutil.BugInCF;
+import org.checkerframework.javacutil.CollectionUtils;
 import org.checkerframework.javacutil.Pair;
 import org.checkerframework.javacutil.SystemUtil;
 import org.checkerframework.javacutil.TreeUtils;
@@ -104,9 +108,43 @@ public class DefaultTypeArgumentInference implements TypeArgumentInference {
 
     private final boolean showInferenceSteps;
 
+    /** The maximum number of entries in {@link #inferenceCache}. */
+    private static final int INFERENCE_CACHE_SIZE = 300;
+
+    /**
+     * Caches the type arguments inferred for an invocation, before they are corrected to match the
+     * Java types of the invocation. Null if the type factory does not cache or if {@code
+     * -AshowInferenceSteps} was supplied.
+     *
+     * <p>Inference only depends on the invoked method, its annotated type, the annotated types of
+     * the arguments, and the annotated type of the assignment context, so invocations for which
+     * all of these are the same share an entry. This is common for generic factory methods such
+     * as {@code Collections.emptyList()} and {@code ImmutableList.of(...)}.
+     */
+    private final @Nullable Map<InferenceCacheKey, Map<TypeVariable, AnnotatedTypeMirror>>
+            inferenceCache;
+
+    /** Compares the annotated types in the keys of {@link #inferenceCache}. */
+    private final SameTypeAtmComparer sameTypeComparer;
+
     public DefaultTypeArgumentInference(AnnotatedTypeFactory typeFactory) {
-        this.showInferenceSteps =
-                typeFactory.getContext().getChecker().hasOption("showInferenceSteps");
+        SourceChecker checker = typeFactory.getContext().getChecker();
+        this.showInferenceSteps = checker.hasOption("showInferenceSteps");
+        this.sameTypeComparer =
+                new SameTypeAtmComparer(typeFactory.getProcessingEnv().getTypeUtils());
+        if (typeFactory.shouldCache && !showInferenceSteps) {
+            Map<InferenceCacheKey, Map<TypeVariable, AnnotatedTypeMirror>> cache =
+                    CollectionUtils.createLRUCache(INFERENCE_CACHE_SIZE);
+            PerfStats perfStats = checker.getPerfStats();
+            if (perfStats != null) {
+                cache =
+                        perfStats.countingCache(
+                                checker.getClass().getSimpleName(), "inferenceCache", cache);
+            }
+            this.inferenceCache = cache;
+        } else {
+            this.inferenceCache = null;
+        }
     }
 
     @Override
@@ -158,6 +196,17 @@ public class DefaultTypeArgumentInference implements TypeArgumentInference {
         if (assignedTo == null) {
             assignedTo = typeFactory.getDummyAssignedTo(expressionTree);
         }
+        InferenceCacheKey cacheKey = null;
+        if (inferenceCache != null) {
+            cacheKey = new InferenceCacheKey(methodElem, methodType, assignedTo, argTypes);
+            Map<TypeVariable, AnnotatedTypeMirror> cached = inferenceCache.get(cacheKey);
+            if (cached != null) {
+                return correctResults(
+                        copyInferredArgs(cached), expressionTree, methodType, typeFactory);
+            }
+            // Inference may modify the types, so the key must not share them.
+            cacheKey = cacheKey.deepCopy();
+        }
         Map<TypeVariable, AnnotatedTypeMirror> inferredArgs;
         try {
             inferredArgs =
@@ -189,6 +238,27 @@ public class DefaultTypeArgumentInference implements TypeArgumentInference {
         if (showInferenceSteps) {
             checker.message(Kind.NOTE, "  results: %s", inferredArgs);
         }
+        if (cacheKey != null) {
+            inferenceCache.put(cacheKey, copyInferredArgs(inferredArgs));
+        }
+        return correctResults(inferredArgs, expressionTree, methodType, typeFactory);
+    }
+
+    /**
+     * Corrects the inferred type arguments so that their underlying types are those that javac
+     * inferred for the invocation.
+     *
+     * @param inferredArgs the inferred type arguments; may be modified
+     * @param expressionTree the method invocation or constructor invocation
+     * @param methodType the annotated type of the invoked method
+     * @param typeFactory the type factory
+     * @return the corrected type arguments
+     */
+    private Map<TypeVariable, AnnotatedTypeMirror> correctResults(
+            Map<TypeVariable, AnnotatedTypeMirror> inferredArgs,
+            ExpressionTree expressionTree,
+            AnnotatedExecutableType methodType,
+            AnnotatedTypeFactory typeFactory) {
         try {
             return TypeArgInferenceUtil.correctResults(
                     inferredArgs, expressionTree, methodType.getUnderlyingType(), typeFactory);
@@ -198,6 +268,21 @@ public class DefaultTypeArgumentInference implements TypeArgumentInference {
         }
     }
 
+    /**
+     * Returns a copy of the given inferred type arguments that shares no types with it.
+     *
+     * @param inferredArgs inferred type arguments
+     * @return a deep copy of {@code inferredArgs}
+     */
+    private static Map<TypeVariable, AnnotatedTypeMirror> copyInferredArgs(
+            Map<TypeVariable, AnnotatedTypeMirror> inferredArgs) {
+        Map<TypeVariable, AnnotatedTypeMirror> copy = new LinkedHashMap<>();
+        for (Map.Entry<TypeVariable, AnnotatedTypeMirror> entry : inferredArgs.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue().deepCopy());
+        }
+        return copy;
+    }
+
     /**
      * If one of the inferredArgs are NullType, then re-run inference ignoring null method
      * arguments. Then lub the result of the second inference with the NullType and put the new
@@ -882,4 +967,113 @@ public class DefaultTypeArgumentInference implements TypeArgumentInference {
 
         return atv;
     }
+
+    /** The key of {@link #inferenceCache}: the annotated types on which inference depends. */
+    private final class InferenceCacheKey {
+        /** The invoked method. */
+        private final ExecutableElement methodElem;
+
+        /**
+         * The annotated type of the invoked method, the annotated type of the assignment context
+         * (null if there is none), and the annotated types of the arguments.
+         */
+        private final List<@Nullable AnnotatedTypeMirror> types;
+
+        /**
+         * The type variables of the invoked method, which are the keys of the inferred type
+         * arguments. Compared by identity: two executable types can be the same type even if their
+         * type variables are distinct.
+         */
+        private final List<? extends TypeVariable> typeVariables;
+
+        /** The hash code of this key. */
+        private final int hashCode;
+
+        /**
+         * Creates a key.
+         *
+         * @param methodElem the invoked method
+         * @param methodType the annotated type of the invoked method
+         * @param assignedTo the annotated type of the assignment context, or null if there is none
+         * @param argTypes the annotated types of the arguments
+         */
+        InferenceCacheKey(
+                ExecutableElement methodElem,
+                AnnotatedExecutableType methodType,
+                @Nullable AnnotatedTypeMirror assignedTo,
+                List<AnnotatedTypeMirror> argTypes) {
+            this.methodElem = methodElem;
+            this.typeVariables = methodType.getUnderlyingType().getTypeVariables();
+            this.types = new ArrayList<>(argTypes.size() + 2);
+            types.add(methodType);
+            types.add(assignedTo);
+            types.addAll(argTypes);
+            this.hashCode = 31 * methodElem.hashCode() + types.hashCode();
+        }
+
+        /**
+         * Creates a key with the given fields.
+         *
+         * @param methodElem the invoked method
+         * @param typeVariables the type variables of the invoked method
+         * @param types the annotated types on which inference depends
+         * @param hashCode the hash code of the key
+         */
+        private InferenceCacheKey(
+                ExecutableElement methodElem,
+                List<? extends TypeVariable> typeVariables,
+                List<@Nullable AnnotatedTypeMirror> types,
+                int hashCode) {
+            this.methodElem = methodElem;
+            this.typeVariables = typeVariables;
+            this.types = types;
+            this.hashCode = hashCode;
+        }
+
+        /**
+         * Returns a copy of this key that shares no types with it.
+         *
+         * @return a deep copy of this key
+         */
+        InferenceCacheKey deepCopy() {
+            List<@Nullable AnnotatedTypeMirror> typesCopy = new ArrayList<>(types.size());
+            for (@Nullable AnnotatedTypeMirror type : types) {
+                typesCopy.add(type == null ? null : type.deepCopy());
+            }
+            return new InferenceCacheKey(methodElem, typeVariables, typesCopy, hashCode);
+        }
+
+        @Override
+        public boolean equals(@Nullable Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof InferenceCacheKey)) {
+                return false;
+            }
+            InferenceCacheKey other = (InferenceCacheKey) o;
+            if (hashCode != other.hashCode
+                    || methodElem != other.methodElem
+                    || types.size() != other.types.size()
+                    || typeVariables.size() != other.typeVariables.size()) {
+                return false;
+            }
+            for (int i = 0; i < typeVariables.size(); i++) {
+                if (typeVariables.get(i) != other.typeVariables.get(i)) {
+                    return false;
+                }
+            }
+            for (int i = 0; i < types.size(); i++) {
+                if (!sameTypeComparer.visit(types.get(i), other.types.get(i), null)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
 }
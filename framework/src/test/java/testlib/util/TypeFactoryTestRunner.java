@@ -0,0 +1,73 @@
+package testlib.util;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import org.checkerframework.common.value.ValueChecker;
+import org.checkerframework.framework.type.AnnotatedTypeFactory;
+import org.junit.Assert;
+
+/**
+ * Runs unit tests that need an {@link AnnotatedTypeFactory}. Annotated types can only be created
+ * while a checker runs, so the tests are run at the end of type processing of the Constant Value
+ * Checker on a single class.
+ */
+public class TypeFactoryTestRunner {
+
+    /** Do not instantiate. */
+    private TypeFactoryTestRunner() {
+        throw new AssertionError("Class TypeFactoryTestRunner cannot be instantiated.");
+    }
+
+    /**
+     * Runs the Constant Value Checker on {@code source} and runs {@code test} with its type factory
+     * at the end of type processing. Rethrows any exception or error thrown by {@code test}.
+     *
+     * @param source the source code of a compilation unit that declares a class named {@code Test}
+     * @param test the test to run
+     */
+    public static void run(String source, Consumer<AnnotatedTypeFactory> test) {
+        boolean[] ran = new boolean[1];
+        Throwable[] failure = new Throwable[1];
+        ValueChecker checker =
+                new ValueChecker() {
+                    @Override
+                    public void typeProcessingOver() {
+                        ran[0] = true;
+                        try {
+                            test.accept(getTypeFactory());
+                        } catch (Throwable t) {
+                            failure[0] = t;
+                        }
+                        super.typeProcessingOver();
+                    }
+                };
+        JavaFileObject file =
+                new SimpleJavaFileObject(
+                        URI.create("string:///Test.java"), JavaFileObject.Kind.SOURCE) {
+                    @Override
+                    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                        return source;
+                    }
+                };
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        List<String> options =
+                Arrays.asList("-proc:only", "-classpath", System.getProperty("java.class.path"));
+        JavaCompiler.CompilationTask task =
+                compiler.getTask(null, null, null, options, null, Collections.singletonList(file));
+        task.setProcessors(Collections.singletonList(checker));
+        Assert.assertTrue(task.call());
+        Assert.assertTrue("typeProcessingOver was not called", ran[0]);
+        if (failure[0] instanceof Error) {
+            throw (Error) failure[0];
+        } else if (failure[0] != null) {
+            throw new AssertionError(failure[0]);
+        }
+    }
+}
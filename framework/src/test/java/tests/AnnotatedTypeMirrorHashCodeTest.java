@@ -0,0 +1,270 @@
+package tests;
+
+import java.util.Arrays;
+import java.util.Collections;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import org.checkerframework.common.value.qual.BottomVal;
+import org.checkerframework.common.value.qual.IntVal;
+import org.checkerframework.common.value.qual.UnknownVal;
+import org.checkerframework.framework.type.AnnotatedTypeFactory;
+import org.checkerframework.framework.type.AnnotatedTypeMirror;
+import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedArrayType;
+import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedDeclaredType;
+import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedTypeVariable;
+import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedWildcardType;
+import org.checkerframework.framework.type.EqualityAtmComparer;
+import org.checkerframework.framework.type.HashcodeAtmVisitor;
+import org.checkerframework.javacutil.AnnotationBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+import testlib.util.TypeFactoryTestRunner;
+
+/**
+ * Tests that {@link AnnotatedTypeMirror#equals} and {@link AnnotatedTypeMirror#hashCode}, which
+ * caches its result, agree with {@link EqualityAtmComparer} and {@link HashcodeAtmVisitor} after a
+ * component of a hashed type is modified.
+ *
+ * <p>The types are created by the type factory of the Constant Value Checker, through {@link
+ * TypeFactoryTestRunner}.
+ */
+public class AnnotatedTypeMirrorHashCodeTest {
+
+    @Test
+    public void testTypeArgument() {
+        TypeFactoryTestRunner.run(
+                "class Test {}",
+                factory -> {
+                    Elements elements = factory.getElementUtils();
+                    Types types = factory.getProcessingEnv().getTypeUtils();
+                    TypeMirror listOfString =
+                            types.getDeclaredType(
+                                    elements.getTypeElement("java.util.List"),
+                                    elements.getTypeElement("java.lang.String").asType());
+                    AnnotatedDeclaredType type =
+                            (AnnotatedDeclaredType)
+                                    AnnotatedTypeMirror.createType(listOfString, factory, false);
+                    type.addAnnotation(unknownVal(factory));
+                    type.getTypeArguments().get(0).addAnnotation(unknownVal(factory));
+                    AnnotatedDeclaredType copy = type.deepCopy();
+                    assertConsistent(type, copy, true);
+
+                    type.getTypeArguments().get(0).replaceAnnotation(bottomVal(factory));
+                    assertConsistent(type, copy, false);
+
+                    copy.getTypeArguments().get(0).replaceAnnotation(bottomVal(factory));
+                    assertConsistent(type, copy, true);
+
+                    // Replace a type argument rather than modifying it.
+                    AnnotatedTypeMirror argument = type.getTypeArguments().get(0).deepCopy();
+                    argument.replaceAnnotation(unknownVal(factory));
+                    type.setTypeArguments(Collections.singletonList(argument));
+                    assertConsistent(type, copy, false);
+                });
+    }
+
+    @Test
+    public void testArrayComponent() {
+        TypeFactoryTestRunner.run(
+                "class Test {}",
+                factory -> {
+                    Types types = factory.getProcessingEnv().getTypeUtils();
+                    TypeMirror stringArrayArray =
+                            types.getArrayType(
+                                    types.getArrayType(
+                                            factory.getElementUtils()
+                                                    .getTypeElement("java.lang.String")
+                                                    .asType()));
+                    AnnotatedArrayType type =
+                            (AnnotatedArrayType)
+                                    AnnotatedTypeMirror.createType(
+                                            stringArrayArray, factory, false);
+                    type.addAnnotation(unknownVal(factory));
+                    AnnotatedArrayType component = (AnnotatedArrayType) type.getComponentType();
+                    component.addAnnotation(unknownVal(factory));
+                    component.getComponentType().addAnnotation(unknownVal(factory));
+                    AnnotatedArrayType copy = type.deepCopy();
+                    assertConsistent(type, copy, true);
+
+                    // Modify the innermost component, two levels below the hashed type.
+                    component.getComponentType().replaceAnnotation(bottomVal(factory));
+                    assertConsistent(type, copy, false);
+                    assertConsistent(component, copy.getComponentType(), false);
+
+                    ((AnnotatedArrayType) copy.getComponentType())
+                            .getComponentType()
+                            .replaceAnnotation(bottomVal(factory));
+                    assertConsistent(type, copy, true);
+
+                    type.setComponentType(copy.getComponentType().deepCopy());
+                    assertConsistent(type, copy, true);
+                    copy.getComponentType().replaceAnnotation(bottomVal(factory));
+                    assertConsistent(type, copy, false);
+                });
+    }
+
+    @Test
+    public void testWildcardBound() {
+        TypeFactoryTestRunner.run(
+                "class Test {}",
+                factory -> {
+                    Elements elements = factory.getElementUtils();
+                    Types types = factory.getProcessingEnv().getTypeUtils();
+                    TypeMirror listOfWildcard =
+                            types.getDeclaredType(
+                                    elements.getTypeElement("java.util.List"),
+                                    types.getWildcardType(
+                                            elements.getTypeElement("java.lang.Number").asType(),
+                                            null));
+                    AnnotatedDeclaredType type =
+                            (AnnotatedDeclaredType)
+                                    AnnotatedTypeMirror.createType(listOfWildcard, factory, false);
+                    AnnotatedWildcardType wildcard =
+                            (AnnotatedWildcardType) type.getTypeArguments().get(0);
+                    wildcard.getExtendsBound().replaceAnnotation(unknownVal(factory));
+                    wildcard.getSuperBound().replaceAnnotation(bottomVal(factory));
+                    AnnotatedDeclaredType copy = type.deepCopy();
+                    assertConsistent(type, copy, true);
+
+                    wildcard.getExtendsBound().replaceAnnotation(bottomVal(factory));
+                    assertConsistent(type, copy, false);
+
+                    ((AnnotatedWildcardType) copy.getTypeArguments().get(0))
+                            .getExtendsBound()
+                            .replaceAnnotation(bottomVal(factory));
+                    assertConsistent(type, copy, true);
+                });
+    }
+
+    @Test
+    public void testTypeVariableBound() {
+        TypeFactoryTestRunner.run(
+                "class Test {}",
+                factory -> {
+                    TypeElement list = factory.getElementUtils().getTypeElement("java.util.List");
+                    AnnotatedDeclaredType type = factory.getAnnotatedType(list);
+                    AnnotatedTypeVariable typeVariable =
+                            (AnnotatedTypeVariable) type.getTypeArguments().get(0);
+                    typeVariable.getUpperBound().replaceAnnotation(unknownVal(factory));
+                    typeVariable.getLowerBound().replaceAnnotation(bottomVal(factory));
+                    AnnotatedDeclaredType copy = type.deepCopy();
+                    assertConsistent(type, copy, true);
+
+                    typeVariable.getUpperBound().replaceAnnotation(bottomVal(factory));
+                    assertConsistent(type, copy, false);
+                    assertConsistent(typeVariable, copy.getTypeArguments().get(0), false);
+
+                    ((AnnotatedTypeVariable) copy.getTypeArguments().get(0))
+                            .getUpperBound()
+                            .replaceAnnotation(bottomVal(factory));
+                    assertConsistent(type, copy, true);
+                });
+    }
+
+    @Test
+    public void testEnclosingType() {
+        TypeFactoryTestRunner.run(
+                "class Test { class Inner {} }",
+                factory -> {
+                    TypeMirror inner =
+                            factory.getElementUtils().getTypeElement("Test.Inner").asType();
+                    AnnotatedDeclaredType type =
+                            (AnnotatedDeclaredType)
+                                    AnnotatedTypeMirror.createType(inner, factory, false);
+                    type.addAnnotation(unknownVal(factory));
+                    type.getEnclosingType().addAnnotation(unknownVal(factory));
+                    AnnotatedDeclaredType copy = type.deepCopy();
+                    assertConsistent(type, copy, true);
+
+                    // @UnknownVal Test.@UnknownVal Inner and @BottomVal Test.@UnknownVal Inner
+                    copy.getEnclosingType().replaceAnnotation(bottomVal(factory));
+                    assertConsistent(type, copy, false);
+
+                    type.getEnclosingType().replaceAnnotation(bottomVal(factory));
+                    assertConsistent(type, copy, true);
+                });
+    }
+
+    @Test
+    public void testElementValues() {
+        TypeFactoryTestRunner.run(
+                "class Test {}",
+                factory -> {
+                    TypeMirror integer =
+                            factory.getElementUtils().getTypeElement("java.lang.Integer").asType();
+                    AnnotatedTypeMirror type =
+                            AnnotatedTypeMirror.createType(integer, factory, false);
+                    type.addAnnotation(intVal(factory, 1L, 2L));
+                    AnnotatedTypeMirror copy = type.deepCopy();
+                    assertConsistent(type, copy, true);
+
+                    copy.replaceAnnotation(intVal(factory, 1L, 3L));
+                    assertConsistent(type, copy, false);
+                    // Types that differ only in element values should not share a hash code.
+                    Assert.assertNotEquals(type.hashCode(), copy.hashCode());
+
+                    copy.replaceAnnotation(intVal(factory, 1L, 2L));
+                    assertConsistent(type, copy, true);
+                });
+    }
+
+    /**
+     * Hashes both types, then checks that {@link AnnotatedTypeMirror#equals} agrees with {@link
+     * EqualityAtmComparer}, and that {@link AnnotatedTypeMirror#hashCode} agrees with {@link
+     * HashcodeAtmVisitor} and is equal for equal types.
+     *
+     * @param type1 a type
+     * @param type2 another type
+     * @param expectedEqual whether the types are expected to be equal
+     */
+    private static void assertConsistent(
+            AnnotatedTypeMirror type1, AnnotatedTypeMirror type2, boolean expectedEqual) {
+        int hashCode1 = type1.hashCode();
+        int hashCode2 = type2.hashCode();
+        Assert.assertEquals(new HashcodeAtmVisitor().visit(type1).intValue(), hashCode1);
+        Assert.assertEquals(new HashcodeAtmVisitor().visit(type2).intValue(), hashCode2);
+        boolean equal = new EqualityAtmComparer().visit(type1, type2, null);
+        Assert.assertEquals(type1 + " and " + type2, expectedEqual, equal);
+        Assert.assertEquals(equal, type1.equals(type2));
+        Assert.assertEquals(equal, type2.equals(type1));
+        if (equal) {
+            Assert.assertEquals(hashCode1, hashCode2);
+        }
+    }
+
+    /**
+     * Returns {@code @UnknownVal}.
+     *
+     * @param factory the type factory of the Constant Value Checker
+     * @return {@code @UnknownVal}
+     */
+    private static AnnotationMirror unknownVal(AnnotatedTypeFactory factory) {
+        return AnnotationBuilder.fromClass(factory.getElementUtils(), UnknownVal.class);
+    }
+
+    /**
+     * Returns {@code @IntVal} with the given values.
+     *
+     * @param factory the type factory of the Constant Value Checker
+     * @param values the values of the annotation
+     * @return {@code @IntVal(values)}
+     */
+    private static AnnotationMirror intVal(AnnotatedTypeFactory factory, Long... values) {
+        AnnotationBuilder builder = new AnnotationBuilder(factory.getProcessingEnv(), IntVal.class);
+        builder.setValue("value", Arrays.asList(values));
+        return builder.build();
+    }
+
+    /**
+     * Returns {@code @BottomVal}.
+     *
+     * @param factory the type factory of the Constant Value Checker
+     * @return {@code @BottomVal}
+     */
+    private static AnnotationMirror bottomVal(AnnotatedTypeFactory factory) {
+        return AnnotationBuilder.fromClass(factory.getElementUtils(), BottomVal.class);
+    }
+}
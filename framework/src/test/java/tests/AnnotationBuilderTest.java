@@ -101,6 +101,27 @@ public class AnnotationBuilderTest {
         Assert.assertEquals(1, builder.build().getElementValues().size());
     }
 
+    @Test
+    public void internedEqualValues() {
+        AnnotationBuilder builder1 = new AnnotationBuilder(env, AnnoWithStringArg.class);
+        builder1.setValue("value", "m");
+        AnnotationBuilder builder2 = new AnnotationBuilder(env, AnnoWithStringArg.class);
+        builder2.setValue("value", "m");
+        Assert.assertSame(builder1.build(), builder2.build());
+        Assert.assertSame(
+                AnnotationBuilder.fromClass(env.getElementUtils(), Encrypted.class),
+                new AnnotationBuilder(env, Encrypted.class).build());
+    }
+
+    @Test
+    public void internedDifferentValues() {
+        AnnotationBuilder builder1 = new AnnotationBuilder(env, AnnoWithStringArg.class);
+        builder1.setValue("value", "m");
+        AnnotationBuilder builder2 = new AnnotationBuilder(env, AnnoWithStringArg.class);
+        builder2.setValue("value", "n");
+        Assert.assertNotSame(builder1.build(), builder2.build());
+    }
+
     @Test
     public void listArrayObject() {
         AnnotationBuilder builder = new AnnotationBuilder(env, B.class);
@@ -0,0 +1,233 @@
+package tests;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.checkerframework.framework.flow.CopyOnWriteHashMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+/** Tests that copies of a {@link CopyOnWriteHashMap} are isolated from each other. */
+public class CopyOnWriteHashMapTest {
+
+    /**
+     * Returns a map with the entries {@code 1=one}, {@code 2=two}, and {@code 3=three}.
+     *
+     * @return a map with three entries
+     */
+    private static CopyOnWriteHashMap<Integer, String> threeEntries() {
+        CopyOnWriteHashMap<Integer, String> map = new CopyOnWriteHashMap<>();
+        map.put(1, "one");
+        map.put(2, "two");
+        map.put(3, "three");
+        return map;
+    }
+
+    /**
+     * Asserts that {@code actual} has the same entries as {@code expected} and that {@code equals}
+     * and {@code hashCode} agree with {@link HashMap}'s in both directions.
+     *
+     * @param expected the expected entries
+     * @param actual the map to check
+     */
+    private static void assertSameEntries(
+            Map<Integer, String> expected, Map<Integer, String> actual) {
+        Assert.assertEquals(expected, actual);
+        Assert.assertEquals(actual, expected);
+        Assert.assertEquals(expected.hashCode(), actual.hashCode());
+        Assert.assertEquals(expected.size(), actual.size());
+        Assert.assertEquals(expected.entrySet(), actual.entrySet());
+        Assert.assertEquals(expected.keySet(), actual.keySet());
+    }
+
+    @Test
+    public void testPut() {
+        CopyOnWriteHashMap<Integer, String> original = threeEntries();
+        CopyOnWriteHashMap<Integer, String> copy = new CopyOnWriteHashMap<>(original);
+        Map<Integer, String> expectedOriginal = new HashMap<>(original);
+        Map<Integer, String> expectedCopy = new HashMap<>(original);
+        assertSameEntries(expectedOriginal, copy);
+
+        copy.put(4, "four");
+        expectedCopy.put(4, "four");
+        assertSameEntries(expectedOriginal, original);
+        assertSameEntries(expectedCopy, copy);
+        Assert.assertNotEquals(original, copy);
+
+        original.put(1, "uno");
+        expectedOriginal.put(1, "uno");
+        assertSameEntries(expectedOriginal, original);
+        assertSameEntries(expectedCopy, copy);
+    }
+
+    @Test
+    public void testRemove() {
+        CopyOnWriteHashMap<Integer, String> original = threeEntries();
+        CopyOnWriteHashMap<Integer, String> copy = CopyOnWriteHashMap.copyOf(original);
+        Map<Integer, String> expectedOriginal = new HashMap<>(original);
+        Map<Integer, String> expectedCopy = new HashMap<>(original);
+
+        Assert.assertEquals("two", original.remove(2));
+        expectedOriginal.remove(2);
+        assertSameEntries(expectedOriginal, original);
+        assertSameEntries(expectedCopy, copy);
+
+        Assert.assertNull(copy.remove(5));
+        Assert.assertEquals("three", copy.remove(3));
+        expectedCopy.remove(3);
+        assertSameEntries(expectedOriginal, original);
+        assertSameEntries(expectedCopy, copy);
+
+        copy.clear();
+        expectedCopy.clear();
+        assertSameEntries(expectedOriginal, original);
+        assertSameEntries(expectedCopy, copy);
+    }
+
+    @Test
+    public void testIteratorRemove() {
+        CopyOnWriteHashMap<Integer, String> original = threeEntries();
+        CopyOnWriteHashMap<Integer, String> copy = new CopyOnWriteHashMap<>(original);
+        Map<Integer, String> expectedOriginal = new HashMap<>(original);
+        Map<Integer, String> expectedCopy = new HashMap<>(original);
+
+        // Remove from the original while its entries are shared with the copy.
+        int visited = 0;
+        for (Iterator<Map.Entry<Integer, String>> it = original.entrySet().iterator();
+                it.hasNext(); ) {
+            Map.Entry<Integer, String> entry = it.next();
+            visited++;
+            if (entry.getKey() != 2) {
+                it.remove();
+                expectedOriginal.remove(entry.getKey());
+            }
+        }
+        Assert.assertEquals(3, visited);
+        assertSameEntries(expectedOriginal, original);
+        assertSameEntries(expectedCopy, copy);
+
+        // Remove from the copy, which is no longer shared.
+        Iterator<Map.Entry<Integer, String>> it = copy.entrySet().iterator();
+        Map.Entry<Integer, String> entry = it.next();
+        it.remove();
+        expectedCopy.remove(entry.getKey());
+        assertSameEntries(expectedOriginal, original);
+        assertSameEntries(expectedCopy, copy);
+
+        try {
+            it.remove();
+            Assert.fail("A second remove() should throw IllegalStateException");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testSetValue() {
+        CopyOnWriteHashMap<Integer, String> original = threeEntries();
+        CopyOnWriteHashMap<Integer, String> copy = new CopyOnWriteHashMap<>(original);
+        Map<Integer, String> expectedOriginal = new HashMap<>(original);
+        Map<Integer, String> expectedCopy = new HashMap<>(original);
+
+        for (Map.Entry<Integer, String> entry : original.entrySet()) {
+            String old = entry.setValue(entry.getValue() + "!");
+            Assert.assertEquals(expectedOriginal.get(entry.getKey()), old);
+            expectedOriginal.put(entry.getKey(), old + "!");
+            Assert.assertEquals(old + "!", entry.getValue());
+        }
+        assertSameEntries(expectedOriginal, original);
+        assertSameEntries(expectedCopy, copy);
+
+        for (Map.Entry<Integer, String> entry : copy.entrySet()) {
+            if (entry.getKey() == 3) {
+                entry.setValue("drei");
+                expectedCopy.put(3, "drei");
+            }
+        }
+        assertSameEntries(expectedOriginal, original);
+        assertSameEntries(expectedCopy, copy);
+    }
+
+    @Test
+    public void testCopyOfCopy() {
+        CopyOnWriteHashMap<Integer, String> original = threeEntries();
+        CopyOnWriteHashMap<Integer, String> copy = new CopyOnWriteHashMap<>(original);
+        CopyOnWriteHashMap<Integer, String> copyOfCopy = new CopyOnWriteHashMap<>(copy);
+        Map<Integer, String> expected = new HashMap<>(original);
+
+        copy.put(4, "four");
+        assertSameEntries(expected, original);
+        assertSameEntries(expected, copyOfCopy);
+
+        original.keySet().remove(1);
+        assertSameEntries(expected, copyOfCopy);
+        expected.remove(1);
+        assertSameEntries(expected, original);
+    }
+
+    /**
+     * Applies random operations to a set of maps that are copied from each other, and checks after
+     * each operation that every map has the same entries as a {@link HashMap} that received the
+     * same operations.
+     */
+    @Test
+    public void testRandomOperations() {
+        Random random = new Random(42);
+        List<CopyOnWriteHashMap<Integer, String>> maps = new ArrayList<>();
+        List<Map<Integer, String>> expected = new ArrayList<>();
+        maps.add(new CopyOnWriteHashMap<>());
+        expected.add(new HashMap<>());
+        for (int step = 0; step < 5000; step++) {
+            int index = random.nextInt(maps.size());
+            CopyOnWriteHashMap<Integer, String> map = maps.get(index);
+            Map<Integer, String> model = expected.get(index);
+            int key = random.nextInt(8);
+            String value = "v" + random.nextInt(4);
+            switch (random.nextInt(6)) {
+                case 0:
+                    Assert.assertEquals(model.put(key, value), map.put(key, value));
+                    break;
+                case 1:
+                    Assert.assertEquals(model.remove(key), map.remove(key));
+                    break;
+                case 2:
+                    for (Iterator<Map.Entry<Integer, String>> it = map.entrySet().iterator();
+                            it.hasNext(); ) {
+                        if (it.next().getKey() == key) {
+                            it.remove();
+                        }
+                    }
+                    model.remove(key);
+                    break;
+                case 3:
+                    for (Map.Entry<Integer, String> entry : map.entrySet()) {
+                        if (entry.getKey() == key) {
+                            entry.setValue(value);
+                            model.put(key, value);
+                        }
+                    }
+                    break;
+                case 4:
+                    if (maps.size() < 8) {
+                        maps.add(new CopyOnWriteHashMap<>(map));
+                        expected.add(new HashMap<>(model));
+                    }
+                    break;
+                case 5:
+                    if (random.nextInt(10) == 0) {
+                        map.clear();
+                        model.clear();
+                    }
+                    break;
+                default:
+                    throw new AssertionError();
+            }
+            for (int i = 0; i < maps.size(); i++) {
+                assertSameEntries(expected.get(i), maps.get(i));
+            }
+        }
+    }
+}
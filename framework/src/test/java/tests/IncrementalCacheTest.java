@@ -0,0 +1,258 @@
+package tests;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.checkerframework.common.value.ValueChecker;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Tests that {@code -AincrementalCacheDir} replays the cached diagnostics of a class when nothing
+ * it depends on has changed, and checks it again otherwise.
+ *
+ * <p>Each test compiles a package {@code p} with two classes and a {@code package-info.java} file
+ * using the Constant Value Checker. {@code Use} calls {@code Dep} and has one error; {@code Dep}
+ * has none. A class that is checked again is cached under a new fingerprint, so the number of
+ * cache entries counts the misses.
+ */
+public class IncrementalCacheTest {
+
+    /** The source of {@code p.Use}. */
+    private static final String USE =
+            "package p;\n"
+                    + "import org.checkerframework.common.value.qual.IntVal;\n"
+                    + "class Use {\n"
+                    + "    void m() {\n"
+                    + "        @IntVal(1) int x = Dep.two();\n"
+                    + "    }\n"
+                    + "}\n";
+
+    /** The source of {@code p.Dep}. */
+    private static final String DEP =
+            "package p;\n"
+                    + "import org.checkerframework.common.value.qual.IntVal;\n"
+                    + "class Dep {\n"
+                    + "    static @IntVal(2) int two() {\n"
+                    + "        return 2;\n"
+                    + "    }\n"
+                    + "}\n";
+
+    /** The source of the {@code package-info.java} file of {@code p}. */
+    private static final String PACKAGE_INFO = "package p;\n";
+
+    /** The temporary directory that holds the sources and the cache. */
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    /** The cache directory. */
+    private File cacheDir;
+
+    /** The source file of {@code p.Use}. */
+    private File useFile;
+
+    /** The source file of {@code p.Dep}. */
+    private File depFile;
+
+    /** The {@code package-info.java} file of {@code p}. */
+    private File packageInfoFile;
+
+    /**
+     * Writes the sources and compiles them once, which caches both classes.
+     *
+     * @throws IOException if the sources cannot be written
+     */
+    @Before
+    public void setUp() throws IOException {
+        cacheDir = temporaryFolder.newFolder("cache");
+        File packageDir = temporaryFolder.newFolder("src", "p");
+        useFile = new File(packageDir, "Use.java");
+        depFile = new File(packageDir, "Dep.java");
+        packageInfoFile = new File(packageDir, "package-info.java");
+        write(useFile, USE);
+        write(depFile, DEP);
+        write(packageInfoFile, PACKAGE_INFO);
+
+        List<String> messages = compile();
+        Assert.assertEquals(messages.toString(), 1, messages.size());
+        Assert.assertTrue(
+                messages.get(0), messages.get(0).contains("assignment.type.incompatible"));
+        Assert.assertEquals(2, cacheEntries().size());
+    }
+
+    @Test
+    public void testHit() throws IOException {
+        // Change the cached message, to tell a replayed diagnostic from a recomputed one.
+        boolean changed = false;
+        for (Path entry : cacheEntries()) {
+            changed |= replaceMessages(entry, "replayed from the cache");
+        }
+        Assert.assertTrue(changed);
+
+        List<String> messages = compile();
+        Assert.assertEquals(Arrays.asList("ERROR: replayed from the cache"), messages);
+        Assert.assertEquals(2, cacheEntries().size());
+    }
+
+    @Test
+    public void testMissAfterSourceEdit() throws IOException {
+        write(useFile, USE.replace("void m()", "void renamed()"));
+        Assert.assertEquals(1, compile().size());
+        // Only Use is checked again; Dep does not depend on it.
+        Assert.assertEquals(3, cacheEntries().size());
+    }
+
+    @Test
+    public void testMissAfterOptionChange() throws IOException {
+        List<String> messages = compile("-Anomsgtext");
+        Assert.assertEquals(messages.toString(), 1, messages.size());
+        Assert.assertTrue(
+                messages.get(0), messages.get(0).contains("assignment.type.incompatible"));
+        Assert.assertEquals(4, cacheEntries().size());
+    }
+
+    @Test
+    public void testMissAfterDependencySignatureChange() throws IOException {
+        write(depFile, DEP.replace("@IntVal(2)", "@IntVal({1, 2})"));
+        Assert.assertEquals(1, compile().size());
+        // Dep changed, and Use depends on the signature of Dep.
+        Assert.assertEquals(4, cacheEntries().size());
+    }
+
+    @Test
+    public void testHitAfterDependencyBodyChange() throws IOException {
+        write(depFile, DEP.replace("return 2;", "return 1 + 1;"));
+        Assert.assertEquals(1, compile().size());
+        // Dep changed, but Use depends only on the signature of Dep.
+        Assert.assertEquals(3, cacheEntries().size());
+    }
+
+    @Test
+    public void testMissAfterPackageInfoChange() throws IOException {
+        write(
+                packageInfoFile,
+                "@org.checkerframework.framework.qual.AnnotatedFor(\"value\")\n" + PACKAGE_INFO);
+        Assert.assertEquals(1, compile().size());
+        // Both classes are in the annotated package.
+        Assert.assertEquals(4, cacheEntries().size());
+    }
+
+    /**
+     * Compiles the sources with the Constant Value Checker and the cache.
+     *
+     * @param extraOptions additional options to pass to javac
+     * @return the errors and warnings issued, as {@code "KIND: message"}
+     * @throws IOException if the file manager cannot be closed
+     */
+    private List<String> compile(String... extraOptions) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        List<String> options = new ArrayList<>();
+        options.add("-proc:only");
+        options.add("-classpath");
+        options.add(System.getProperty("java.class.path"));
+        options.add("-processor");
+        options.add(ValueChecker.class.getName());
+        options.add("-AincrementalCacheDir=" + cacheDir);
+        options.addAll(Arrays.asList(extraOptions));
+        try (StandardJavaFileManager fileManager =
+                compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            compiler.getTask(
+                            null,
+                            fileManager,
+                            diagnostics,
+                            options,
+                            null,
+                            fileManager.getJavaFileObjects(useFile, depFile, packageInfoFile))
+                    .call();
+        }
+        List<String> messages = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() != Diagnostic.Kind.NOTE) {
+                messages.add(diagnostic.getKind() + ": " + diagnostic.getMessage(null));
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Returns the entries in the cache directory.
+     *
+     * @return the files in the cache directory
+     * @throws IOException if the directory cannot be read
+     */
+    private List<Path> cacheEntries() throws IOException {
+        try (Stream<Path> files = Files.list(cacheDir.toPath())) {
+            return files.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Replaces the message of every diagnostic in a cache entry. This mirrors the file format of
+     * {@code IncrementalCache}: a magic number, the number of diagnostics, and for each the kind,
+     * the position, and the length-prefixed UTF-8 message.
+     *
+     * @param entry a cache entry
+     * @param message the new message
+     * @return true if the entry contains a diagnostic
+     * @throws IOException if the entry cannot be read or written
+     */
+    private static boolean replaceMessages(Path entry, String message) throws IOException {
+        int magic;
+        List<String[]> diagnostics = new ArrayList<>();
+        try (DataInputStream in =
+                new DataInputStream(new BufferedInputStream(Files.newInputStream(entry)))) {
+            magic = in.readInt();
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                String kind = in.readUTF();
+                String position = in.readUTF();
+                in.readFully(new byte[in.readInt()]);
+                diagnostics.add(new String[] {kind, position});
+            }
+        }
+        try (DataOutputStream out =
+                new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(entry)))) {
+            out.writeInt(magic);
+            out.writeInt(diagnostics.size());
+            byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+            for (String[] diagnostic : diagnostics) {
+                out.writeUTF(diagnostic[0]);
+                out.writeUTF(diagnostic[1]);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+        }
+        return !diagnostics.isEmpty();
+    }
+
+    /**
+     * Writes a source file.
+     *
+     * @param file the file
+     * @param contents the contents of the file
+     * @throws IOException if the file cannot be written
+     */
+    private static void write(File file, String contents) throws IOException {
+        Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,5 +1,6 @@
 package tests;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -484,6 +485,96 @@ public class RangeTest {
         }
     }
 
+    /**
+     * Tests that plus, minus, times, and shiftLeft compute the same ranges as evaluating the bounds
+     * exactly with BigInteger and then converting them to a Range.
+     */
+    @Test
+    public void testArithmeticMatchesBigInteger() {
+        try {
+            for (boolean ignoreOverflow : new boolean[] {false, true}) {
+                Range.ignoreOverflow = ignoreOverflow;
+                for (Range range1 : ranges) {
+                    BigInteger from1 = BigInteger.valueOf(range1.from);
+                    BigInteger to1 = BigInteger.valueOf(range1.to);
+                    for (Range range2 : ranges) {
+                        BigInteger from2 = BigInteger.valueOf(range2.from);
+                        BigInteger to2 = BigInteger.valueOf(range2.to);
+                        Assert.assertEquals(
+                                range1 + " + " + range2,
+                                bigRange(from1.add(from2), to1.add(to2)),
+                                range1.plus(range2));
+                        Assert.assertEquals(
+                                range1 + " - " + range2,
+                                bigRange(from1.subtract(to2), to1.subtract(from2)),
+                                range1.minus(range2));
+                        List<BigInteger> products =
+                                Arrays.asList(
+                                        from1.multiply(from2),
+                                        from1.multiply(to2),
+                                        to1.multiply(from2),
+                                        to1.multiply(to2));
+                        Assert.assertEquals(
+                                range1 + " * " + range2,
+                                bigRange(Collections.min(products), Collections.max(products)),
+                                range1.times(range2));
+                        if (range2.isWithin(0, 31)) {
+                            BigInteger shiftedFrom =
+                                    from1.shiftLeft(
+                                            (int) (range1.from >= 0 ? range2.from : range2.to));
+                            BigInteger shiftedTo =
+                                    to1.shiftLeft((int) (range1.to >= 0 ? range2.to : range2.from));
+                            Assert.assertEquals(
+                                    range1 + " << " + range2,
+                                    bigRange(shiftedFrom, shiftedTo),
+                                    range1.shiftLeft(range2));
+                        }
+                    }
+                }
+            }
+        } finally {
+            Range.ignoreOverflow = false;
+        }
+    }
+
+    /**
+     * Converts exact bounds to a Range the way Range's arithmetic operations do.
+     *
+     * @param from the exact lower bound
+     * @param to the exact upper bound
+     * @return the Range for the given bounds
+     */
+    private static Range bigRange(BigInteger from, BigInteger to) {
+        BigInteger longMin = BigInteger.valueOf(Long.MIN_VALUE);
+        BigInteger longMax = BigInteger.valueOf(Long.MAX_VALUE);
+        if (Range.ignoreOverflow) {
+            from = from.max(longMin);
+            to = to.min(longMax);
+        } else if (to.subtract(from).compareTo(longMax.subtract(longMin)) > 0) {
+            return Range.EVERYTHING;
+        }
+        if (from.longValue() > to.longValue()) {
+            return Range.EVERYTHING;
+        }
+        return Range.create(from.longValue(), to.longValue());
+    }
+
+    @Test
+    public void testIsWiderThan() {
+        for (Range range : ranges) {
+            BigInteger width =
+                    BigInteger.valueOf(range.to)
+                            .subtract(BigInteger.valueOf(range.from))
+                            .add(BigInteger.ONE);
+            for (long value : values) {
+                Assert.assertEquals(
+                        range + " wider than " + value,
+                        width.compareTo(BigInteger.valueOf(value)) > 0,
+                        range.isWiderThan(value));
+            }
+        }
+    }
+
     @Test
     public void testSignedShiftRight() {
         for (RangeAndElement re1 : rangeAndElements()) {
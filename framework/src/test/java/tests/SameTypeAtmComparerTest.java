@@ -0,0 +1,226 @@
+package tests;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import org.checkerframework.common.value.qual.BottomVal;
+import org.checkerframework.common.value.qual.UnknownVal;
+import org.checkerframework.framework.type.AnnotatedTypeFactory;
+import org.checkerframework.framework.type.AnnotatedTypeMirror;
+import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedDeclaredType;
+import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedTypeVariable;
+import org.checkerframework.framework.type.AnnotatedTypeMirror.AnnotatedWildcardType;
+import org.checkerframework.framework.type.EqualityAtmComparer;
+import org.checkerframework.framework.type.SameTypeAtmComparer;
+import org.checkerframework.javacutil.AnnotationBuilder;
+import org.junit.Assert;
+import org.junit.Test;
+import testlib.util.TypeFactoryTestRunner;
+
+/**
+ * Tests {@link SameTypeAtmComparer}, which compares the keys of the subtyping cache of {@code
+ * DefaultTypeHierarchy}. Each test checks a case in which it must disagree with {@link
+ * EqualityAtmComparer}, or in which the two must agree.
+ */
+public class SameTypeAtmComparerTest {
+
+    @Test
+    public void testSameUnderlyingTypeInstances() {
+        TypeFactoryTestRunner.run(
+                "class Test {}",
+                factory -> {
+                    // javac creates a new type for each call, so the underlying types are equal but
+                    // not identical.
+                    AnnotatedTypeMirror type1 = listOf(factory, "java.lang.String");
+                    AnnotatedTypeMirror type2 = listOf(factory, "java.lang.String");
+                    Assert.assertNotSame(type1.getUnderlyingType(), type2.getUnderlyingType());
+                    Assert.assertFalse(new EqualityAtmComparer().visit(type1, type2, null));
+                    assertSameType(factory, type1, type2, true);
+
+                    assertSameType(factory, type1, listOf(factory, "java.lang.Integer"), false);
+
+                    type2.replaceAnnotation(bottomVal(factory));
+                    assertSameType(factory, type1, type2, false);
+                });
+    }
+
+    @Test
+    public void testWasRaw() {
+        TypeFactoryTestRunner.run(
+                "class Test<T> extends Base {} class Base {}",
+                factory -> {
+                    Elements elements = factory.getElementUtils();
+                    Types types = factory.getProcessingEnv().getTypeUtils();
+                    AnnotatedDeclaredType rawTest =
+                            (AnnotatedDeclaredType)
+                                    AnnotatedTypeMirror.createType(
+                                            types.getDeclaredType(elements.getTypeElement("Test")),
+                                            factory,
+                                            false);
+                    Assert.assertTrue(rawTest.wasRaw());
+                    // The supertypes of a raw type are marked as raw, even if they are not generic.
+                    AnnotatedDeclaredType rawBase = rawTest.directSuperTypes().get(0);
+                    Assert.assertTrue(rawBase.wasRaw());
+                    AnnotatedDeclaredType base =
+                            (AnnotatedDeclaredType)
+                                    AnnotatedTypeMirror.createType(
+                                            rawBase.getUnderlyingType(), factory, false);
+                    base.addAnnotations(rawBase.getAnnotations());
+                    Assert.assertFalse(base.wasRaw());
+
+                    Assert.assertTrue(new EqualityAtmComparer().visit(rawBase, base, null));
+                    assertSameType(factory, rawBase, rawBase.deepCopy(), true);
+                    assertSameType(factory, rawBase, base, false);
+                });
+    }
+
+    @Test
+    public void testUninferredTypeArgument() {
+        TypeFactoryTestRunner.run(
+                "class Test {}",
+                factory -> {
+                    Types types = factory.getProcessingEnv().getTypeUtils();
+                    AnnotatedWildcardType wildcard =
+                            (AnnotatedWildcardType)
+                                    AnnotatedTypeMirror.createType(
+                                            types.getWildcardType(null, null), factory, false);
+                    wildcard.getExtendsBound().replaceAnnotation(unknownVal(factory));
+                    wildcard.getSuperBound().replaceAnnotation(bottomVal(factory));
+                    AnnotatedWildcardType uninferred = wildcard.deepCopy();
+                    uninferred.setUninferredTypeArgument();
+
+                    Assert.assertTrue(new EqualityAtmComparer().visit(wildcard, uninferred, null));
+                    assertSameType(factory, wildcard, wildcard.deepCopy(), true);
+                    assertSameType(factory, wildcard, uninferred, false);
+                    assertSameType(factory, uninferred, uninferred.deepCopy(), true);
+
+                    // Wildcards are compared by identity.
+                    AnnotatedTypeMirror other =
+                            AnnotatedTypeMirror.createType(
+                                    types.getWildcardType(null, null), factory, false);
+                    other.replaceAnnotations(wildcard.getAnnotations());
+                    assertSameType(factory, wildcard, other, false);
+                });
+    }
+
+    @Test
+    public void testDeclaration() {
+        TypeFactoryTestRunner.run(
+                "class Test {}",
+                factory -> {
+                    TypeElement list = factory.getElementUtils().getTypeElement("java.util.List");
+                    AnnotatedDeclaredType declaration = factory.getAnnotatedType(list);
+                    Assert.assertTrue(declaration.isDeclaration());
+                    AnnotatedDeclaredType use = declaration.asUse();
+                    Assert.assertFalse(use.isDeclaration());
+
+                    Assert.assertTrue(new EqualityAtmComparer().visit(declaration, use, null));
+                    assertSameType(factory, declaration, declaration.deepCopy(), true);
+                    assertSameType(factory, declaration, use, false);
+                });
+    }
+
+    @Test
+    public void testTypeVariableIdentity() {
+        TypeFactoryTestRunner.run(
+                "class Test {}",
+                factory -> {
+                    Elements elements = factory.getElementUtils();
+                    AnnotatedTypeVariable listE =
+                            typeParameter(factory, elements.getTypeElement("java.util.List"));
+                    AnnotatedTypeVariable collectionE =
+                            typeParameter(
+                                    factory, elements.getTypeElement("java.util.Collection"));
+                    // Both are named E and have the same bounds and annotations.
+                    Assert.assertEquals(
+                            listE.getUnderlyingType().toString(),
+                            collectionE.getUnderlyingType().toString());
+                    collectionE.replaceAnnotations(listE.getAnnotations());
+
+                    assertSameType(factory, listE, listE.deepCopy(), true);
+                    assertSameType(
+                            factory,
+                            listE,
+                            typeParameter(factory, elements.getTypeElement("java.util.List")),
+                            true);
+                    assertSameType(factory, listE, collectionE, false);
+                });
+    }
+
+    /**
+     * Asserts that {@link SameTypeAtmComparer} gives the expected result for the two types, in
+     * both orders.
+     *
+     * @param factory the type factory
+     * @param type1 a type
+     * @param type2 another type
+     * @param expected whether the types are expected to be the same
+     */
+    private static void assertSameType(
+            AnnotatedTypeFactory factory,
+            AnnotatedTypeMirror type1,
+            AnnotatedTypeMirror type2,
+            boolean expected) {
+        SameTypeAtmComparer comparer =
+                new SameTypeAtmComparer(factory.getProcessingEnv().getTypeUtils());
+        Assert.assertEquals(type1 + " and " + type2, expected, comparer.visit(type1, type2, null));
+        Assert.assertEquals(type2 + " and " + type1, expected, comparer.visit(type2, type1, null));
+    }
+
+    /**
+     * Returns a new {@code @UnknownVal List<@UnknownVal T>}, where T is the given class.
+     *
+     * @param factory the type factory
+     * @param typeArgument the fully-qualified name of the type argument
+     * @return a new type for a list of {@code typeArgument}
+     */
+    private static AnnotatedDeclaredType listOf(AnnotatedTypeFactory factory, String typeArgument) {
+        Elements elements = factory.getElementUtils();
+        TypeMirror underlying =
+                factory.getProcessingEnv()
+                        .getTypeUtils()
+                        .getDeclaredType(
+                                elements.getTypeElement("java.util.List"),
+                                elements.getTypeElement(typeArgument).asType());
+        AnnotatedDeclaredType type =
+                (AnnotatedDeclaredType) AnnotatedTypeMirror.createType(underlying, factory, false);
+        type.addAnnotation(unknownVal(factory));
+        type.getTypeArguments().get(0).addAnnotation(unknownVal(factory));
+        return type;
+    }
+
+    /**
+     * Returns the use of the first type parameter of a generic class.
+     *
+     * @param factory the type factory
+     * @param genericClass a generic class
+     * @return the first type parameter of {@code genericClass}
+     */
+    private static AnnotatedTypeVariable typeParameter(
+            AnnotatedTypeFactory factory, TypeElement genericClass) {
+        return (AnnotatedTypeVariable)
+                factory.getAnnotatedType(genericClass).getTypeArguments().get(0).asUse();
+    }
+
+    /**
+     * Returns {@code @UnknownVal}.
+     *
+     * @param factory the type factory of the Constant Value Checker
+     * @return {@code @UnknownVal}
+     */
+    private static AnnotationMirror unknownVal(AnnotatedTypeFactory factory) {
+        return AnnotationBuilder.fromClass(factory.getElementUtils(), UnknownVal.class);
+    }
+
+    /**
+     * Returns {@code @BottomVal}.
+     *
+     * @param factory the type factory of the Constant Value Checker
+     * @return {@code @BottomVal}
+     */
+    private static AnnotationMirror bottomVal(AnnotatedTypeFactory factory) {
+        return AnnotationBuilder.fromClass(factory.getElementUtils(), BottomVal.class);
+    }
+}
@@ -0,0 +1,123 @@
+package tests.wpirunners;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import org.checkerframework.common.wholeprograminference.WholeProgramInferenceDriver;
+import org.checkerframework.common.wholeprograminference.WholeProgramInferenceScenesStorage;
+import org.checkerframework.javacutil.UserError;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+import testlib.wholeprograminference.WholeProgramInferenceTestChecker;
+
+/**
+ * Tests {@link WholeProgramInferenceDriver}.
+ *
+ * <p>The driver writes to {@link WholeProgramInferenceScenesStorage#JAIF_FILES_PATH}, which is
+ * relative to the working directory and is also used by the other whole-program inference tests.
+ * Therefore, it is not run by the {@code test} task but by {@code testWPIDriver}, which runs before
+ * the other whole-program inference tasks.
+ */
+@Category(WholeProgramInferenceDriverTest.class)
+public class WholeProgramInferenceDriverTest {
+
+    /**
+     * A class whose field type is inferred in the first round and unchanged in the second. The
+     * inferred stub file of the first round does not change what the second round infers.
+     */
+    private static final String SOURCE =
+            "import testlib.wholeprograminference.qual.Sibling1;\n"
+                    + "class FixpointInTwoRounds {\n"
+                    + "    Object field;\n"
+                    + "    void set(@Sibling1 Object o) {\n"
+                    + "        field = o;\n"
+                    + "    }\n"
+                    + "}\n";
+
+    /** The temporary directory that holds the source file. */
+    @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testFixpointInTwoRounds() throws IOException {
+        Assert.assertTrue(runDriver(3));
+        String stub =
+                new String(
+                        Files.readAllBytes(
+                                Paths.get(
+                                        WholeProgramInferenceScenesStorage.JAIF_FILES_PATH,
+                                        "FixpointInTwoRounds-"
+                                                + WholeProgramInferenceTestChecker.class.getName()
+                                                + ".astub")),
+                        StandardCharsets.UTF_8);
+        Assert.assertTrue(stub, stub.contains("@Sibling1 java.lang.Object field;"));
+    }
+
+    @Test
+    public void testMaxRounds() throws IOException {
+        Assert.assertFalse(runDriver(1));
+    }
+
+    @Test
+    public void testMalformedMaxRounds() {
+        for (String value : Arrays.asList("", "two", "0")) {
+            try {
+                WholeProgramInferenceDriver.main(
+                        new String[] {
+                            "--max-rounds=" + value,
+                            "-processor",
+                            WholeProgramInferenceTestChecker.class.getName(),
+                            "Unused.java"
+                        });
+                Assert.fail("expected UserError for --max-rounds=" + value);
+            } catch (UserError e) {
+                Assert.assertTrue(e.getMessage(), e.getMessage().contains("--max-rounds="));
+            }
+        }
+    }
+
+    @Test
+    public void testMissingOptionValue() {
+        String processor = WholeProgramInferenceTestChecker.class.getName();
+        for (String[] args :
+                Arrays.asList(
+                        new String[] {"Unused.java", "-processor"},
+                        new String[] {"-processor", processor, "Unused.java", "-classpath"})) {
+            try {
+                WholeProgramInferenceDriver.main(args);
+                Assert.fail("expected UserError for " + Arrays.toString(args));
+            } catch (UserError e) {
+                Assert.assertTrue(e.getMessage(), e.getMessage().contains("expects a value"));
+            }
+        }
+    }
+
+    /**
+     * Writes {@link #SOURCE} to a file and runs the driver with the WPI test checker on it.
+     *
+     * @param maxRounds the maximum number of rounds to run
+     * @return true if a fixpoint was reached
+     * @throws IOException if a file cannot be read or written
+     */
+    private boolean runDriver(int maxRounds) throws IOException {
+        File source = temporaryFolder.newFile("FixpointInTwoRounds.java");
+        Files.write(source.toPath(), SOURCE.getBytes(StandardCharsets.UTF_8));
+        WholeProgramInferenceDriver driver =
+                new WholeProgramInferenceDriver(
+                        Collections.singletonList(WholeProgramInferenceTestChecker.class.getName()),
+                        Arrays.asList(
+                                "-proc:only", "-classpath", System.getProperty("java.class.path")),
+                        Collections.singletonList(source.getPath()));
+        try {
+            return driver.run(maxRounds);
+        } finally {
+            driver.close();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package tests.wpirunners;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.checkerframework.common.wholeprograminference.WholeProgramInferenceScenesStorage;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import testlib.wholeprograminference.WholeProgramInferenceTestChecker;
+
+/**
+ * Tests {@code -AinferWriteInBackground}.
+ *
+ * <p>This test writes to {@link WholeProgramInferenceScenesStorage#JAIF_FILES_PATH}, like {@link
+ * WholeProgramInferenceDriverTest}, so it is run by {@code testWPIWriteInBackground}, after {@code
+ * testWPIDriver} and before the other whole-program inference tasks.
+ */
+@Category(WholeProgramInferenceDriverTest.class)
+public class WholeProgramInferenceWriteInBackgroundTest {
+
+    /**
+     * Tests that {@code -AinferWriteInBackground} writes the same stub files as a synchronous run,
+     * on the framework's whole-program inference test sources.
+     */
+    @Test
+    public void testWriteInBackground() throws IOException {
+        Map<String, byte[]> synchronous = inferStubs();
+        Map<String, byte[]> background = inferStubs("-AinferWriteInBackground");
+        Assert.assertFalse(synchronous.isEmpty());
+        Assert.assertEquals(synchronous.keySet(), background.keySet());
+        for (Map.Entry<String, byte[]> entry : synchronous.entrySet()) {
+            Assert.assertArrayEquals(
+                    entry.getKey(), entry.getValue(), background.get(entry.getKey()));
+        }
+    }
+
+    /**
+     * Runs one round of stub-based inference with the WPI test checker on the sources in {@code
+     * tests/whole-program-inference/non-annotated}.
+     *
+     * @param extraOptions additional options to pass to javac
+     * @return a map from the path of each stub file written, relative to {@link
+     *     WholeProgramInferenceScenesStorage#JAIF_FILES_PATH}, to its contents
+     * @throws IOException if a file cannot be read or deleted
+     */
+    private static Map<String, byte[]> inferStubs(String... extraOptions) throws IOException {
+        Path outputDir = Paths.get(WholeProgramInferenceScenesStorage.JAIF_FILES_PATH);
+        deleteRecursively(outputDir);
+        List<File> sources = new ArrayList<>();
+        try (Stream<Path> paths =
+                Files.list(Paths.get("tests", "whole-program-inference", "non-annotated"))) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (path.toString().endsWith(".java")) {
+                    sources.add(path.toFile());
+                }
+            }
+        }
+        List<String> options = new ArrayList<>();
+        options.add("-proc:only");
+        options.add("-classpath");
+        options.add(System.getProperty("java.class.path"));
+        options.add("-processor");
+        options.add(WholeProgramInferenceTestChecker.class.getName());
+        options.add("-Ainfer=stubs");
+        options.add("-Awarns");
+        options.add("-Anomsgtext");
+        options.addAll(Arrays.asList(extraOptions));
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager =
+                compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            boolean success =
+                    compiler.getTask(
+                                    null,
+                                    fileManager,
+                                    diagnostics,
+                                    options,
+                                    null,
+                                    fileManager.getJavaFileObjectsFromFiles(sources))
+                            .call();
+            Assert.assertTrue(diagnostics.getDiagnostics().toString(), success);
+        }
+
+        Map<String, byte[]> files = new TreeMap<>();
+        try (Stream<Path> paths = Files.walk(outputDir)) {
+            for (Path path : (Iterable<Path>) paths.filter(Files::isRegularFile)::iterator) {
+                files.put(outputDir.relativize(path).toString(), Files.readAllBytes(path));
+            }
+        }
+        deleteRecursively(outputDir);
+        return files;
+    }
+
+    /**
+     * Deletes {@code path} and, if it is a directory, everything under it.
+     *
+     * @param path the file or directory to delete, which need not exist
+     * @throws IOException if a file cannot be deleted
+     */
+    private static void deleteRecursively(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(path)) {
+            for (Path p : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(p);
+            }
+        }
+    }
+}
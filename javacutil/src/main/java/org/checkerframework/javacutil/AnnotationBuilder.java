@@ -1,9 +1,13 @@
 package org.checkerframework.javacutil;
 
 import java.lang.annotation.Annotation;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -49,6 +53,12 @@ import org.checkerframework.dataflow.qual.SideEffectFree;
  * <p>All setter methods throw {@link IllegalArgumentException} if the specified element is not
  * found, or if the given value is not a subtype of the expected type.
  *
+ * <p>The mirrors returned by {@link #build()}, {@link #fromName}, and {@link #fromClass} are
+ * interned: building an annotation with the same type and the same element values as a mirror that
+ * is still reachable returns that mirror. Therefore, {@link AnnotationUtils#areSame} usually
+ * succeeds by reference comparison, and the many equal {@code @IntVal} or {@code @KeyFor}
+ * annotations that a checker builds share a single object.
+ *
  * <p>TODO: Doesn't type-check arrays yet
  */
 public class AnnotationBuilder {
@@ -172,8 +182,7 @@ public class AnnotationBuilder {
         if (annoType == null) {
             return null;
         }
-        AnnotationMirror result =
-                new CheckerFrameworkAnnotationMirror(annoType, Collections.emptyMap());
+        AnnotationMirror result = InternedMirrors.intern(annoType, Collections.emptyMap());
         return result;
     }
 
@@ -186,10 +195,16 @@ public class AnnotationBuilder {
         }
     }
 
+    /**
+     * Returns the annotation that has been built. Returns an existing mirror if one with the same
+     * type and element values is still reachable.
+     *
+     * @return the annotation that has been built
+     */
     public AnnotationMirror build() {
         assertNotBuilt();
         wasBuilt = true;
-        return new CheckerFrameworkAnnotationMirror(annotationType, elementValues);
+        return InternedMirrors.intern(annotationType, elementValues);
     }
 
     /**
@@ -631,6 +646,113 @@ public class AnnotationBuilder {
         }
     }
 
+    /**
+     * The pool of interned {@link CheckerFrameworkAnnotationMirror}s. The pool refers to its mirrors
+     * weakly, so a mirror is dropped from the pool once the rest of the program no longer uses it.
+     * The pool is shared by all compilations and checkers in the JVM; all access is synchronized.
+     *
+     * <p>The pool must not refer strongly to anything from a compilation: the annotation type
+     * element reaches the compilation's context, and through it the checker and the mirrors it
+     * uses, so a strong reference would keep every mirror, and every compilation, alive. Therefore
+     * the pool is keyed only by a hash code, and a candidate mirror found in the pool is compared
+     * with the requested type and element values through the mirror itself.
+     *
+     * <p>Two mirrors are interned to the same object only if they have the same annotation type and
+     * their element values are equal according to {@link AnnotationValue#equals}. That is
+     * conservative: for example, two javac-created values that are {@link
+     * AnnotationUtils#areSame} but distinct objects are kept apart. Values of different boxed types,
+     * such as {@code 33} and {@code 33L}, are also kept apart.
+     */
+    private static final class InternedMirrors {
+
+        /**
+         * Maps the hash code of the type and element values of a mirror to the mirrors with that
+         * hash code.
+         */
+        private static final Map<Integer, List<MirrorReference>> pool = new HashMap<>();
+
+        /** The queue to which the references of reclaimed mirrors are enqueued. */
+        private static final ReferenceQueue<CheckerFrameworkAnnotationMirror> reclaimed =
+                new ReferenceQueue<>();
+
+        /** Do not instantiate. */
+        private InternedMirrors() {
+            throw new Error("Do not instantiate");
+        }
+
+        /**
+         * Returns a mirror with the given type and element values, reusing an existing mirror if
+         * possible.
+         *
+         * @param annotationType the type of the annotation
+         * @param elementValues the element values of the annotation; must not be modified later
+         * @return a mirror with the given type and element values
+         */
+        static synchronized CheckerFrameworkAnnotationMirror intern(
+                DeclaredType annotationType, Map<ExecutableElement, AnnotationValue> elementValues) {
+            expungeReclaimed();
+            Element annotationElement = annotationType.asElement();
+            int hashCode =
+                    31 * System.identityHashCode(annotationElement) + elementValues.hashCode();
+            List<MirrorReference> mirrors = pool.get(hashCode);
+            if (mirrors == null) {
+                mirrors = new ArrayList<>(1);
+                pool.put(hashCode, mirrors);
+            } else {
+                for (MirrorReference ref : mirrors) {
+                    CheckerFrameworkAnnotationMirror mirror = ref.get();
+                    if (mirror != null
+                            && mirror.annotationType.asElement() == annotationElement
+                            && mirror.elementValues.equals(elementValues)) {
+                        return mirror;
+                    }
+                }
+            }
+            CheckerFrameworkAnnotationMirror mirror =
+                    new CheckerFrameworkAnnotationMirror(annotationType, elementValues);
+            mirrors.add(new MirrorReference(mirror, hashCode, reclaimed));
+            return mirror;
+        }
+
+        /** Removes the references to reclaimed mirrors from the pool. */
+        private static void expungeReclaimed() {
+            Reference<? extends CheckerFrameworkAnnotationMirror> ref;
+            while ((ref = reclaimed.poll()) != null) {
+                int hashCode = ((MirrorReference) ref).hashCode;
+                List<MirrorReference> mirrors = pool.get(hashCode);
+                if (mirrors != null) {
+                    mirrors.remove(ref);
+                    if (mirrors.isEmpty()) {
+                        pool.remove(hashCode);
+                    }
+                }
+            }
+        }
+
+        /** A weak reference to an interned mirror that remembers the mirror's hash code. */
+        private static final class MirrorReference
+                extends WeakReference<CheckerFrameworkAnnotationMirror> {
+            /** The hash code under which the mirror is stored in the pool. */
+            final int hashCode;
+
+            /**
+             * Creates a reference to an interned mirror.
+             *
+             * @param mirror the mirror
+             * @param hashCode the hash code under which the mirror is stored in the pool
+             * @param queue the queue to which this reference is enqueued when the mirror is
+             *     reclaimed
+             */
+            MirrorReference(
+                    CheckerFrameworkAnnotationMirror mirror,
+                    int hashCode,
+                    ReferenceQueue<CheckerFrameworkAnnotationMirror> queue) {
+                super(mirror, queue);
+                this.hashCode = hashCode;
+            }
+        }
+    }
+
     /** Implementation of AnnotationValue used by the Checker Framework. */
     private static class CheckerFrameworkAnnotationValue implements AnnotationValue {
         /** The value. */
@@ -603,6 +603,61 @@ public class AnnotationUtils {
         return compareAnnotationValue(av1, av2) == 0;
     }
 
+    /**
+     * Returns a hash code for an annotation that is consistent with {@link
+     * #areSame(AnnotationMirror, AnnotationMirror)}: annotations that are the same have the same
+     * hash code. The hash code depends on the name of the annotation and on its element values,
+     * with default values filled in.
+     *
+     * @param anno an annotation
+     * @return a hash code for {@code anno}
+     */
+    public static int annotationHashCode(AnnotationMirror anno) {
+        int hash = annotationName(anno).hashCode();
+        Map<? extends ExecutableElement, ? extends AnnotationValue> vals = anno.getElementValues();
+        for (ExecutableElement meth :
+                ElementFilter.methodsIn(
+                        anno.getAnnotationType().asElement().getEnclosedElements())) {
+            AnnotationValue aval = vals.get(meth);
+            if (aval == null) {
+                aval = meth.getDefaultValue();
+            }
+            // Sum the hash codes of the elements, so that the order of the methods does not matter.
+            hash +=
+                    meth.getSimpleName().toString().hashCode() * 31
+                            + annotationValueHashCode(aval == null ? null : aval.getValue());
+        }
+        return hash;
+    }
+
+    /**
+     * Returns a hash code for an annotation value that is consistent with {@code
+     * compareAnnotationValueValue}: values that compare as 0 have the same hash code.
+     *
+     * @param val a value returned by {@code AnnotationValue.getValue()}, or null
+     * @return a hash code for {@code val}
+     */
+    private static int annotationValueHashCode(@Nullable Object val) {
+        if (val == null) {
+            return 0;
+        } else if (val instanceof List<?>) {
+            // Lists are compared element by element, in order.
+            int hash = 1;
+            for (Object element : (List<?>) val) {
+                hash = hash * 31 + annotationValueHashCode(element);
+            }
+            return hash;
+        } else if (val instanceof AnnotationMirror) {
+            return annotationHashCode((AnnotationMirror) val);
+        } else if (val instanceof AnnotationValue) {
+            return annotationValueHashCode(((AnnotationValue) val).getValue());
+        } else if (val instanceof Type.ClassType) {
+            // TypesUtils.areSameDeclaredTypes compares the simple names first.
+            return ((Type.ClassType) val).tsym.name.toString().hashCode();
+        }
+        return val.hashCode();
+    }
+
     /**
      * Verify whether the element with the name {@code elementName} exists in the annotation {@code
      * anno}.